@@ -0,0 +1,73 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.Controller.AttendanceController;
+import com.classroom.class_backend.dto.AttendanceRequest;
+import com.classroom.class_backend.repository.AttendanceRepository;
+import com.classroom.class_backend.service.AttendanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AttendanceController.submitAttendance: request DTO to Attendance entity mapping plus the
+ * service's date and duplicate checks, for realistic class sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceMappingBenchmark {
+
+    @Param({"30", "60", "240"})
+    public int students;
+
+    private AttendanceController controller;
+
+    private AttendanceRequest request;
+
+    @Setup
+    public void setUp() {
+        AttendanceService service = new AttendanceService();
+        Fakes.inject(service, "attendanceRepository", Fakes.repository(AttendanceRepository.class, Map.of(
+            "findByClassIdAndDate", args -> List.of(),
+            "save", args -> args[0])));
+        Fakes.inject(service, "changeLogService", Fixtures.changeLogService());
+        controller = new AttendanceController();
+        Fakes.inject(controller, "attendanceService", service);
+
+        request = new AttendanceRequest();
+        request.setClassId("class-1");
+        request.setDate(LocalDate.now(ZoneId.of("Asia/Kolkata")).toString());
+        List<AttendanceRequest.AttendanceEntry> entries = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            AttendanceRequest.AttendanceEntry entry = new AttendanceRequest.AttendanceEntry();
+            entry.setUserId("student-" + i);
+            entry.setPresent(i % 7 != 0);
+            entries.add(entry);
+        }
+        request.setAttendance(entries);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> submitAttendance() {
+        return controller.submitAttendance(request, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.classroom.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate per operation) and writes
+ * JSON results for tracking over time. Accepts the usual JMH command line, e.g.
+ * {@code java -jar target/benchmarks.jar Roster -rff target/roster.json}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+            .result(commandLine.getResult().orElse("target/jmh-result.json"))
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.classroom.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Class code validation as done in ClassService.createClass: String.matches (the original
+ * code) against a precompiled Pattern (the current code) and a hand-written character loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassCodeValidationBenchmark {
+
+    private static final Pattern CLASS_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{8}$");
+
+    @Param({"AB12CD34", "ab12cd34", "AB12CD345"})
+    public String classCode;
+
+    @Benchmark
+    public boolean stringMatches() {
+        return classCode.matches("^[A-Z0-9]{8}$");
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return CLASS_CODE_PATTERN.matcher(classCode).matches();
+    }
+
+    @Benchmark
+    public boolean characterLoop() {
+        if (classCode.length() != 8) {
+            return false;
+        }
+        for (int i = 0; i < 8; i++) {
+            char c = classCode.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package com.classroom.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repository fakes and field injection, so services can be benchmarked without Spring or Mongo.
+ */
+public final class Fakes {
+
+    private Fakes() {}
+
+    /**
+     * A repository whose methods are answered by name; any other call fails loudly so a
+     * benchmark never silently measures a stub.
+     */
+    public static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return self == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(self);
+                    default:
+                        return "Fake" + type.getSimpleName();
+                }
+            }
+
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not faked");
+        });
+        return type.cast(proxy);
+    }
+
+    public static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
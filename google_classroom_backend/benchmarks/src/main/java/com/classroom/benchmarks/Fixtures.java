@@ -0,0 +1,55 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.repository.ChangeEventRepository;
+import com.classroom.class_backend.repository.ChangeSequenceRepository;
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.InvalidationBus;
+import com.classroom.class_backend.service.PasswordHasher;
+import com.classroom.class_backend.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collaborators shared by the service benchmarks.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    public static ChangeLogService changeLogService() {
+        AtomicLong sequence = new AtomicLong();
+        ChangeLogService changeLogService = new ChangeLogService();
+        Fakes.inject(changeLogService, "changeSequenceRepository", Fakes.repository(ChangeSequenceRepository.class, Map.of(
+            "nextSequence", args -> sequence.incrementAndGet(),
+            "findById", args -> Optional.empty())));
+        Fakes.inject(changeLogService, "changeEventRepository", Fakes.repository(ChangeEventRepository.class, Map.of(
+            "insert", args -> args[0])));
+        Fakes.inject(changeLogService, "invalidationBus", new InvalidationBus());
+        Fakes.inject(changeLogService, "versionCacheTtl", Duration.ofSeconds(1));
+        Fakes.inject(changeLogService, "coherentVersionCacheTtl", Duration.ofMinutes(5));
+        return changeLogService;
+    }
+
+    public static SingleFlight singleFlight() {
+        SingleFlight singleFlight = new SingleFlight();
+        Fakes.inject(singleFlight, "meterRegistry", new SimpleMeterRegistry());
+        return singleFlight;
+    }
+
+    /** One hashing thread; calibration is pinned to cost by a target no hash can meet. */
+    public static PasswordHasher passwordHasher(int cost) {
+        PasswordHasher passwordHasher = new PasswordHasher();
+        Fakes.inject(passwordHasher, "meterRegistry", new SimpleMeterRegistry());
+        Fakes.inject(passwordHasher, "threads", 1);
+        Fakes.inject(passwordHasher, "queueCapacity", 16);
+        Fakes.inject(passwordHasher, "queueTimeout", Duration.ofSeconds(5));
+        Fakes.inject(passwordHasher, "targetTime", Duration.ofNanos(1));
+        Fakes.inject(passwordHasher, "minCost", cost);
+        passwordHasher.init();
+        return passwordHasher;
+    }
+}
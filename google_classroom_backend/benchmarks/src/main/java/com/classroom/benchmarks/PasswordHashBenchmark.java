@@ -0,0 +1,65 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.service.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification as done by UserService.login, in logins per second on one core: BCrypt
+ * at each cost directly, and through PasswordHasher with a single hashing thread (its queue
+ * hand-off included). Multiply by the hashing threads to size a deployment for a login storm,
+ * e.g. 5000 students in five minutes need about 17 verifications per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery";
+
+    @Param({"10", "11", "12"})
+    public int cost;
+
+    private String hash;
+
+    private PasswordHasher hasher;
+
+    @Setup
+    public void setUp() {
+        hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+        hasher = Fixtures.passwordHasher(cost);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    public boolean bcryptVerify() {
+        return BCrypt.checkpw(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean hasherVerify() {
+        return hasher.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,95 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.dto.SuccessResponse;
+import com.classroom.class_backend.model.Attendance;
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the larger response bodies, using an ObjectMapper configured the way
+ * Spring Boot configures the one behind the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"60", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+
+    private Map<String, Object> attendanceResponse;
+
+    private List<Homework> homeworkList;
+
+    private SuccessResponse submissionsResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Attendance.AttendanceEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new Attendance.AttendanceEntry("student-" + i, i % 7 != 0));
+        }
+        attendanceResponse = new HashMap<>();
+        attendanceResponse.put("message", "Attendance submitted successfully!");
+        attendanceResponse.put("data", new Attendance("att-1", "class-1", LocalDate.now().toString(), entries));
+
+        homeworkList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            homeworkList.add(new Homework("hw-" + i, "class-1", "Homework " + i,
+                "Read chapter " + i + " and answer the questions at the end of the chapter.",
+                now.minusDays(i), now.plusDays(7 - i % 14), "teacher-1"));
+        }
+
+        List<HomeworkSubmission> submissions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            submissions.add(new HomeworkSubmission("sub-" + i, "hw-1", "class-1", "student-" + i,
+                "https://drive.google.com/file/d/" + Integer.toHexString(i * 7919) + "/view", now.minusHours(i), "SUBMITTED"));
+        }
+        submissionsResponse = new SuccessResponse("Submissions retrieved successfully", submissions);
+    }
+
+    @Benchmark
+    public byte[] attendance() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(attendanceResponse);
+    }
+
+    @Benchmark
+    public byte[] homeworkList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(homeworkList);
+    }
+
+    @Benchmark
+    public byte[] submissions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(submissionsResponse);
+    }
+}
@@ -0,0 +1,66 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.repository.inmemory.InMemoryClassMemberRepository;
+import com.classroom.class_backend.repository.inmemory.InMemoryUserRepository;
+import com.classroom.class_backend.service.ClassService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassService.getStudentsByClassId: member lookup, the id-list user query and the roll-number
+ * sort of the roster, on the in-memory repositories with students stored in random order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RosterSortBenchmark {
+
+    @Param({"30", "300", "3000"})
+    public int students;
+
+    private ClassService classService;
+
+    @Setup
+    public void setUp() {
+        InMemoryClassMemberRepository classMemberRepository = new InMemoryClassMemberRepository();
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        List<User> users = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            classMemberRepository.save(new ClassMember("class-1", "student-" + i, LocalDateTime.now()));
+            users.add(new User("student-" + i, "Student " + i, "student" + i + "@example.com", null, "STUDENT", "A", i + 1));
+        }
+        Collections.shuffle(users, new Random(42));
+        userRepository.saveAll(users);
+
+        classService = new ClassService();
+        Fakes.inject(classService, "classMemberRepository", classMemberRepository);
+        Fakes.inject(classService, "userRepository", userRepository);
+        Fakes.inject(classService, "singleFlight", Fixtures.singleFlight());
+    }
+
+    @Benchmark
+    public List<User> roster() {
+        return classService.getStudentsByClassId("class-1");
+    }
+}
@@ -0,0 +1,77 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.repository.HomeworkRepository;
+import com.classroom.class_backend.repository.HomeworkSubmissionRepository;
+import com.classroom.class_backend.service.HomeworkSubmissionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HomeworkSubmissionService.submitHomework: field validation, homework lookup, due-date and
+ * duplicate checks, entity stamping and change-log append, against in-memory fakes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubmitHomeworkBenchmark {
+
+    private HomeworkSubmissionService service;
+
+    @Setup
+    public void setUp() {
+        Homework homework = new Homework("hw-1", "class-1", "Essay", "Write an essay",
+            LocalDateTime.now(ZoneId.of("Asia/Kolkata")), LocalDateTime.now(ZoneId.of("Asia/Kolkata")).plusYears(1), "teacher-1");
+
+        service = new HomeworkSubmissionService();
+        Fakes.inject(service, "homeworkRepository", Fakes.repository(HomeworkRepository.class, Map.of(
+            "findByIdAndClassId", args -> Optional.of(homework))));
+        Fakes.inject(service, "submissionRepository", Fakes.repository(HomeworkSubmissionRepository.class, Map.of(
+            "existsByClassIdAndHomeworkIdAndUserId", args -> false,
+            "save", args -> args[0])));
+        Fakes.inject(service, "changeLogService", Fixtures.changeLogService());
+    }
+
+    @Benchmark
+    public HomeworkSubmission validSubmission() {
+        return service.submitHomework(submission("https://drive.google.com/file/d/abc123/view"));
+    }
+
+    // Rejected by validateSubmission; measures the cost of the exception-based error path
+    @Benchmark
+    public void missingDriveLink(Blackhole blackhole) {
+        try {
+            service.submitHomework(submission(""));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    private static HomeworkSubmission submission(String driveLink) {
+        HomeworkSubmission submission = new HomeworkSubmission();
+        submission.setHomeworkId("hw-1");
+        submission.setClassId("class-1");
+        submission.setUserId("student-1");
+        submission.setDriveLink(driveLink);
+        return submission;
+    }
+}
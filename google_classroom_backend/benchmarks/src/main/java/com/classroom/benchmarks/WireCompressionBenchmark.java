@@ -0,0 +1,134 @@
+package com.classroom.benchmarks;
+
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.github.luben.zstd.Zstd;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.ByteBuf;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * CPU cost of the wire compressors behind classroom.mongo.compressors, on the reply to a
+ * homework_submissions find as the driver receives it. Each codec is called the way the driver's
+ * compressor calls it (zstd at its default level, zlib at the driver's default level). The
+ * compressed size of each payload is printed during setup; whether the bytes saved are worth the
+ * CPU depends on the bandwidth to the cluster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireCompressionBenchmark {
+
+    @Param({"60", "500"})
+    public int size;
+
+    @Param({"zlib", "snappy", "zstd"})
+    public String codec;
+
+    private byte[] reply;
+
+    private byte[] compressed;
+
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        LocalDateTime now = LocalDateTime.now();
+        BsonArray batch = new BsonArray();
+        for (int i = 0; i < size; i++) {
+            Document document = new Document();
+            converter.write(new HomeworkSubmission(Long.toHexString(0x65f0a0000000L + i * 7919L), "65f0a1b2c3d4e5f601234567",
+                "65f0a1b2c3d4e5f607654321", Long.toHexString(0x65f0b0000000L + i * 104729L),
+                "https://drive.google.com/file/d/" + Integer.toHexString(i * 7919) + "/view", now.minusMinutes(i * 13L),
+                i % 9 == 0 ? "LATE" : "SUBMITTED"), document);
+            batch.add(document.toBsonDocument(Document.class, converter.getCodecRegistry()));
+        }
+        BsonDocument cursor = new BsonDocument("firstBatch", batch)
+            .append("id", new BsonInt64(0))
+            .append("ns", new BsonString("classroom.homework_submissions"));
+        ByteBuf encoded = new RawBsonDocument(new BsonDocument("cursor", cursor), new BsonDocumentCodec()).getByteBuffer();
+        reply = new byte[encoded.remaining()];
+        encoded.get(reply);
+        buffer = new byte[Math.max(reply.length, (int) Zstd.compressBound(reply.length)) + 64];
+        compressed = Arrays.copyOf(buffer, compress());
+        System.out.printf("%n%s, %d submissions: %d bytes compressed to %d (%.1f%%)%n",
+            codec, size, reply.length, compressed.length, 100.0 * compressed.length / reply.length);
+    }
+
+    @Benchmark
+    public int compress() throws IOException {
+        switch (codec) {
+            case "zlib": {
+                Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+                deflater.setInput(reply);
+                deflater.finish();
+                int length = deflater.deflate(buffer);
+                deflater.end();
+                return length;
+            }
+            case "snappy":
+                return Snappy.compress(reply, 0, reply.length, buffer, 0);
+            case "zstd":
+                return (int) Zstd.compressByteArray(buffer, 0, buffer.length, reply, 0, reply.length, Zstd.defaultCompressionLevel());
+            default:
+                throw new IllegalStateException(codec);
+        }
+    }
+
+    @Benchmark
+    public int decompress() throws IOException, DataFormatException {
+        switch (codec) {
+            case "zlib": {
+                Inflater inflater = new Inflater();
+                inflater.setInput(compressed);
+                int length = inflater.inflate(buffer);
+                inflater.end();
+                return length;
+            }
+            case "snappy":
+                return Snappy.uncompress(compressed, 0, compressed.length, buffer, 0);
+            case "zstd":
+                return (int) Zstd.decompressByteArray(buffer, 0, buffer.length, compressed, 0, compressed.length);
+            default:
+                throw new IllegalStateException(codec);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.classroom.benchmarks.datagen;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers converted entities per collection and writes them with unordered insertMany
+ * batches. One writer per worker task; the counters are shared for progress reporting.
+ */
+class BatchWriter {
+
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
+    private final MongoDatabase database;
+
+    private final MongoConverter converter;
+
+    private final int batchSize;
+
+    private final Map<String, LongAdder> counters;
+
+    private final Map<String, List<Document>> buffers = new HashMap<>();
+
+    BatchWriter(MongoDatabase database, MongoConverter converter, int batchSize, Map<String, LongAdder> counters) {
+        this.database = database;
+        this.converter = converter;
+        this.batchSize = batchSize;
+        this.counters = counters;
+    }
+
+    void add(String collection, Object entity) {
+        // Same mapping as the application's repositories, so field names, dates and _class match
+        Document document = new Document();
+        converter.write(entity, document);
+        List<Document> buffer = buffers.computeIfAbsent(collection, name -> new ArrayList<>(batchSize));
+        buffer.add(document);
+        if (buffer.size() >= batchSize) {
+            flush(collection, buffer);
+        }
+    }
+
+    void flushAll() {
+        buffers.forEach(this::flush);
+    }
+
+    private void flush(String collection, List<Document> buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        database.getCollection(collection).insertMany(buffer, UNORDERED);
+        counters.get(collection).add(buffer.size());
+        buffer.clear();
+    }
+
+    static Map<String, LongAdder> newCounters(List<String> collections) {
+        Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+        collections.forEach(name -> counters.put(name, new LongAdder()));
+        return counters;
+    }
+}
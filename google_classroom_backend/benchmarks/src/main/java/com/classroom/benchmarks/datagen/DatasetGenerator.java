@@ -0,0 +1,303 @@
+package com.classroom.benchmarks.datagen;
+
+import com.classroom.class_backend.model.Announcement;
+import com.classroom.class_backend.model.Attendance;
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.model.User;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.security.SecureRandom;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk-loads a Mongo database with a synthetic but realistic classroom dataset: teachers and
+ * students, classes with log-normally skewed sizes, memberships, a school year of attendance,
+ * homework with submissions, and announcements.
+ *
+ * <p>Output is a pure function of the options: every class and user draws from its own random
+ * stream derived from the seed and its index, so the thread count and scheduling do not change
+ * what is written. Documents are converted with the application's own mapping and written with
+ * unordered insertMany batches from a worker pool.
+ *
+ * <p>Run from the benchmarks jar, e.g.
+ * {@code java -cp target/benchmarks.jar com.classroom.benchmarks.datagen.DatasetGenerator --drop --classes=5000 --seed=7}.
+ * Indexes are left to the application, which creates them at startup.
+ */
+public final class DatasetGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    static final List<String> COLLECTIONS = List.of("user", "classes", "class_members", "attendance",
+        "homework", "homework_submissions", "announcements");
+
+    private static final int USERS_PER_TASK = 10_000;
+    private static final int CLASSES_PER_TASK = 50;
+
+    // Stream identifiers mixed into the seed so each kind of entity gets independent randomness
+    private static final long STUDENT_STREAM = 1;
+    private static final long TEACHER_STREAM = 2;
+    private static final long CLASS_STREAM = 3;
+    private static final long PRESENCE_STREAM = 4;
+    private static final long SALT_STREAM = 5;
+
+    // PasswordHasher's default min-cost; a login rehashes to the calibrated cost when that is higher
+    private static final int PASSWORD_COST = 10;
+
+    private static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "Biology", "English",
+        "History", "Geography", "Computer Science", "Economics", "Data Structures", "Operating Systems", "Statistics"};
+    private static final String[] SECTIONS = {"A", "B", "C", "D", "E"};
+
+    private final GeneratorOptions options;
+
+    private final MongoDatabase database;
+
+    private final MongoConverter converter;
+
+    private final Map<String, LongAdder> counters = BatchWriter.newCounters(COLLECTIONS);
+
+    private final long baseSeconds;
+
+    private final String passwordHash;
+
+    DatasetGenerator(GeneratorOptions options, MongoDatabase database, MongoConverter converter) {
+        this.options = options;
+        this.database = database;
+        this.converter = converter;
+        this.baseSeconds = options.endDate.minusDays(options.attendanceDays + 30L).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        this.passwordHash = hashPassword();
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeneratorOptions options = GeneratorOptions.parse(args);
+        try (MongoClient client = MongoClients.create(options.uri)) {
+            MongoTemplate template = new MongoTemplate(client, options.database);
+            MongoDatabase database = template.getDb();
+            if (options.drop) {
+                COLLECTIONS.forEach(name -> database.getCollection(name).drop());
+            }
+            new DatasetGenerator(options, database, template.getConverter()).run();
+        }
+    }
+
+    void run() throws Exception {
+        LOGGER.info("Generating dataset into {}: {}", options.database, options);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int from = 0; from < options.students; from += USERS_PER_TASK) {
+            int start = from;
+            tasks.add(() -> writeUsers(STUDENT_STREAM, start, Math.min(start + USERS_PER_TASK, options.students)));
+        }
+        for (int from = 0; from < options.teachers(); from += USERS_PER_TASK) {
+            int start = from;
+            tasks.add(() -> writeUsers(TEACHER_STREAM, start, Math.min(start + USERS_PER_TASK, options.teachers())));
+        }
+        for (int from = 0; from < options.classes; from += CLASSES_PER_TASK) {
+            int start = from;
+            tasks.add(() -> writeClasses(start, Math.min(start + CLASSES_PER_TASK, options.classes)));
+        }
+
+        long started = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> LOGGER.info("Progress: {}", counts()), 10, 10, TimeUnit.SECONDS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            tasks.forEach(task -> futures.add(workers.submit(task)));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            reporter.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long total = counters.values().stream().mapToLong(LongAdder::sum).sum();
+        LOGGER.info("Inserted {} documents in {} s ({} docs/s): {}", total, String.format("%.1f", seconds),
+            Math.round(total / seconds), counts());
+    }
+
+    private void writeUsers(long stream, int from, int to) {
+        BatchWriter writer = new BatchWriter(database, converter, options.batchSize, counters);
+        boolean students = stream == STUDENT_STREAM;
+        for (int i = from; i < to; i++) {
+            SplittableRandom random = random(stream, i);
+            User user = new User(userId(stream, i), (students ? "Student " : "Teacher ") + (i + 1),
+                (students ? "student" : "teacher") + (i + 1) + "@example.edu", passwordHash,
+                students ? "STUDENT" : "TEACHER", SECTIONS[random.nextInt(SECTIONS.length)], students ? i + 1 : null);
+            writer.add("user", user);
+        }
+        writer.flushAll();
+    }
+
+    private void writeClasses(int from, int to) {
+        BatchWriter writer = new BatchWriter(database, converter, options.batchSize, counters);
+        for (int c = from; c < to; c++) {
+            writeClass(writer, c);
+        }
+        writer.flushAll();
+    }
+
+    private void writeClass(BatchWriter writer, int classIndex) {
+        SplittableRandom random = random(CLASS_STREAM, classIndex);
+        int teacher = classIndex / options.classesPerTeacher;
+        String teacherId = userId(TEACHER_STREAM, teacher);
+        LocalDate firstDay = options.endDate.minusDays(options.attendanceDays);
+        LocalDateTime createdAt = firstDay.minusDays(1 + random.nextInt(30)).atTime(9, random.nextInt(60));
+
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        Class classObj = new Class(nextId(random), classCode(classIndex),
+            subject.substring(0, 3).toUpperCase() + (100 + random.nextInt(400)), SECTIONS[random.nextInt(SECTIONS.length)],
+            subject, "Teacher " + (teacher + 1), teacherId, createdAt);
+        String classId = classObj.getClassId();
+        writer.add("classes", classObj);
+
+        int[] studentIndexes = sampleStudents(random, classSize(random));
+        List<String> memberIds = new ArrayList<>(studentIndexes.length);
+        for (int student : studentIndexes) {
+            String userId = userId(STUDENT_STREAM, student);
+            memberIds.add(userId);
+            ClassMember member = new ClassMember(classId, userId, createdAt.plusMinutes(random.nextInt(7 * 24 * 60)));
+            member.setId(nextId(random));
+            writer.add("class_members", member);
+        }
+
+        for (LocalDate day = firstDay; !day.isAfter(options.endDate); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            List<Attendance.AttendanceEntry> entries = new ArrayList<>(studentIndexes.length);
+            for (int i = 0; i < studentIndexes.length; i++) {
+                entries.add(new Attendance.AttendanceEntry(memberIds.get(i), random.nextDouble() < presence(studentIndexes[i])));
+            }
+            writer.add("attendance", new Attendance(nextId(random), classId, day.toString(), entries));
+        }
+
+        for (int h = 0; h < options.homeworkPerClass; h++) {
+            LocalDateTime assigned = firstDay.plusDays(random.nextInt(options.attendanceDays + 1)).atTime(8 + random.nextInt(8), 0);
+            LocalDateTime due = assigned.toLocalDate().plusDays(3 + random.nextInt(12)).atTime(LocalTime.of(23, 59));
+            Homework homework = new Homework(nextId(random), classId, subject + " assignment " + (h + 1),
+                "Complete the exercises for week " + (h + 1) + " and upload your work to Google Drive.", assigned, due, teacherId);
+            writer.add("homework", homework);
+
+            LocalDateTime cutoff = options.endDate.atTime(LocalTime.MAX);
+            long window = Duration.between(assigned, due).toMinutes();
+            for (String userId : memberIds) {
+                if (random.nextDouble() >= options.submissionRate) {
+                    continue;
+                }
+                // Submissions bunch up towards the deadline
+                double position = 1 - Math.pow(random.nextDouble(), 3);
+                LocalDateTime submittedOn = assigned.plusMinutes((long) (window * position));
+                if (submittedOn.isAfter(cutoff)) {
+                    continue;
+                }
+                writer.add("homework_submissions", new HomeworkSubmission(nextId(random), homework.getId(), classId, userId,
+                    "https://drive.google.com/file/d/" + Long.toHexString(random.nextLong()) + "/view", submittedOn, "SUBMITTED"));
+            }
+        }
+
+        for (int a = 0; a < options.announcementsPerClass; a++) {
+            LocalDateTime postedAt = firstDay.plusDays(random.nextInt(options.attendanceDays + 1)).atTime(7 + random.nextInt(10), random.nextInt(60));
+            writer.add("announcements", new Announcement(nextId(random), classId, "Announcement " + (a + 1),
+                "Update for " + subject + " students, please read before the next class.", postedAt, teacherId));
+        }
+    }
+
+    // One hash shared by every user: hashing millions of passwords would take hours. The salt comes
+    // from the seed, so the output stays a pure function of the options
+    private String hashPassword() {
+        SplittableRandom random = random(SALT_STREAM, 0);
+        SecureRandom salt = new SecureRandom() {
+            @Override
+            public void nextBytes(byte[] bytes) {
+                random.nextBytes(bytes);
+            }
+        };
+        return BCrypt.hashpw(options.password, BCrypt.gensalt(PASSWORD_COST, salt));
+    }
+
+    private int classSize(SplittableRandom random) {
+        double size = options.classSizeMedian * Math.exp(options.classSizeSigma * random.nextGaussian());
+        return (int) Math.max(options.classSizeMin, Math.min(options.classSizeMax, Math.round(size)));
+    }
+
+    // Floyd's algorithm: k distinct students without materialising the whole population
+    private int[] sampleStudents(SplittableRandom random, int k) {
+        Set<Integer> chosen = new HashSet<>(k * 2);
+        for (int j = options.students - k; j < options.students; j++) {
+            int candidate = random.nextInt(j + 1);
+            chosen.add(chosen.contains(candidate) ? j : candidate);
+        }
+        return chosen.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    // Each student has a stable attendance habit spread around the configured mean
+    private double presence(int studentIndex) {
+        double offset = (random(PRESENCE_STREAM, studentIndex).nextDouble() - 0.5) * 0.2;
+        return Math.min(1.0, Math.max(0.0, options.attendanceRate + offset));
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(mix(options.seed, stream, index));
+    }
+
+    // Ids look like ObjectIds (a timestamp followed by random bytes) so Spring stores them as ObjectId
+    private String userId(long stream, int index) {
+        return String.format("%08x%016x", baseSeconds, mix(options.seed, stream + 100, index));
+    }
+
+    private String nextId(SplittableRandom random) {
+        return String.format("%08x%016x", baseSeconds, random.nextLong());
+    }
+
+    // 8 characters of [0-9A-Z]; multiplying by a number coprime to 36^8 keeps codes unique per index
+    static String classCode(int classIndex) {
+        long space = 2_821_109_907_456L;
+        long value = Math.floorMod(classIndex * 1_000_000_007L + 123_456_789L, space);
+        StringBuilder code = new StringBuilder(Long.toString(value, 36).toUpperCase());
+        while (code.length() < 8) {
+            code.insert(0, '0');
+        }
+        return code.toString();
+    }
+
+    private static long mix(long seed, long stream, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index * 0x94D049BB133111EBL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private String counts() {
+        StringBuilder summary = new StringBuilder();
+        COLLECTIONS.forEach(name -> summary.append(name).append('=').append(counters.get(name).sum()).append(' '));
+        return summary.toString().trim();
+    }
+}
@@ -0,0 +1,115 @@
+package com.classroom.benchmarks.datagen;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the dataset generator, given as {@code --name=value}.
+ * Every option has a default, so a bare run produces a mid-sized dataset.
+ */
+public class GeneratorOptions {
+
+    String uri = "mongodb://localhost:27017";
+    String database = "classroom";
+    long seed = 42L;
+    boolean drop = false;
+
+    int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    int batchSize = 1000;
+
+    int classes = 20_000;
+    int students = 250_000;
+    int classesPerTeacher = 3;
+
+    // Class sizes follow a log-normal distribution: most classes near the median, a long tail of large ones
+    int classSizeMedian = 35;
+    double classSizeSigma = 0.8;
+    int classSizeMin = 5;
+    int classSizeMax = 5_000;
+
+    int attendanceDays = 360;
+    double attendanceRate = 0.9;
+
+    int homeworkPerClass = 12;
+    double submissionRate = 0.8;
+
+    // Every generated account gets this password so load tests can log in as any of them
+    String password = "Password@123";
+
+    int announcementsPerClass = 10;
+
+    // Dates are generated backwards from this day; fix it to make reruns byte-for-byte identical
+    LocalDate endDate = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+
+    static GeneratorOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+
+        GeneratorOptions options = new GeneratorOptions();
+        options.uri = values.getOrDefault("uri", options.uri);
+        options.database = values.getOrDefault("database", options.database);
+        options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+        options.password = values.getOrDefault("password", options.password);
+        options.drop = Boolean.parseBoolean(values.getOrDefault("drop", String.valueOf(options.drop)));
+        options.threads = intValue(values, "threads", options.threads);
+        options.batchSize = intValue(values, "batch-size", options.batchSize);
+        options.classes = intValue(values, "classes", options.classes);
+        options.students = intValue(values, "students", options.students);
+        options.classesPerTeacher = intValue(values, "classes-per-teacher", options.classesPerTeacher);
+        options.classSizeMedian = intValue(values, "class-size-median", options.classSizeMedian);
+        options.classSizeSigma = doubleValue(values, "class-size-sigma", options.classSizeSigma);
+        options.classSizeMin = intValue(values, "class-size-min", options.classSizeMin);
+        options.classSizeMax = intValue(values, "class-size-max", options.classSizeMax);
+        options.attendanceDays = intValue(values, "attendance-days", options.attendanceDays);
+        options.attendanceRate = doubleValue(values, "attendance-rate", options.attendanceRate);
+        options.homeworkPerClass = intValue(values, "homework-per-class", options.homeworkPerClass);
+        options.submissionRate = doubleValue(values, "submission-rate", options.submissionRate);
+        options.announcementsPerClass = intValue(values, "announcements-per-class", options.announcementsPerClass);
+        if (values.containsKey("end-date")) {
+            options.endDate = LocalDate.parse(values.get("end-date"));
+        }
+        options.validate();
+        return options;
+    }
+
+    private void validate() {
+        if (classSizeMin < 1 || classSizeMin > classSizeMax) {
+            throw new IllegalArgumentException("class-size-min must be between 1 and class-size-max.");
+        }
+        if (classSizeMax > students) {
+            throw new IllegalArgumentException("class-size-max cannot exceed the number of students.");
+        }
+        if (classes < 1 || classesPerTeacher < 1 || threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("classes, classes-per-teacher, threads and batch-size must be positive.");
+        }
+    }
+
+    int teachers() {
+        return (classes + classesPerTeacher - 1) / classesPerTeacher;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    private static double doubleValue(Map<String, String> values, String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return "seed=" + seed + ", classes=" + classes + ", students=" + students + ", teachers=" + teachers()
+            + ", classSize=lognormal(median=" + classSizeMedian + ", sigma=" + classSizeSigma + ", " + classSizeMin + ".." + classSizeMax + ")"
+            + ", attendanceDays=" + attendanceDays + ", homeworkPerClass=" + homeworkPerClass
+            + ", announcementsPerClass=" + announcementsPerClass + ", endDate=" + endDate
+            + ", threads=" + threads + ", batchSize=" + batchSize;
+    }
+}
@@ -2,21 +2,64 @@ package com.classroom.class_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
-import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.HashMap;
+import java.util.Map;
+
+// Scheduling renews LeaderElection's leases
 @SpringBootApplication(exclude = {
-    DataSourceAutoConfiguration.class,
-    HibernateJpaAutoConfiguration.class,
-    SecurityAutoConfiguration.class
+    SecurityAutoConfiguration.class,
+    ManagementWebSecurityAutoConfiguration.class
 })
+@EnableScheduling
 public class ClassBackendApplication {
     public static void main(String[] args) {
-        SpringApplication.run(ClassBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(ClassBackendApplication.class);
+        application.setDefaultProperties(defaultProperties());
+        application.addListeners((ApplicationListener<ApplicationEnvironmentPreparedEvent>) event -> {
+            ConfigurableEnvironment environment = event.getEnvironment();
+            if (environment.matchesProfiles("inmemory")) {
+                environment.getPropertySources().addLast(new MapPropertySource("inMemoryProperties", inMemoryProperties()));
+            }
+        });
+        application.run(args);
+    }
+
+    // Defaults live here because application.properties is kept out of the repository
+    static Map<String, Object> defaultProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("management.endpoints.web.exposure.include", "health,info,metrics,prometheus");
+        properties.put("management.metrics.tags.application", "class-backend");
+        // Every request is traced; TracingConfig only exports the slow ones
+        properties.put("management.tracing.sampling.probability", "1.0");
+        // Only takes effect on Java 21+ (see the java21 Maven profile); on 17 Tomcat keeps its platform thread pool
+        properties.put("spring.threads.virtual.enabled", "true");
+        // A marked attendance sheet must survive a primary failover (see MongoClientProperties)
+        properties.put("classroom.mongo.collections.attendance.write-concern", "majority");
+        return properties;
+    }
+
+    // The "inmemory" profile runs without a database: no MongoClient, template or Mongo repositories
+    static Map<String, Object> inMemoryProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.autoconfigure.exclude", String.join(",",
+            "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+            "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration"));
+        return properties;
     }
 
     @Bean
@@ -28,6 +71,7 @@ public class ClassBackendApplication {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag", "Retry-After", "X-Mongo-Operation-Time")
                         .allowCredentials(true);
             }
         };
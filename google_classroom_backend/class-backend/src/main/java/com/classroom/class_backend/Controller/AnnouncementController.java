@@ -3,8 +3,11 @@ package com.classroom.class_backend.Controller;
 import com.classroom.class_backend.dto.AnnouncementRequest;
 import com.classroom.class_backend.dto.ErrorResponse;
 import com.classroom.class_backend.dto.SuccessResponse;
+import com.classroom.class_backend.filter.SessionTokenFilter;
 import com.classroom.class_backend.model.Announcement;
 import com.classroom.class_backend.service.AnnouncementService;
+import com.classroom.class_backend.service.ClassVersionService;
+import com.classroom.class_backend.service.SessionClaims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,13 +29,28 @@ public class AnnouncementController {
     @Autowired
     private AnnouncementService announcementService;
 
+    @Autowired
+    private ClassVersionService classVersionService;
+
     @PostMapping
-    public ResponseEntity<?> createAnnouncement(@Valid @RequestBody AnnouncementRequest announcementRequest) {
+    public ResponseEntity<?> createAnnouncement(@Valid @RequestBody AnnouncementRequest announcementRequest,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
             LOGGER.info("Received request to create announcement for classId: {}", announcementRequest.getClassId());
             LOGGER.debug("Announcement request payload: classId={}, title={}, description={}, userId={}",
                     announcementRequest.getClassId(), announcementRequest.getTitle(),
                     announcementRequest.getDescription(), announcementRequest.getUserId());
+            if (session != null) {
+                if (!session.actsFor(announcementRequest.getUserId())) {
+                    LOGGER.warn("Session user {} tried to create an announcement as {}", session.userId(), announcementRequest.getUserId());
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                if (!session.isTeacher()) {
+                    LOGGER.warn("User {} is not authorized to create an announcement. Role: {}", session.userId(), session.role());
+                    return ResponseEntity.status(403).body(new ErrorResponse("Only teachers can create announcements."));
+                }
+                announcementRequest.setUserId(session.userId());
+            }
 
             if (announcementRequest.getUserId() == null || announcementRequest.getUserId().isEmpty()) {
                 LOGGER.warn("User ID is required for creating announcement.");
@@ -60,13 +78,20 @@ public class AnnouncementController {
     }
 
     @GetMapping("/class/{classId}")
-    public ResponseEntity<?> getAnnouncementsByClassId(@PathVariable String classId) {
+    public ResponseEntity<?> getAnnouncementsByClassId(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             LOGGER.info("Fetching announcements for classId: {}", classId);
-            List<Announcement> announcementList = announcementService.getAnnouncementsByClassId(classId);
+            long versionReadAt = System.nanoTime();
+            String eTag = classVersionService.classETag(classId);
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                LOGGER.info("Announcements for classId: {} not modified", classId);
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
+            List<Announcement> announcementList = announcementService.getAnnouncementsByClassId(classId, versionReadAt);
             LOGGER.info("Found {} announcements for classId: {}", announcementList.size(), classId);
             SuccessResponse response = new SuccessResponse("Announcements fetched successfully.", announcementList);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(eTag).body(response);
         } catch (IllegalArgumentException e) {
             LOGGER.error("Validation error while fetching announcements for classId: {}. Error: {}", classId,
                     e.getMessage());
@@ -79,8 +104,16 @@ public class AnnouncementController {
 
     @DeleteMapping("/{announcementId}")
     public ResponseEntity<?> deleteAnnouncement(@PathVariable String announcementId,
-            @RequestHeader("userId") String userId) {
+            @RequestHeader(value = "userId", required = false) String userId, @RequestParam(required = false) String classId,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to delete announcement {} as {}", session.userId(), announcementId, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
             LOGGER.info("Received request to delete announcement with ID: {} by userId: {}", announcementId, userId);
 
             if (userId == null || userId.isEmpty()) {
@@ -88,7 +121,7 @@ public class AnnouncementController {
                 return ResponseEntity.status(401).body(new ErrorResponse("User ID is required."));
             }
 
-            Announcement announcement = announcementService.getAnnouncementById(announcementId);
+            Announcement announcement = announcementService.getAnnouncementById(announcementId, classId);
 
             if (announcement.getCreatedBy() == null || announcement.getCreatedBy().isEmpty()) {
                 LOGGER.warn("Announcement with ID: {} has no createdBy field. Denying deletion.", announcementId);
@@ -102,7 +135,7 @@ public class AnnouncementController {
                         .body(new ErrorResponse("You are not authorized to delete this announcement."));
             }
 
-            announcementService.deleteAnnouncement(announcementId);
+            announcementService.deleteAnnouncement(announcementId, announcement.getClassId());
             LOGGER.info("Announcement with ID: {} deleted successfully by userId: {}", announcementId, userId);
             return ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
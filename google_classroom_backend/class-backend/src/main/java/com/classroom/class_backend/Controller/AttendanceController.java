@@ -1,12 +1,12 @@
 package com.classroom.class_backend.Controller;
 
 import com.classroom.class_backend.dto.AttendanceRequest;
+import com.classroom.class_backend.filter.SessionTokenFilter;
 import com.classroom.class_backend.model.Attendance;
-import com.classroom.class_backend.model.ClassMember;
 import com.classroom.class_backend.model.User;
-import com.classroom.class_backend.repository.ClassMemberRepository;
-import com.classroom.class_backend.repository.UserRepository;
 import com.classroom.class_backend.service.AttendanceService;
+import com.classroom.class_backend.service.ClassService;
+import com.classroom.class_backend.service.SessionClaims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,10 +30,7 @@ public class AttendanceController {
     private AttendanceService attendanceService;
 
     @Autowired
-    private ClassMemberRepository classMemberRepository;
-
-    @Autowired
-    private UserRepository userRepository;
+    private ClassService classService;
 
     @GetMapping("/class/{classId}/date/{date}")
     public ResponseEntity<Map<String, Object>> checkAttendanceExists(
@@ -60,21 +57,14 @@ public class AttendanceController {
         Map<String, Object> response = new HashMap<>();
         try {
             LOGGER.info("Fetching students for classId: {}", classId);
-            List<ClassMember> classMembers = classMemberRepository.findByClassId(classId);
-            if (classMembers.isEmpty()) {
+            List<User> students = classService.getStudentsByClassId(classId);
+            if (students.isEmpty()) {
                 LOGGER.info("No students found for classId: {}", classId);
                 response.put("message", "No students found for the class.");
                 response.put("data", List.of());
                 return ResponseEntity.ok(response);
             }
 
-            List<String> studentIds = classMembers.stream()
-                .map(ClassMember::getUserId)
-                .collect(Collectors.toList());
-
-            List<User> students = userRepository.findByIdInAndRole(studentIds, "STUDENT");
-            students.sort((a, b) -> a.getRollNumber().compareTo(b.getRollNumber()));
-
             LOGGER.info("Found {} students for classId: {}", students.size(), classId);
             response.put("message", "Students fetched successfully!");
             response.put("data", students);
@@ -87,10 +77,16 @@ public class AttendanceController {
     }
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> submitAttendance(@Valid @RequestBody AttendanceRequest attendanceRequest) {
+    public ResponseEntity<Map<String, Object>> submitAttendance(@Valid @RequestBody AttendanceRequest attendanceRequest,
+        @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         Map<String, Object> response = new HashMap<>();
         try {
             LOGGER.info("Submitting attendance for classId: {} on date: {}", attendanceRequest.getClassId(), attendanceRequest.getDate());
+            if (session != null && !session.isTeacher()) {
+                LOGGER.warn("User {} is not authorized to submit attendance. Role: {}", session.userId(), session.role());
+                response.put("message", "Only teachers can submit attendance.");
+                return ResponseEntity.status(403).body(response);
+            }
 
             // Map AttendanceRequest to Attendance entity
             Attendance attendance = new Attendance();
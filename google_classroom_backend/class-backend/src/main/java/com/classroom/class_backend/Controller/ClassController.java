@@ -6,11 +6,16 @@ import com.classroom.class_backend.dto.ClassRequest;
 import com.classroom.class_backend.dto.JoinClassRequest;
 import com.classroom.class_backend.dto.LeaveClassRequest;
 import com.classroom.class_backend.dto.HomeworkSubmissionRequest;
+import com.classroom.class_backend.filter.SessionTokenFilter;
 import com.classroom.class_backend.model.Class;
 import com.classroom.class_backend.model.ClassMember;
 import com.classroom.class_backend.model.HomeworkSubmission;
 import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.service.ChangeLogService;
 import com.classroom.class_backend.service.ClassService;
+import com.classroom.class_backend.service.ClassVersionService;
+import com.classroom.class_backend.service.RateLimiter;
+import com.classroom.class_backend.service.SessionClaims;
 import com.classroom.class_backend.service.UserService;
 import com.classroom.class_backend.repository.ClassMemberRepository;
 import com.classroom.class_backend.repository.HomeworkSubmissionRepository;
@@ -45,21 +50,44 @@ public class ClassController {
     @Autowired
     private HomeworkSubmissionRepository homeworkSubmissionRepository;
 
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private ClassVersionService classVersionService;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
     @PostMapping("/create")
-    public ResponseEntity<?> createClass(@Valid @RequestBody ClassRequest classRequest) {
+    public ResponseEntity<?> createClass(@Valid @RequestBody ClassRequest classRequest,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
             LOGGER.info("Create class request received for classId: {}, classCode: {}, userId: {}",
                     classRequest.getClassId(), classRequest.getClassCode(), classRequest.getUserId());
 
-            // Check user role
-            User user = userService.getUserById(classRequest.getUserId());
-            if (user == null) {
-                LOGGER.warn("User with ID {} not found.", classRequest.getUserId());
-                return ResponseEntity.badRequest().body(new ErrorResponse("User not found."));
+            // Check user role, from the session token when there is one
+            String role;
+            boolean teacher;
+            if (session != null) {
+                if (!session.actsFor(classRequest.getUserId())) {
+                    LOGGER.warn("Session user {} tried to create a class as {}", session.userId(), classRequest.getUserId());
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                classRequest.setUserId(session.userId());
+                role = session.role();
+                teacher = session.isTeacher();
+            } else {
+                User user = userService.getUserById(classRequest.getUserId());
+                if (user == null) {
+                    LOGGER.warn("User with ID {} not found.", classRequest.getUserId());
+                    return ResponseEntity.badRequest().body(new ErrorResponse("User not found."));
+                }
+                role = user.getRole();
+                teacher = "teacher".equalsIgnoreCase(role);
             }
-            if (!"teacher".equalsIgnoreCase(user.getRole())) {
-                LOGGER.warn("User {} is not authorized to create a class. Role: {}", classRequest.getUserId(),
-                        user.getRole());
+            if (!teacher) {
+                LOGGER.warn("User {} is not authorized to create a class. Role: {}", classRequest.getUserId(), role);
                 return ResponseEntity.status(403).body(new ErrorResponse("Only teachers can create classes."));
             }
 
@@ -90,25 +118,36 @@ public class ClassController {
     @GetMapping
     public ResponseEntity<?> getClassesByUserId(
             @RequestParam(required = false) String userId,
-            @RequestParam(required = false, defaultValue = "created") String type) {
+            @RequestParam(required = false, defaultValue = "created") String type,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             if (userId == null || userId.trim().isEmpty()) {
                 LOGGER.error("User ID is required to fetch classes.");
                 return ResponseEntity.badRequest().body(new ErrorResponse("User ID is required."));
             }
-            List<Class> classes;
-            if ("created".equalsIgnoreCase(type)) {
-                LOGGER.info("Fetching classes created by user: {}", userId);
-                classes = classService.getClassesByUserId(userId);
-            } else if ("joined".equalsIgnoreCase(type)) {
-                LOGGER.info("Fetching classes joined by user: {}", userId);
-                classes = classService.getJoinedClassesByUserId(userId);
-            } else {
+            boolean created = "created".equalsIgnoreCase(type);
+            if (!created && !"joined".equalsIgnoreCase(type)) {
                 LOGGER.warn("Invalid type parameter: {}. Must be 'created' or 'joined'.", type);
                 return ResponseEntity.badRequest()
                         .body(new ErrorResponse("Invalid type parameter. Must be 'created' or 'joined'."));
             }
-            return ResponseEntity.ok(new SuccessResponse("Classes retrieved successfully!", classes));
+            // Created and joined lists both change only through events in the user's scope, but are
+            // different lists, so each gets its own ETag
+            long versionReadAt = System.nanoTime();
+            String eTag = classVersionService.userETag(userId, created ? "created" : "joined");
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                LOGGER.info("Classes for user: {} not modified", userId);
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
+            List<Class> classes;
+            if (created) {
+                LOGGER.info("Fetching classes created by user: {}", userId);
+                classes = classService.getClassesByUserId(userId, versionReadAt);
+            } else {
+                LOGGER.info("Fetching classes joined by user: {}", userId);
+                classes = classService.getJoinedClassesByUserId(userId, versionReadAt);
+            }
+            return ResponseEntity.ok().eTag(eTag).body(new SuccessResponse("Classes retrieved successfully!", classes));
         } catch (Exception e) {
             LOGGER.error("Failed to fetch classes for user: {}. Error: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(500).body(new ErrorResponse("Internal server error: " + e.getMessage()));
@@ -116,14 +155,20 @@ public class ClassController {
     }
 
     @GetMapping("/{classId}")
-    public ResponseEntity<?> getClassById(@PathVariable String classId) {
+    public ResponseEntity<?> getClassById(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             LOGGER.info("Fetching class details for classId: {}", classId);
+            String eTag = classVersionService.classETag(classId);
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                LOGGER.info("Class details for classId: {} not modified", classId);
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
             Class classObj = classService.getClassById(classId);
             if (classObj == null) {
                 return ResponseEntity.status(404).body(new ErrorResponse("Class not found."));
             }
-            return ResponseEntity.ok(new SuccessResponse("Class retrieved successfully!", classObj));
+            return ResponseEntity.ok().eTag(eTag).body(new SuccessResponse("Class retrieved successfully!", classObj));
         } catch (Exception e) {
             LOGGER.error("Failed to fetch class details for classId: {}. Error: {}", classId, e.getMessage(), e);
             return ResponseEntity.status(500).body(new ErrorResponse("Internal server error: " + e.getMessage()));
@@ -131,8 +176,16 @@ public class ClassController {
     }
 
     @DeleteMapping("/{classId}")
-    public ResponseEntity<?> deleteClass(@PathVariable String classId, @RequestParam String userId) {
+    public ResponseEntity<?> deleteClass(@PathVariable String classId, @RequestParam(required = false) String userId,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to delete class {} as {}", session.userId(), classId, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
             LOGGER.info("Delete class request received for classId: {} by userId: {}", classId, userId);
             if (userId == null || userId.trim().isEmpty()) {
                 LOGGER.warn("User ID is required to delete a class.");
@@ -158,12 +211,29 @@ public class ClassController {
     }
 
     @PostMapping("/join")
-    public ResponseEntity<?> joinClass(@Valid @RequestBody JoinClassRequest joinRequest) {
+    public ResponseEntity<?> joinClass(@Valid @RequestBody JoinClassRequest joinRequest,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
             String classCode = joinRequest.getClassCode();
             String userId = joinRequest.getUserId();
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to join class {} as {}", session.userId(), classCode, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
             LOGGER.info("Join class request received for classCode: {} by userId: {}", classCode, userId);
 
+            // Class codes are short enough to guess; this bounds how fast one account can try
+            long wait = rateLimiter.tryAcquire(RateLimiter.JOIN_USER, userId);
+            if (wait > 0) {
+                LOGGER.warn("Join class rate limited for userId: {}", userId);
+                return ResponseEntity.status(429)
+                        .header("Retry-After", String.valueOf(RateLimiter.retryAfterSeconds(wait)))
+                        .body(new ErrorResponse("Too many join attempts, please retry later."));
+            }
+
             Class classObj = classService.getClassByCode(classCode);
             if (classObj == null) {
                 LOGGER.warn("Class with code {} not found.", classCode);
@@ -184,7 +254,12 @@ public class ClassController {
             ClassMember classMember = new ClassMember(classObj.getClassId(), userId,
                     LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
             classMemberRepository.save(classMember);
+            classService.membershipChanged(classObj.getClassId(), userId);
             LOGGER.info("User {} successfully joined class {}", userId, classObj.getClassId());
+            changeLogService.recordClassChange(classObj.getClassId(), ChangeLogService.MEMBERSHIP, userId,
+                    ChangeLogService.CREATED);
+            changeLogService.recordUserChange(userId, ChangeLogService.MEMBERSHIP, classObj.getClassId(),
+                    ChangeLogService.CREATED, classObj.getClassId());
             return ResponseEntity.ok(new SuccessResponse("Successfully joined the class!", classObj));
         } catch (Exception e) {
             LOGGER.error("Failed to join class. Error: {}", e.getMessage(), e);
@@ -193,10 +268,18 @@ public class ClassController {
     }
 
     @PostMapping("/leave")
-    public ResponseEntity<?> leaveClass(@Valid @RequestBody LeaveClassRequest leaveRequest) {
+    public ResponseEntity<?> leaveClass(@Valid @RequestBody LeaveClassRequest leaveRequest,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
             String classId = leaveRequest.getClassId();
             String userId = leaveRequest.getUserId();
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to leave class {} as {}", session.userId(), classId, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
             LOGGER.info("Leave class request received for classId: {} by userId: {}", classId, userId);
 
             // Check if the class exists
@@ -222,7 +305,11 @@ public class ClassController {
 
             // Remove the user from the class
             classMemberRepository.deleteByClassIdAndUserId(classId, userId);
+            classService.membershipChanged(classId, userId);
             LOGGER.info("User {} successfully left class {}", userId, classId);
+            changeLogService.recordClassChange(classId, ChangeLogService.MEMBERSHIP, userId, ChangeLogService.DELETED);
+            changeLogService.recordUserChange(userId, ChangeLogService.MEMBERSHIP, classId, ChangeLogService.DELETED,
+                    classId);
             return ResponseEntity.ok(new SuccessResponse("Successfully left the class", null));
         } catch (Exception e) {
             LOGGER.error("Failed to leave class. Error: {}", e.getMessage(), e);
@@ -231,7 +318,8 @@ public class ClassController {
     }
 
     @PostMapping("/homework/submissions")
-    public ResponseEntity<?> submitHomework(@Valid @RequestBody HomeworkSubmissionRequest submissionRequest) {
+    public ResponseEntity<?> submitHomework(@Valid @RequestBody HomeworkSubmissionRequest submissionRequest,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
             String homeworkId = submissionRequest.getHomeworkId();
             String classId = submissionRequest.getClassId();
@@ -239,6 +327,13 @@ public class ClassController {
             String driveLink = submissionRequest.getDriveLink();
             LOGGER.info("Homework submission request received for homeworkId: {}, classId: {}, userId: {}",
                     homeworkId, classId, userId);
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to submit homework {} as {}", session.userId(), homeworkId, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
 
             // Validate class and user membership
             Class classObj = classService.getClassById(classId);
@@ -252,7 +347,7 @@ public class ClassController {
             }
 
             // Check if the user has already submitted
-            if (homeworkSubmissionRepository.existsByHomeworkIdAndUserId(homeworkId, userId)) {
+            if (homeworkSubmissionRepository.existsByClassIdAndHomeworkIdAndUserId(classId, homeworkId, userId)) {
                 LOGGER.warn("User {} has already submitted for homework {}.", userId, homeworkId);
                 return ResponseEntity.badRequest().body(new ErrorResponse("You have already submitted this homework."));
             }
@@ -269,6 +364,9 @@ public class ClassController {
 
             homeworkSubmissionRepository.save(submission);
             LOGGER.info("Homework submitted successfully by user {} for homework {}", userId, homeworkId);
+            changeLogService.recordClassChange(classId, ChangeLogService.SUBMISSION, submission.getId(),
+                    ChangeLogService.CREATED);
+
             return ResponseEntity.ok(new SuccessResponse("Homework submitted successfully!", submission));
         } catch (Exception e) {
             LOGGER.error("Failed to submit homework. Error: {}", e.getMessage(), e);
@@ -277,11 +375,18 @@ public class ClassController {
     }
 
     @GetMapping("/homework/submissions/class/{classId}")
-    public ResponseEntity<?> getSubmissionsByClassId(@PathVariable String classId) {
+    public ResponseEntity<?> getSubmissionsByClassId(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             LOGGER.info("Fetching submissions for classId: {}", classId);
+            String eTag = classVersionService.classETag(classId);
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                LOGGER.info("Submissions for classId: {} not modified", classId);
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
             List<HomeworkSubmission> submissions = homeworkSubmissionRepository.findByClassId(classId);
-            return ResponseEntity.ok(new SuccessResponse("Submissions retrieved successfully!", submissions));
+            return ResponseEntity.ok().eTag(eTag).body(new SuccessResponse("Submissions retrieved successfully!", submissions));
+
         } catch (Exception e) {
             LOGGER.error("Failed to fetch submissions for classId: {}. Error: {}", classId, e.getMessage(), e);
             return ResponseEntity.status(500).body(new ErrorResponse("Internal server error: " + e.getMessage()));
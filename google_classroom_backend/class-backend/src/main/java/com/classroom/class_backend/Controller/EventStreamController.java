@@ -0,0 +1,67 @@
+package com.classroom.class_backend.Controller;
+
+import com.classroom.class_backend.dto.ErrorResponse;
+import com.classroom.class_backend.filter.SessionTokenFilter;
+import com.classroom.class_backend.service.ClassEventHub;
+import com.classroom.class_backend.service.SessionClaims;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventStreamController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventStreamController.class);
+
+    @Autowired
+    private ClassEventHub classEventHub;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Pushes "announcement" and "homework" events for every class the user owns or has joined. Declared
+    // as SseEmitter so Spring streams it; errors are written directly, since the return type cannot carry them
+    @GetMapping("/stream")
+    public SseEmitter stream(@RequestParam(required = false) String userId,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session,
+            HttpServletResponse response) throws IOException {
+        try {
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to open the event stream of {}", session.userId(), userId);
+                    writeError(response, 403, "You can only act as the signed-in user.");
+                    return null;
+                }
+                userId = session.userId();
+            }
+            if (userId == null || userId.trim().isEmpty()) {
+                LOGGER.warn("User ID is required to open an event stream.");
+                writeError(response, 400, "User ID is required.");
+                return null;
+            }
+            LOGGER.info("Event stream requested by userId: {}", userId);
+            return classEventHub.subscribe(userId);
+        } catch (IllegalArgumentException e) {
+            writeError(response, 429, e.getMessage());
+            return null;
+        } catch (IllegalStateException e) {
+            writeError(response, 503, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+}
@@ -3,9 +3,12 @@ package com.classroom.class_backend.Controller;
 import com.classroom.class_backend.dto.ErrorResponse;
 import com.classroom.class_backend.dto.SuccessResponse;
 import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.filter.SessionTokenFilter;
 import com.classroom.class_backend.model.Homework;
 import com.classroom.class_backend.service.ClassService;
+import com.classroom.class_backend.service.ClassVersionService;
 import com.classroom.class_backend.service.HomeworkService;
+import com.classroom.class_backend.service.SessionClaims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
@@ -33,13 +36,28 @@ public class HomeworkController {
     @Autowired
     private HomeworkService homeworkService;
 
+    @Autowired
+    private ClassVersionService classVersionService;
+
     @PostMapping
-    public ResponseEntity<?> createHomework(@Valid @RequestBody HomeworkRequest homeworkRequest) {
+    public ResponseEntity<?> createHomework(@Valid @RequestBody HomeworkRequest homeworkRequest,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
             LOGGER.info("Received request to create homework for classId: {}", homeworkRequest.getClassId());
             LOGGER.debug("Homework request payload: classId={}, title={}, description={}, dueDate={}, createdBy={}",
                     homeworkRequest.getClassId(), homeworkRequest.getTitle(), homeworkRequest.getDescription(),
                     homeworkRequest.getDueDate(), homeworkRequest.getCreatedBy());
+            if (session != null) {
+                if (!session.actsFor(homeworkRequest.getCreatedBy())) {
+                    LOGGER.warn("Session user {} tried to create homework as {}", session.userId(), homeworkRequest.getCreatedBy());
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                if (!session.isTeacher()) {
+                    LOGGER.warn("User {} is not authorized to create homework. Role: {}", session.userId(), session.role());
+                    return ResponseEntity.status(403).body(new ErrorResponse("Only teachers can create homework."));
+                }
+                homeworkRequest.setCreatedBy(session.userId());
+            }
 
             // Validate class existence
             Class classObj = classService.getClassById(homeworkRequest.getClassId());
@@ -78,13 +96,20 @@ public class HomeworkController {
     }
 
     @GetMapping("/class/{classId}")
-    public ResponseEntity<?> getHomeworkByClassId(@PathVariable String classId) {
+    public ResponseEntity<?> getHomeworkByClassId(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
             LOGGER.info("Fetching homework for classId: {}", classId);
-            List<Homework> homeworkList = homeworkService.getHomeworkByClassId(classId);
+            long versionReadAt = System.nanoTime();
+            String eTag = classVersionService.classETag(classId);
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                LOGGER.info("Homework for classId: {} not modified", classId);
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
+            List<Homework> homeworkList = homeworkService.getHomeworkByClassId(classId, versionReadAt);
             LOGGER.info("Found {} homework assignments for classId: {}", homeworkList.size(), classId);
             SuccessResponse response = new SuccessResponse("Homework fetched successfully.", homeworkList);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(eTag).body(response);
         } catch (IllegalArgumentException e) {
             LOGGER.error("Validation error while fetching homework for classId: {}. Error: {}", classId, e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
@@ -95,10 +120,11 @@ public class HomeworkController {
     }
 
     @GetMapping("/{homeworkId}")
-    public ResponseEntity<?> getHomeworkById(@PathVariable String homeworkId) {
+    public ResponseEntity<?> getHomeworkById(@PathVariable String homeworkId,
+            @RequestParam(required = false) String classId) {
         try {
             LOGGER.info("Fetching homework details for homeworkId: {}", homeworkId);
-            Homework homework = homeworkService.getHomeworkById(homeworkId);
+            Homework homework = homeworkService.getHomeworkById(homeworkId, classId);
             return ResponseEntity.ok(new SuccessResponse("Homework retrieved successfully!", homework));
         } catch (IllegalArgumentException e) {
             LOGGER.error("Homework not found for homeworkId: {}. Error: {}", homeworkId, e.getMessage());
@@ -110,8 +136,17 @@ public class HomeworkController {
     }
 
     @DeleteMapping("/{homeworkId}")
-    public ResponseEntity<?> deleteHomework(@PathVariable String homeworkId, @RequestHeader("userId") String userId) {
+    public ResponseEntity<?> deleteHomework(@PathVariable String homeworkId,
+            @RequestHeader(value = "userId", required = false) String userId, @RequestParam(required = false) String classId,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to delete homework {} as {}", session.userId(), homeworkId, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
             LOGGER.info("Received request to delete homework with ID: {} by userId: {}", homeworkId, userId);
 
             // Validate userId
@@ -121,7 +156,7 @@ public class HomeworkController {
             }
 
             // Fetch the homework
-            Homework homework = homeworkService.getHomeworkById(homeworkId);
+            Homework homework = homeworkService.getHomeworkById(homeworkId, classId);
 
             // Authorization check: Ensure the user deleting the homework is the creator
             if (!homework.getCreatedBy().equals(userId)) {
@@ -130,7 +165,7 @@ public class HomeworkController {
             }
 
             // Delete the homework
-            homeworkService.deleteHomework(homeworkId);
+            homeworkService.deleteHomework(homeworkId, homework.getClassId());
             LOGGER.info("Homework with ID: {} deleted successfully by userId: {}", homeworkId, userId);
             return ResponseEntity.noContent().build(); // 204 No Content
         } catch (IllegalArgumentException e) {
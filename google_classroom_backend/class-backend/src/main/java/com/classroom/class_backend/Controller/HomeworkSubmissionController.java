@@ -2,8 +2,13 @@ package com.classroom.class_backend.Controller;
 
 import com.classroom.class_backend.dto.ErrorResponse;
 import com.classroom.class_backend.dto.SuccessResponse;
+import com.classroom.class_backend.filter.SessionTokenFilter;
 import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.service.ClassVersionService;
 import com.classroom.class_backend.service.HomeworkSubmissionService;
+import com.classroom.class_backend.service.SessionClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,13 +20,27 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class HomeworkSubmissionController {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(HomeworkSubmissionController.class);
+
     @Autowired
     private HomeworkSubmissionService submissionService;
 
+    @Autowired
+    private ClassVersionService classVersionService;
+
     // Submit a new homework submission
     @PostMapping
-    public ResponseEntity<?> submitHomework(@RequestBody HomeworkSubmission submission) {
+    public ResponseEntity<?> submitHomework(@RequestBody HomeworkSubmission submission,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
+            if (session != null) {
+                if (!session.actsFor(submission.getUserId())) {
+                    LOGGER.warn("Session user {} tried to submit homework {} as {}", session.userId(),
+                            submission.getHomeworkId(), submission.getUserId());
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                submission.setUserId(session.userId());
+            }
             HomeworkSubmission savedSubmission = submissionService.submitHomework(submission);
             return ResponseEntity.status(201).body(new SuccessResponse("Homework submitted successfully!", savedSubmission));
         } catch (IllegalArgumentException e) {
@@ -36,8 +55,17 @@ public class HomeworkSubmissionController {
     public ResponseEntity<?> updateHomeworkSubmission(
             @PathVariable String homeworkId,
             @PathVariable String userId,
-            @RequestBody HomeworkSubmission submission) {
+            @RequestBody HomeworkSubmission submission,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
         try {
+            if (session != null) {
+                if (!session.actsFor(userId)) {
+                    LOGGER.warn("Session user {} tried to update the submission for homework {} of {}", session.userId(),
+                            homeworkId, userId);
+                    return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+                }
+                userId = session.userId();
+            }
             submission.setHomeworkId(homeworkId);
             submission.setUserId(userId);
             HomeworkSubmission updatedSubmission = submissionService.updateHomeworkSubmission(submission);
@@ -51,10 +79,15 @@ public class HomeworkSubmissionController {
 
     // Get all submissions for a class
     @GetMapping("/class/{classId}")
-    public ResponseEntity<?> getSubmissionsByClassId(@PathVariable String classId) {
+    public ResponseEntity<?> getSubmissionsByClassId(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
+            String eTag = classVersionService.classETag(classId);
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
             List<HomeworkSubmission> submissions = submissionService.getSubmissionsByClassId(classId);
-            return ResponseEntity.ok(new SuccessResponse("Submissions fetched successfully", submissions));
+            return ResponseEntity.ok().eTag(eTag).body(new SuccessResponse("Submissions fetched successfully", submissions));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(400).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -64,10 +97,16 @@ public class HomeworkSubmissionController {
 
     // Get submissions for a specific user in a class
     @GetMapping("/class/{classId}/user/{userId}")
-    public ResponseEntity<?> getSubmissionsByClassIdAndUserId(@PathVariable String classId, @PathVariable String userId) {
+    public ResponseEntity<?> getSubmissionsByClassIdAndUserId(@PathVariable String classId, @PathVariable String userId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         try {
+            String eTag = classVersionService.classETag(classId);
+            if (classVersionService.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(304).eTag(eTag).build();
+            }
             List<HomeworkSubmission> submissions = submissionService.getSubmissionsByClassIdAndUserId(classId, userId);
-            return ResponseEntity.ok(new SuccessResponse("Submissions fetched successfully", submissions));
+            return ResponseEntity.ok().eTag(eTag).body(new SuccessResponse("Submissions fetched successfully", submissions));
+
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(400).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
@@ -0,0 +1,23 @@
+package com.classroom.class_backend.Controller;
+
+import com.classroom.class_backend.dto.SuccessResponse;
+import com.classroom.class_backend.service.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/internal")
+public class InternalStatsController {
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    // Per query group: calls, calls answered by a shared in-flight query, and the coalescing ratio
+    @GetMapping("/single-flight")
+    public ResponseEntity<?> getSingleFlightStats() {
+        return ResponseEntity.ok(new SuccessResponse("Single-flight stats fetched successfully.", singleFlight.getStats()));
+    }
+}
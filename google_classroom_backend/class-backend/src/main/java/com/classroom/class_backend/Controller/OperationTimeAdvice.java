@@ -0,0 +1,39 @@
+package com.classroom.class_backend.Controller;
+
+import com.classroom.class_backend.config.CausalSession;
+import com.classroom.class_backend.filter.CausalSessionFilter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Puts the request session's operationTime on the response just before the body is written,
+ * while headers can still be set; see {@link CausalSessionFilter}.
+ */
+@ControllerAdvice
+@Profile("!inmemory")
+public class OperationTimeAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        CausalSession session = CausalSession.current();
+        String operationTime = session == null ? null : CausalSessionFilter.operationTime(session.getClientSession());
+        if (operationTime != null) {
+            response.getHeaders().set(CausalSessionFilter.OPERATION_TIME_HEADER, operationTime);
+            response.getHeaders().add(HttpHeaders.SET_COOKIE, CausalSessionFilter.operationTimeCookie(operationTime));
+        }
+        return body;
+    }
+}
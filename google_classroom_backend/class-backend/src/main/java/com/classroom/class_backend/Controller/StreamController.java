@@ -0,0 +1,85 @@
+package com.classroom.class_backend.Controller;
+
+import com.classroom.class_backend.model.Announcement;
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.service.ClassVersionService;
+import com.classroom.class_backend.service.StreamingReadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Supplier;
+
+/**
+ * Streaming (newline-delimited JSON) variants of the large list endpoints. Each document is
+ * written as soon as the reactive driver delivers it, and the next one is only requested once
+ * the previous write has gone out, so a slow client throttles the Mongo cursor instead of the
+ * whole list being buffered in memory. ETags work as on the regular endpoints, except for the
+ * roster: profile changes do not bump the class version, so it is always sent in full.
+ */
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+@Profile("!inmemory")
+public class StreamController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamController.class);
+
+    @Autowired
+    private StreamingReadService streamingReadService;
+
+    @Autowired
+    private ClassVersionService classVersionService;
+
+    @GetMapping(value = "/announcements/class/{classId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Announcement>> streamAnnouncements(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        LOGGER.info("Streaming announcements for classId: {}", classId);
+        return stream(classId, ifNoneMatch, () -> streamingReadService.getAnnouncementsByClassId(classId));
+    }
+
+    @GetMapping(value = "/homework/class/{classId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Homework>> streamHomework(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        LOGGER.info("Streaming homework for classId: {}", classId);
+        return stream(classId, ifNoneMatch, () -> streamingReadService.getHomeworkByClassId(classId));
+    }
+
+    @GetMapping(value = "/homework/submissions/class/{classId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<HomeworkSubmission>> streamSubmissions(@PathVariable String classId,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        LOGGER.info("Streaming submissions for classId: {}", classId);
+        return stream(classId, ifNoneMatch, () -> streamingReadService.getSubmissionsByClassId(classId));
+    }
+
+    @GetMapping(value = "/classes/{classId}/students", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<User>> streamStudents(@PathVariable String classId) {
+        LOGGER.info("Streaming roster for classId: {}", classId);
+        return ResponseEntity.ok().body(streamingReadService.getStudentsByClassId(classId)
+            .map(StreamController::withoutPassword)
+            .doOnError(e -> LOGGER.error("Roster stream for classId: {} failed. Error: {}", classId, e.getMessage(), e)));
+    }
+
+    private <T> ResponseEntity<Flux<T>> stream(String classId, String ifNoneMatch, Supplier<Flux<T>> query) {
+        String eTag = classVersionService.classETag(classId);
+        if (classVersionService.matches(ifNoneMatch, eTag)) {
+            LOGGER.info("Stream for classId: {} not modified", classId);
+            return ResponseEntity.status(304).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(query.get()
+            .doOnError(e -> LOGGER.error("Stream for classId: {} failed. Error: {}", classId, e.getMessage(), e)));
+    }
+
+    // Stored passwords are never part of the stream
+    private static User withoutPassword(User user) {
+        user.setPassword(null);
+        return user;
+    }
+}
@@ -0,0 +1,67 @@
+package com.classroom.class_backend.Controller;
+
+import com.classroom.class_backend.dto.ErrorResponse;
+import com.classroom.class_backend.dto.SuccessResponse;
+import com.classroom.class_backend.dto.SyncResponse;
+import com.classroom.class_backend.filter.SessionTokenFilter;
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.SessionClaims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyncController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyncController.class);
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    // Homework, announcement, submission, attendance and membership changes of one class
+    @GetMapping("/class/{classId}")
+    public ResponseEntity<?> getClassChanges(
+            @PathVariable String classId,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            LOGGER.info("Sync request for classId: {} since: {}", classId, since);
+            SyncResponse changes = changeLogService.getChanges(ChangeLogService.classScope(classId), since, limit);
+            return ResponseEntity.ok(new SuccessResponse("Changes fetched successfully.", changes));
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Validation error while syncing classId: {}. Error: {}", classId, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            LOGGER.error("Failed to sync classId: {}. Error: {}", classId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(new ErrorResponse("Internal server error: " + e.getMessage()));
+        }
+    }
+
+    // Classes created, joined, left or deleted for one user
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserChanges(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestAttribute(name = SessionTokenFilter.CLAIMS, required = false) SessionClaims session) {
+        try {
+            if (session != null && !session.actsFor(userId)) {
+                LOGGER.warn("Session user {} tried to sync the changes of {}", session.userId(), userId);
+                return ResponseEntity.status(403).body(new ErrorResponse("You can only act as the signed-in user."));
+            }
+            LOGGER.info("Sync request for userId: {} since: {}", userId, since);
+            SyncResponse changes = changeLogService.getChanges(ChangeLogService.userScope(userId), since, limit);
+            return ResponseEntity.ok(new SuccessResponse("Changes fetched successfully.", changes));
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Validation error while syncing userId: {}. Error: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            LOGGER.error("Failed to sync userId: {}. Error: {}", userId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(new ErrorResponse("Internal server error: " + e.getMessage()));
+        }
+    }
+}
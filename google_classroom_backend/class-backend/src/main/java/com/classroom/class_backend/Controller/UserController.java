@@ -8,6 +8,9 @@ import com.classroom.class_backend.dto.GoogleAuthRequest;
 import com.classroom.class_backend.dto.ResetPasswordRequest;
 import com.classroom.class_backend.dto.ForgotPasswordRequest;
 import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.service.PasswordHasher;
+import com.classroom.class_backend.service.RateLimiter;
+import com.classroom.class_backend.service.SessionTokenService;
 import com.classroom.class_backend.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +18,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -25,6 +30,12 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
     @PostMapping("/signup")
     public ResponseEntity<?> signUp(@RequestBody User user) {
         try {
@@ -34,7 +45,11 @@ public class UserController {
             LoginResponse response = new LoginResponse();
             response.setUserId(savedUser.getId());
             response.setRole(savedUser.getRole());
+            response.setToken(sessionTokenService.issue(savedUser));
             return ResponseEntity.ok(response);
+        } catch (PasswordHasher.BusyException e) {
+            LOGGER.warn("Signup deferred for email: {}: password hashing is saturated", user.getEmail());
+            return serviceBusy(e);
         } catch (Exception e) {
             LOGGER.error("Signup failed for email: {}. Error: {}", user.getEmail(), e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
@@ -45,11 +60,29 @@ public class UserController {
     public ResponseEntity<?> login(@RequestBody User user) {
         try {
             LOGGER.info("Login request received for email: {}", user.getEmail());
-            User loggedInUser = userService.login(user.getEmail(), user.getPassword());
+            // Only failed attempts are charged to the account; a successful one gets its token back
+            String email = normalizeEmail(user.getEmail());
+            long wait = rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, email);
+            if (wait > 0) {
+                LOGGER.warn("Login rate limited for email: {}", user.getEmail());
+                return tooManyRequests(wait);
+            }
+            User loggedInUser;
+            try {
+                loggedInUser = userService.login(user.getEmail(), user.getPassword());
+            } catch (PasswordHasher.BusyException e) {
+                rateLimiter.refund(RateLimiter.LOGIN_EMAIL, email);
+                throw e;
+            }
+            rateLimiter.refund(RateLimiter.LOGIN_EMAIL, email);
             LoginResponse response = new LoginResponse();
             response.setUserId(loggedInUser.getId());
             response.setRole(loggedInUser.getRole());
+            response.setToken(sessionTokenService.issue(loggedInUser));
             return ResponseEntity.ok(response);
+        } catch (PasswordHasher.BusyException e) {
+            LOGGER.warn("Login deferred for email: {}: password hashing is saturated", user.getEmail());
+            return serviceBusy(e);
         } catch (Exception e) {
             LOGGER.error("Login failed for email: {}. Error: {}", user.getEmail(), e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
@@ -64,6 +97,7 @@ public class UserController {
             LoginResponse response = new LoginResponse();
             response.setUserId(user.getId());
             response.setRole(user.getRole());
+            response.setToken(sessionTokenService.issue(user));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             LOGGER.error("Google login failed. Error: {}", e.getMessage());
@@ -83,6 +117,7 @@ public class UserController {
             LoginResponse response = new LoginResponse();
             response.setUserId(user.getId());
             response.setRole(user.getRole());
+            response.setToken(sessionTokenService.issue(user));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             LOGGER.error("Google signup failed. Error: {}", e.getMessage());
@@ -148,6 +183,11 @@ public class UserController {
     public ResponseEntity<?> forgotPassword(@RequestBody ForgotPasswordRequest request) {
         try {
             LOGGER.info("Forgot password request for email: {}", request.getEmail());
+            long wait = rateLimiter.tryAcquire(RateLimiter.FORGOT_PASSWORD_EMAIL, normalizeEmail(request.getEmail()));
+            if (wait > 0) {
+                LOGGER.warn("Forgot password rate limited for email: {}", request.getEmail());
+                return tooManyRequests(wait);
+            }
             String resetLink = userService.createPasswordResetToken(request.getEmail());
             return ResponseEntity.ok(new SuccessResponse("Password reset link generated.", resetLink));
         } catch (Exception e) {
@@ -175,9 +215,26 @@ public class UserController {
             userService.resetPassword(request.getToken(), request.getNewPassword());
             LOGGER.info("Password reset successful for token: {}", request.getToken());
             return ResponseEntity.ok(new SuccessResponse("Password reset successful!"));
+        } catch (PasswordHasher.BusyException e) {
+            LOGGER.warn("Reset password deferred for token: {}: password hashing is saturated", request.getToken());
+            return serviceBusy(e);
         } catch (Exception e) {
             LOGGER.error("Reset password failed for token: {}. Error: {}", request.getToken(), e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static ResponseEntity<ErrorResponse> serviceBusy(PasswordHasher.BusyException e) {
+        return ResponseEntity.status(503).header("Retry-After", "1").body(new ErrorResponse(e.getMessage()));
+    }
+
+    private static ResponseEntity<ErrorResponse> tooManyRequests(long waitNanos) {
+        return ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf(RateLimiter.retryAfterSeconds(waitNanos)))
+                .body(new ErrorResponse("Too many attempts, please retry later."));
+    }
+}
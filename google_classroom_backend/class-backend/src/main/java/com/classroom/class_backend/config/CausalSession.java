@@ -0,0 +1,54 @@
+package com.classroom.class_backend.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+/**
+ * The causally consistent ClientSession of the request being handled, opened by
+ * CausalSessionFilter and used by {@link SessionRoutingMongoDatabaseFactory} for every operation
+ * on the request thread. Work handed to other threads (event streams, executors) runs outside it.
+ */
+public final class CausalSession {
+
+    private static final ThreadLocal<CausalSession> CURRENT = new ThreadLocal<>();
+
+    private final ClientSession clientSession;
+
+    // Null keeps reads on the primary
+    private final ReadPreference readPreference;
+
+    private MongoDatabaseFactory boundFactory;
+
+    public CausalSession(ClientSession clientSession, ReadPreference readPreference) {
+        this.clientSession = clientSession;
+        this.readPreference = readPreference;
+    }
+
+    public static CausalSession current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(CausalSession session) {
+        CURRENT.set(session);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public ClientSession getClientSession() {
+        return clientSession;
+    }
+
+    public ReadPreference getReadPreference() {
+        return readPreference;
+    }
+
+    MongoDatabaseFactory boundTo(MongoDatabaseFactory factory) {
+        if (boundFactory == null) {
+            boundFactory = factory.withSession(clientSession);
+        }
+        return boundFactory;
+    }
+}
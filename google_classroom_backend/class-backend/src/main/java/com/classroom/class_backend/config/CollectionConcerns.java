@@ -0,0 +1,64 @@
+package com.classroom.class_backend.config;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadConcernLevel;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read preference, read concern and write concern configured for each collection under
+ * classroom.mongo.collections, parsed once at startup so a typo fails the boot instead of a request.
+ * A null means the collection keeps whatever the client (connection string) uses.
+ */
+public class CollectionConcerns {
+
+    private final Map<String, ReadPreference> readPreferences = new HashMap<>();
+
+    private final Map<String, ReadConcern> readConcerns = new HashMap<>();
+
+    private final Map<String, WriteConcern> writeConcerns = new HashMap<>();
+
+    public CollectionConcerns(Map<String, MongoClientProperties.CollectionSettings> collections) {
+        collections.forEach((collection, settings) -> {
+            if (settings.getReadPreference() != null) {
+                readPreferences.put(collection, readPreference(settings.getReadPreference(), settings.getMaxStaleness()));
+            }
+            if (settings.getReadConcern() != null) {
+                readConcerns.put(collection, new ReadConcern(ReadConcernLevel.fromString(settings.getReadConcern())));
+            }
+            if (settings.getWriteConcern() != null) {
+                WriteConcern writeConcern = WriteConcern.valueOf(settings.getWriteConcern());
+                if (writeConcern == null) {
+                    throw new IllegalArgumentException("Unknown write concern '" + settings.getWriteConcern()
+                        + "' for collection " + collection);
+                }
+                writeConcerns.put(collection, writeConcern);
+            }
+        });
+    }
+
+    public ReadPreference readPreference(String collection) {
+        return readPreferences.get(collection);
+    }
+
+    public ReadConcern readConcern(String collection) {
+        return readConcerns.get(collection);
+    }
+
+    public WriteConcern writeConcern(String collection) {
+        return writeConcerns.get(collection);
+    }
+
+    public static ReadPreference readPreference(String name, Duration maxStaleness) {
+        if (maxStaleness == null) {
+            return ReadPreference.valueOf(name);
+        }
+        return ReadPreference.valueOf(name, Collections.emptyList(), maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+}
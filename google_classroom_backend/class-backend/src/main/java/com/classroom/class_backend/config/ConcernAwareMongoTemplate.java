@@ -0,0 +1,44 @@
+package com.classroom.class_backend.config;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate that applies the per-collection read preference, read concern and write concern
+ * from {@link CollectionConcerns}. Every repository goes through prepareCollection, and a read
+ * preference or concern set on an individual Query still takes precedence.
+ */
+public class ConcernAwareMongoTemplate extends MongoTemplate {
+
+    private final CollectionConcerns concerns;
+
+    public ConcernAwareMongoTemplate(MongoDatabaseFactory factory, MongoConverter converter, CollectionConcerns concerns) {
+        super(factory, converter);
+        this.concerns = concerns;
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+        String name = collection.getNamespace().getCollectionName();
+        ReadPreference readPreference = concerns.readPreference(name);
+        if (readPreference != null) {
+            prepared = prepared.withReadPreference(readPreference);
+        }
+        ReadConcern readConcern = concerns.readConcern(name);
+        if (readConcern != null) {
+            prepared = prepared.withReadConcern(readConcern);
+        }
+        WriteConcern writeConcern = concerns.writeConcern(name);
+        if (writeConcern != null) {
+            prepared = prepared.withWriteConcern(writeConcern);
+        }
+        return prepared;
+    }
+}
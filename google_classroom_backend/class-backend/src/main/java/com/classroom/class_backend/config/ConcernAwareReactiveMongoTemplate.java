@@ -0,0 +1,43 @@
+package com.classroom.class_backend.config;
+
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * The reactive counterpart of {@link ConcernAwareMongoTemplate}, so the streaming reads honour the
+ * same per-collection settings.
+ */
+public class ConcernAwareReactiveMongoTemplate extends ReactiveMongoTemplate {
+
+    private final CollectionConcerns concerns;
+
+    public ConcernAwareReactiveMongoTemplate(ReactiveMongoDatabaseFactory factory, MongoConverter converter, CollectionConcerns concerns) {
+        super(factory, converter);
+        this.concerns = concerns;
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+        String name = collection.getNamespace().getCollectionName();
+        ReadPreference readPreference = concerns.readPreference(name);
+        if (readPreference != null) {
+            prepared = prepared.withReadPreference(readPreference);
+        }
+        ReadConcern readConcern = concerns.readConcern(name);
+        if (readConcern != null) {
+            prepared = prepared.withReadConcern(readConcern);
+        }
+        WriteConcern writeConcern = concerns.writeConcern(name);
+        if (writeConcern != null) {
+            prepared = prepared.withWriteConcern(writeConcern);
+        }
+        return prepared;
+    }
+}
@@ -0,0 +1,35 @@
+package com.classroom.class_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The "inmemory" profile: the repositories in repository.inmemory are the only ones, and the Mongo
+ * configuration is skipped. ClassBackendApplication excludes the Mongo client, template and
+ * repository auto-configurations under the profile, so no MongoClient is built and nothing tries
+ * to reach a server. /actuator/health reports the in-memory backend in place of Mongo.
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemoryConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryConfig.class);
+
+    @PostConstruct
+    public void announce() {
+        LOGGER.warn("Running with in-memory repositories; data is lost on shutdown");
+    }
+
+    // Named as the Mongo health indicator would be, so the health response keeps its shape
+    @Bean
+    public HealthIndicator mongoHealthIndicator() {
+        return () -> Health.up().withDetail("backend", "in-memory").build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.classroom.class_backend.config;
+
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.ClassEventHub;
+import com.classroom.class_backend.service.IdempotencyStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Metrics exported at /actuator/prometheus.
+ *
+ * Spring Boot already records http.server.requests per endpoint,
+ * spring.data.repository.invocations per repository method, and mongodb.driver.commands /
+ * mongodb.driver.pool.* through the driver's CommandListener and ConnectionPoolListener.
+ * This adds percentiles to those timers and to the classroom.service timer produced by
+ * @Observed on the services (see TracingConfig), and gauges for the in-process caches and queues.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> LATENCY_METRICS = List.of(
+        "http.server.requests",
+        "spring.data.repository.invocations",
+        "mongodb.driver.commands",
+        "mongodb.driver.pool.checkout",
+        "classroom.service"
+    );
+
+    @Bean
+    public MeterFilter latencyPercentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (LATENCY_METRICS.contains(id.getName())) {
+                    return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder classroomGauges(IdempotencyStore idempotencyStore, ClassEventHub classEventHub,
+            ChangeLogService changeLogService) {
+        return registry -> {
+            Gauge.builder("classroom.idempotency.entries", idempotencyStore, IdempotencyStore::size)
+                .description("Idempotency keys currently stored")
+                .register(registry);
+            Gauge.builder("classroom.etag.version.cache.entries", changeLogService, ChangeLogService::getCachedVersionCount)
+                .description("Class and user versions cached in this instance")
+                .register(registry);
+            Gauge.builder("classroom.events.connections", classEventHub, ClassEventHub::getConnectionCount)
+                .description("Open event streams on this instance")
+                .register(registry);
+            Gauge.builder("classroom.events.buffered", classEventHub, ClassEventHub::getBufferedEventCount)
+                .description("Events queued across all event stream buffers")
+                .register(registry);
+            FunctionCounter.builder("classroom.events.evicted", classEventHub, ClassEventHub::getEvictedCount)
+                .description("Event streams evicted as slow consumers")
+                .register(registry);
+            FunctionCounter.builder("classroom.events.dropped", classEventHub, ClassEventHub::getDroppedPublishCount)
+                .description("Class events dropped because the recipient lookup queue was full")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.classroom.class_backend.config;
+
+import com.mongodb.MongoCompressor;
+import com.mongodb.ServerAddress;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies {@link MongoClientProperties} to the MongoClients Spring Boot builds, and replaces Boot's
+ * templates with ones that apply the per-collection concerns. The blocking template also joins the
+ * request's causally consistent session when read routing is enabled (see CausalSessionFilter).
+ *
+ * Boot already exports mongodb.driver.pool.size, .checkedout and .waitqueuesize per server; the
+ * mongodb.driver.pool.checkout timer added here shows how long operations wait for a connection,
+ * which is what maxSize and maxWaitTime trade against each other.
+ */
+@Configuration
+@EnableConfigurationProperties(MongoClientProperties.class)
+public class MongoClientConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoClientConfig.class);
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer classroomMongoClientSettings(MongoClientProperties properties,
+            MeterRegistry meterRegistry) {
+        List<MongoCompressor> compressors = compressors(properties);
+        return builder -> {
+            MongoClientProperties.Pool pool = properties.getPool();
+            builder.applyToConnectionPoolSettings(settings -> {
+                if (pool.getMaxSize() != null) {
+                    settings.maxSize(pool.getMaxSize());
+                }
+                if (pool.getMinSize() != null) {
+                    settings.minSize(pool.getMinSize());
+                }
+                if (pool.getMaxWaitTime() != null) {
+                    settings.maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaxConnecting() != null) {
+                    settings.maxConnecting(pool.getMaxConnecting());
+                }
+                if (pool.getMaxConnectionIdleTime() != null) {
+                    settings.maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaxConnectionLifeTime() != null) {
+                    settings.maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                settings.addConnectionPoolListener(checkoutTimer(meterRegistry));
+            });
+            builder.applyToSocketSettings(settings -> {
+                if (properties.getConnectTimeout() != null) {
+                    settings.connectTimeout(millis(properties.getConnectTimeout()), TimeUnit.MILLISECONDS);
+                }
+                if (properties.getReadTimeout() != null) {
+                    settings.readTimeout(millis(properties.getReadTimeout()), TimeUnit.MILLISECONDS);
+                }
+            });
+            if (properties.getServerSelectionTimeout() != null) {
+                builder.applyToClusterSettings(settings ->
+                    settings.serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS));
+            }
+            if (!compressors.isEmpty()) {
+                builder.compressorList(compressors);
+            }
+        };
+    }
+
+    @Bean
+    public CollectionConcerns collectionConcerns(MongoClientProperties properties) {
+        properties.getCollections().forEach((collection, settings) ->
+            LOGGER.info("Collection {}: read preference {}, read concern {}, write concern {}", collection,
+                settings.getReadPreference(), settings.getReadConcern(), settings.getWriteConcern()));
+        return new CollectionConcerns(properties.getCollections());
+    }
+
+    // The inmemory profile excludes Mongo auto-configuration, so there is no factory to wrap
+    @Bean
+    @Profile("!inmemory")
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory factory, MongoConverter converter, CollectionConcerns concerns) {
+        return new ConcernAwareMongoTemplate(new SessionRoutingMongoDatabaseFactory(factory), converter, concerns);
+    }
+
+    @Bean
+    @Profile("!inmemory")
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory factory, MongoConverter converter,
+            CollectionConcerns concerns) {
+        return new ConcernAwareReactiveMongoTemplate(factory, converter, concerns);
+    }
+
+    private static List<MongoCompressor> compressors(MongoClientProperties properties) {
+        return properties.getCompressors().stream()
+            .map(name -> switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "zstd" -> MongoCompressor.createZstdCompressor();
+                case "snappy" -> MongoCompressor.createSnappyCompressor();
+                case "zlib" -> properties.getZlibCompressionLevel() == null
+                    ? MongoCompressor.createZlibCompressor()
+                    : MongoCompressor.createZlibCompressor().withProperty(MongoCompressor.LEVEL, properties.getZlibCompressionLevel());
+                default -> throw new IllegalArgumentException("Unknown Mongo compressor '" + name + "', expected zstd, snappy or zlib");
+            })
+            .collect(Collectors.toList());
+    }
+
+    private static int millis(Duration duration) {
+        return (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+    }
+
+    private static ConnectionPoolListener checkoutTimer(MeterRegistry meterRegistry) {
+        // Every operation checks out a connection; building and registering the timer each time is not free
+        ConcurrentMap<ServerAddress, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+        return new ConnectionPoolListener() {
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                record(event.getConnectionId().getServerId().getAddress(), "success",
+                    event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                record(event.getServerId().getAddress(), event.getReason().name().toLowerCase(Locale.ROOT),
+                    event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            private void record(ServerAddress server, String outcome, long nanos) {
+                timers.computeIfAbsent(server, address -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(outcome, key -> Timer.builder("mongodb.driver.pool.checkout")
+                        .description("Time an operation waited for a pooled connection")
+                        .tag("server.address", server.toString())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package com.classroom.class_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoClient settings under classroom.mongo. Anything left unset keeps the value from
+ * spring.data.mongodb.uri, or the driver default when the URI does not set it either.
+ * Applied to both the blocking and the reactive client.
+ *
+ * Per-collection settings are keyed by collection name, one per repository, e.g.
+ *   classroom.mongo.collections.attendance.write-concern=majority
+ *   classroom.mongo.collections.announcements.read-preference=secondaryPreferred
+ */
+@Data
+@ConfigurationProperties(prefix = "classroom.mongo")
+public class MongoClientProperties {
+
+    private Pool pool = new Pool();
+
+    // Until a TCP connection to a server is established
+    private Duration connectTimeout;
+
+    // Per socket read, so it bounds a single round trip; 0 means no timeout
+    private Duration readTimeout;
+
+    // How long an operation waits for a suitable server (e.g. a primary during an election)
+    private Duration serverSelectionTimeout;
+
+    // Offered to the server in order of preference: zstd, snappy or zlib
+    private List<String> compressors = new ArrayList<>();
+
+    // -1 (the driver default) means zlib's own default level 6
+    private Integer zlibCompressionLevel;
+
+    private Map<String, CollectionSettings> collections = new HashMap<>();
+
+    private ReadRouting readRouting = new ReadRouting();
+
+    @Data
+    public static class Pool {
+
+        // Connections per server; reads routed to secondaries use those servers' pools
+        private Integer maxSize;
+
+        private Integer minSize;
+
+        // The wait queue: an operation waits at most this long for a pooled connection
+        private Duration maxWaitTime;
+
+        // Connections being opened at once per server; the rest of the queue waits behind them
+        private Integer maxConnecting;
+
+        private Duration maxConnectionIdleTime;
+
+        private Duration maxConnectionLifeTime;
+    }
+
+    @Data
+    public static class ReadRouting {
+
+        // Needs a replica set: standalone servers report no operationTime, so sessions cannot be causal
+        private boolean enabled;
+
+        // Applied to the reads of GET requests; a collection's own read-preference still wins
+        private String readPreference = "secondaryPreferred";
+
+        private Duration maxStaleness;
+    }
+
+    @Data
+    public static class CollectionSettings {
+
+        // primary, primaryPreferred, secondary, secondaryPreferred or nearest
+        private String readPreference;
+
+        // Only used with a non-primary read preference; at least 90s when set
+        private Duration maxStaleness;
+
+        // local, available, majority, linearizable or snapshot
+        private String readConcern;
+
+        // w1, w2, w3, majority, acknowledged, unacknowledged or journaled
+        private String writeConcern;
+    }
+}
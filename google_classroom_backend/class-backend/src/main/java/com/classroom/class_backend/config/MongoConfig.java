@@ -2,6 +2,7 @@ package com.classroom.class_backend.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.index.IndexDefinition;
@@ -9,11 +10,14 @@ import org.springframework.data.mongodb.core.index.IndexDefinition;
 import jakarta.annotation.PostConstruct;
 
 @Configuration
+@Profile("!inmemory")
 public class MongoConfig {
 
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    // On every instance, before it serves: requests rely on the unique classCode index. createIndexes
+    // returns at once for an existing index and waits for one that another instance is still building
     @PostConstruct
     public void initIndexes() {
         // Index for attendance collection (from previous optimization)
@@ -34,5 +38,29 @@ public class MongoConfig {
             .on("classCode", org.springframework.data.domain.Sort.Direction.ASC)
             .unique();
         classIndexOps.ensureIndex(classCodeIndex);
+
+        // Index for change_events collection: one ordered log per class/user scope
+        IndexOperations changeEventIndexOps = mongoTemplate.indexOps("change_events");
+        IndexDefinition scopeSeqIndex = new org.springframework.data.mongodb.core.index.CompoundIndexDefinition(
+            new org.bson.Document("scopeKey", 1).append("seq", 1)
+        ).unique();
+        changeEventIndexOps.ensureIndex(scopeSeqIndex);
+        // Events are only kept long enough for clients to catch up; older cursors get resetRequired
+        IndexDefinition changeEventTtlIndex = new org.springframework.data.mongodb.core.index.Index()
+            .on("occurredAt", org.springframework.data.domain.Sort.Direction.ASC)
+            .expire(java.time.Duration.ofDays(30));
+        changeEventIndexOps.ensureIndex(changeEventTtlIndex);
+
+        // Tokens of instances that are gone for good; a token this old has left the oplog anyway
+        IndexDefinition resumeTokenTtlIndex = new org.springframework.data.mongodb.core.index.Index()
+            .on("updatedAt", org.springframework.data.domain.Sort.Direction.ASC)
+            .expire(java.time.Duration.ofDays(7));
+        mongoTemplate.indexOps("change_stream_resume_tokens").ensureIndex(resumeTokenTtlIndex);
+
+        // Reset tokens go as soon as they expire (the TTL monitor runs about once a minute)
+        IndexDefinition resetTokenTtlIndex = new org.springframework.data.mongodb.core.index.Index()
+            .on("expiryDate", org.springframework.data.domain.Sort.Direction.ASC)
+            .expire(java.time.Duration.ZERO);
+        mongoTemplate.indexOps("password_reset_tokens").ensureIndex(resetTokenTtlIndex);
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.classroom.class_backend.config;
+
+import com.classroom.class_backend.service.SingleFlight;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.google.api.client.json.webtoken.JsonWebToken;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reflection hints for a GraalVM native image (mvn -Pnative native:compile). Spring's AOT pass
+ * covers beans, repositories and @RequestBody types; what it cannot see is registered here:
+ * entities and DTOs that only reach Jackson as Object (SuccessResponse.data, Map bodies), the
+ * @Id fields the in-memory repositories read reflectively, and the Google ID-token classes
+ * that google-http-client populates through their @Key fields.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ClassroomRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ClassroomRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String BASE_PACKAGE = "com.classroom.class_backend";
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+            // Runs at build time only, so scanning here costs nothing at startup
+            for (String packageName : new String[] {BASE_PACKAGE + ".model", BASE_PACKAGE + ".dto"}) {
+                for (Class<?> type : typesIn(packageName, classLoader)) {
+                    bindingHints.registerReflectionHints(hints.reflection(), type);
+                    hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS);
+                }
+            }
+            bindingHints.registerReflectionHints(hints.reflection(), SingleFlight.Stats.class);
+
+            for (Class<?> type : new Class<?>[] {GoogleIdToken.Payload.class, JsonWebToken.Payload.class,
+                    JsonWebSignature.Header.class, JsonWebToken.Header.class}) {
+                hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+
+        private static List<Class<?>> typesIn(String packageName, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*")));
+            List<Class<?>> types = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(packageName)) {
+                types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+            return types;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.classroom.class_backend.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoDatabase;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+/**
+ * Hands MongoTemplate a database bound to the request's {@link CausalSession} when there is one,
+ * with that session's read preference, so repositories need no changes to read from secondaries
+ * and still see the request's (and the client's earlier) writes. Without a session it is the
+ * plain factory.
+ */
+public class SessionRoutingMongoDatabaseFactory implements MongoDatabaseFactory {
+
+    private final MongoDatabaseFactory delegate;
+
+    public SessionRoutingMongoDatabaseFactory(MongoDatabaseFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase() throws DataAccessException {
+        CausalSession session = CausalSession.current();
+        return session == null ? delegate.getMongoDatabase() : route(session, session.boundTo(delegate).getMongoDatabase());
+    }
+
+    @Override
+    public MongoDatabase getMongoDatabase(String dbName) throws DataAccessException {
+        CausalSession session = CausalSession.current();
+        return session == null ? delegate.getMongoDatabase(dbName) : route(session, session.boundTo(delegate).getMongoDatabase(dbName));
+    }
+
+    @Override
+    public PersistenceExceptionTranslator getExceptionTranslator() {
+        return delegate.getExceptionTranslator();
+    }
+
+    @Override
+    public ClientSession getSession(ClientSessionOptions options) {
+        return delegate.getSession(options);
+    }
+
+    @Override
+    public MongoDatabaseFactory withSession(ClientSession session) {
+        return delegate.withSession(session);
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return delegate.isTransactionActive();
+    }
+
+    private static MongoDatabase route(CausalSession session, MongoDatabase database) {
+        return session.getReadPreference() == null ? database : database.withReadPreference(session.getReadPreference());
+    }
+}
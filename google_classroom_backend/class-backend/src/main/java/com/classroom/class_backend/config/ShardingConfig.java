@@ -0,0 +1,92 @@
+package com.classroom.class_backend.config;
+
+import com.classroom.class_backend.service.LeaderOnly;
+import com.mongodb.MongoCommandException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shard keys of the hot collections, applied when classroom.sharding.enabled is set and the
+ * application is connected to a mongos. Everything class-scoped is keyed by hashed classId, which
+ * spreads classes evenly over the shards and keeps all of one class's documents on one shard; the
+ * ranged second field lets the chunks of a very large class still be split. user is keyed by
+ * hashed _id. Every other collection stays unsharded on the database's primary shard.
+ *
+ * The entities carry the same fields in @Sharded so save() puts them in its replace filter.
+ * Repository queries on the sharded collections include classId (or the user _id), so mongos sends
+ * them to one shard. Known exceptions, which are sent to every shard:
+ *   - class_members by userId (a student's class list), and
+ *   - user by email (login, registration, password reset),
+ * both answered from an index on each shard. Lookups by id alone from clients that do not send
+ * the classId are also broadcast.
+ *
+ * Sharding an existing, non-empty collection needs its shard key index first, which is created
+ * here too. shardCollection is idempotent for an unchanged key.
+ */
+@Configuration
+@Profile("!inmemory")
+public class ShardingConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardingConfig.class);
+
+    public static final Map<String, Document> SHARD_KEYS = new LinkedHashMap<>();
+
+    static {
+        SHARD_KEYS.put("attendance", new Document("classId", "hashed").append("date", 1));
+        SHARD_KEYS.put("homework", new Document("classId", "hashed").append("_id", 1));
+        SHARD_KEYS.put("homework_submissions", new Document("classId", "hashed").append("_id", 1));
+        SHARD_KEYS.put("announcements", new Document("classId", "hashed").append("_id", 1));
+        SHARD_KEYS.put("class_members", new Document("classId", "hashed").append("_id", 1));
+        SHARD_KEYS.put("user", new Document("_id", "hashed"));
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${classroom.sharding.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @LeaderOnly(value = "mongo-sharding", once = true)
+    public void shardCollections() {
+        if (!enabled) {
+            return;
+        }
+        Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+        if (!"isdbgrid".equals(hello.getString("msg"))) {
+            LOGGER.warn("classroom.sharding.enabled is set but Mongo is not a sharded cluster (mongos); skipping");
+            return;
+        }
+        String database = mongoTemplate.getDb().getName();
+        // Implicit since MongoDB 6.0, required before
+        adminCommand(new Document("enableSharding", database));
+        SHARD_KEYS.forEach((collection, key) -> {
+            mongoTemplate.indexOps(collection).ensureIndex(new CompoundIndexDefinition(key));
+            adminCommand(new Document("shardCollection", database + "." + collection).append("key", key));
+            LOGGER.info("Collection {} sharded on {}", collection, key.toJson());
+        });
+    }
+
+    private void adminCommand(Document command) {
+        try {
+            mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("admin").runCommand(command);
+        } catch (MongoCommandException e) {
+            // AlreadyInitialized: enableSharding on a database that already has it (before 6.0)
+            if (e.getErrorCode() != 23) {
+                throw e;
+            }
+        }
+    }
+}
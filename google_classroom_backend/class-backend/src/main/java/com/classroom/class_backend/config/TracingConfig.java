@@ -0,0 +1,64 @@
+package com.classroom.class_backend.config;
+
+import com.classroom.class_backend.tracing.FileSpanExporter;
+import com.classroom.class_backend.tracing.InMemorySpanExporter;
+import com.classroom.class_backend.tracing.LogSpanExporter;
+import com.classroom.class_backend.tracing.SlowTraceSpanExporter;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Spans for controller (http.server.requests) -> service (@Observed) -> Mongo command. Repository
+ * calls are timed by Spring Data's own spring.data.repository.invocations metric, not spanned.
+ *
+ * Every request is traced, but only traces whose local root span exceeds
+ * classroom.tracing.slow-threshold are exported. The exporter is chosen with
+ * classroom.tracing.exporter: log (default), file or memory (for tests).
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder
+            .contextProvider(ContextProviderFactory.create(observationRegistry))
+            .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    @Bean
+    public SpanExporter slowTraceSpanExporter(
+            @Value("${classroom.tracing.exporter:log}") String exporter,
+            @Value("${classroom.tracing.slow-threshold:500ms}") Duration slowThreshold,
+            @Value("${classroom.tracing.file:slow-traces.jsonl}") Path file) {
+        SpanExporter delegate;
+        switch (exporter) {
+            case "file":
+                delegate = new FileSpanExporter(file);
+                break;
+            case "memory":
+                delegate = new InMemorySpanExporter();
+                break;
+            case "log":
+                delegate = new LogSpanExporter();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown classroom.tracing.exporter: " + exporter);
+        }
+        return new SlowTraceSpanExporter(delegate, slowThreshold);
+    }
+}
@@ -0,0 +1,19 @@
+package com.classroom.class_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WebServerConfig implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    // Event streams stay open for minutes, so the connector needs far more than Tomcat's default 8192 sockets
+    @Value("${server.tomcat.max-connections:30000}")
+    private int maxConnections;
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addConnectorCustomizers(connector -> connector.setProperty("maxConnections", String.valueOf(maxConnections)));
+    }
+}
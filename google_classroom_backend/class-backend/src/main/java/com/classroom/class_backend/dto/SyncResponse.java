@@ -0,0 +1,27 @@
+package com.classroom.class_backend.dto;
+
+import com.classroom.class_backend.model.ChangeEvent;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SyncResponse {
+
+    private List<ChangeEvent> events;
+
+    // Pass back as "since" on the next sync
+    private long cursor;
+
+    private boolean hasMore;
+
+    // The cursor is older than the retained change log; the client must reload the full lists
+    private boolean resetRequired;
+
+    public SyncResponse(List<ChangeEvent> events, long cursor, boolean hasMore, boolean resetRequired) {
+        this.events = events;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+        this.resetRequired = resetRequired;
+    }
+}
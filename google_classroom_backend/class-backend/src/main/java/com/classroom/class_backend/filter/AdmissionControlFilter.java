@@ -0,0 +1,161 @@
+package com.classroom.class_backend.filter;
+
+import com.classroom.class_backend.config.MongoClientProperties;
+import com.classroom.class_backend.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ConnectionString;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of API requests executing at once at the size of the Mongo connection pool.
+ * Requests beyond that wait here for a permit (cheap when they run on virtual threads) instead of
+ * piling up inside the driver's pool queue; when the wait grows too long or too many are
+ * already waiting, the request is rejected with 503 and Retry-After.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    // Driver default for maxPoolSize when the connection string does not set one
+    private static final int DEFAULT_MONGO_POOL_SIZE = 100;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MongoClientProperties mongoClientProperties;
+
+    @Value("${classroom.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.data.mongodb.uri:}")
+    private String mongoUri;
+
+    // 0 means derive from the Mongo pool size
+    @Value("${classroom.admission.max-concurrent:0}")
+    private int maxConcurrent;
+
+    @Value("${classroom.admission.max-waiting:10000}")
+    private int maxWaiting;
+
+    @Value("${classroom.admission.queue-timeout:2s}")
+    private Duration queueTimeout;
+
+    private Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private Counter rejected;
+
+    private Timer queueTime;
+
+    @PostConstruct
+    public void init() {
+        if (maxConcurrent <= 0) {
+            maxConcurrent = mongoPoolSize();
+        }
+        permits = new Semaphore(maxConcurrent, true);
+        Gauge.builder("classroom.admission.active", this, filter -> filter.maxConcurrent - filter.permits.availablePermits())
+            .description("API requests currently holding an admission permit")
+            .register(meterRegistry);
+        Gauge.builder("classroom.admission.waiting", waiting, AtomicInteger::get)
+            .description("API requests waiting for an admission permit")
+            .register(meterRegistry);
+        Gauge.builder("classroom.admission.limit", this, filter -> filter.maxConcurrent)
+            .register(meterRegistry);
+        rejected = Counter.builder("classroom.admission.rejected")
+            .description("API requests turned away with 503")
+            .register(meterRegistry);
+        queueTime = Timer.builder("classroom.admission.queue")
+            .description("Time spent waiting for an admission permit")
+            .register(meterRegistry);
+        LOGGER.info("Admission control {} with {} concurrent requests, {} waiting, {} queue timeout",
+            enabled ? "enabled" : "disabled", maxConcurrent, maxWaiting, queueTimeout);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // Event streams hold their request open for minutes without using Mongo
+        return !enabled || !uri.startsWith("/api/") || uri.startsWith("/api/events/") || uri.startsWith("/api/internal/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!permits.tryAcquire()) {
+            if (!acquireQueued()) {
+                rejected.increment();
+                LOGGER.warn("Rejected {} {}: admission queue full or timed out", request.getMethod(), request.getRequestURI());
+                response.setStatus(503);
+                response.setHeader("Retry-After", String.valueOf(Math.max(1, queueTimeout.toSeconds())));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Server is busy, please retry shortly."));
+                return;
+            }
+        } else {
+            queueTime.record(0, TimeUnit.NANOSECONDS);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquireQueued() {
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            return permits.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            queueTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int mongoPoolSize() {
+        if (mongoClientProperties.getPool().getMaxSize() != null) {
+            return mongoClientProperties.getPool().getMaxSize();
+        }
+        if (mongoUri == null || mongoUri.isBlank()) {
+            return DEFAULT_MONGO_POOL_SIZE;
+        }
+        Integer poolSize = new ConnectionString(mongoUri).getMaxConnectionPoolSize();
+        return poolSize == null || poolSize <= 0 ? DEFAULT_MONGO_POOL_SIZE : poolSize;
+    }
+}
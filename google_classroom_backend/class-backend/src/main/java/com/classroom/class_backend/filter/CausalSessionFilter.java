@@ -0,0 +1,145 @@
+package com.classroom.class_backend.filter;
+
+import com.classroom.class_backend.config.CausalSession;
+import com.classroom.class_backend.config.CollectionConcerns;
+import com.classroom.class_backend.config.MongoClientProperties;
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bson.BsonTimestamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Runs every API request in a causally consistent Mongo session and sends GET reads to the
+ * secondaries (classroom.mongo.read-routing). The session's operationTime goes back to the client
+ * in the X-Mongo-Operation-Time header and a cookie; when the next request brings it back, its
+ * reads wait on whichever member they land until that member has caught up, so a teacher who
+ * just posted sees the post even when the list comes from a secondary.
+ */
+@Component
+@Profile("!inmemory")
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class CausalSessionFilter extends OncePerRequestFilter {
+
+    public static final String OPERATION_TIME_HEADER = "X-Mongo-Operation-Time";
+
+    static final String OPERATION_TIME_COOKIE = "mongo-op-time";
+
+    // Past this, replication has long caught up and the client's time no longer matters
+    private static final Duration COOKIE_MAX_AGE = Duration.ofMinutes(10);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CausalSessionFilter.class);
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder().causallyConsistent(true).build();
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private MongoClientProperties mongoClientProperties;
+
+    private ReadPreference readPreference;
+
+    @PostConstruct
+    public void init() {
+        MongoClientProperties.ReadRouting routing = mongoClientProperties.getReadRouting();
+        readPreference = CollectionConcerns.readPreference(routing.getReadPreference(), routing.getMaxStaleness());
+        if (routing.isEnabled()) {
+            LOGGER.info("GET requests read with {} in causally consistent sessions", readPreference);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // Event streams outlive any session, and stream reads go through the reactive client
+        return !mongoClientProperties.getReadRouting().isEnabled() || !uri.startsWith("/api/")
+            || uri.startsWith("/api/events/") || uri.startsWith("/api/stream/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        try (ClientSession session = mongoClient.startSession(CAUSAL)) {
+            BsonTimestamp clientTime = clientOperationTime(request);
+            if (clientTime != null) {
+                session.advanceOperationTime(clientTime);
+            }
+            CausalSession.bind(new CausalSession(session, read ? readPreference : null));
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                CausalSession.clear();
+            }
+            // Bodies written through the message converters already got it from OperationTimeAdvice
+            String operationTime = operationTime(session);
+            if (operationTime != null && !response.isCommitted() && !response.containsHeader(OPERATION_TIME_HEADER)) {
+                response.setHeader(OPERATION_TIME_HEADER, operationTime);
+                response.addHeader(HttpHeaders.SET_COOKIE, operationTimeCookie(operationTime));
+            }
+        }
+    }
+
+    /** The session's operationTime as <seconds>.<increment>, or null before its first operation. */
+    public static String operationTime(ClientSession session) {
+        BsonTimestamp time = session.getOperationTime();
+        return time == null ? null : Integer.toUnsignedString(time.getTime()) + "." + Integer.toUnsignedString(time.getInc());
+    }
+
+    public static String operationTimeCookie(String operationTime) {
+        return ResponseCookie.from(OPERATION_TIME_COOKIE, operationTime)
+            .path("/api")
+            .httpOnly(true)
+            .sameSite("Lax")
+            .maxAge(COOKIE_MAX_AGE)
+            .build()
+            .toString();
+    }
+
+    private static BsonTimestamp clientOperationTime(HttpServletRequest request) {
+        BsonTimestamp latest = parse(request.getHeader(OPERATION_TIME_HEADER));
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                BsonTimestamp fromCookie = OPERATION_TIME_COOKIE.equals(cookie.getName()) ? parse(cookie.getValue()) : null;
+                if (fromCookie != null && (latest == null || fromCookie.compareTo(latest) > 0)) {
+                    latest = fromCookie;
+                }
+            }
+        }
+        return latest;
+    }
+
+    // As written by operationTime; anything else is ignored
+    private static BsonTimestamp parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        int dot = value.indexOf('.');
+        try {
+            return dot < 0 ? null : new BsonTimestamp(Integer.parseUnsignedInt(value.substring(0, dot)),
+                Integer.parseUnsignedInt(value.substring(dot + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.classroom.class_backend.filter;
+
+import com.classroom.class_backend.dto.ErrorResponse;
+import com.classroom.class_backend.model.IdempotencyRecord;
+import com.classroom.class_backend.service.IdempotencyStore;
+import com.classroom.class_backend.service.SessionClaims;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Replays the stored response for POST requests that repeat an Idempotency-Key,
+ * so client retries never reach the services twice. Keys are scoped to the signed-in
+ * user from SessionTokenFilter, so one user's key never replays another user's response.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The body is held in memory for the fingerprint and the replay
+    @Value("${classroom.idempotency.max-body-size:1MB}")
+    private DataSize maxBodySize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, 400, "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+
+        byte[] body = readBody(request, maxBodySize.toBytes());
+        if (body == null) {
+            writeError(response, 413, "Request body is too large.");
+            return;
+        }
+        String storeKey = request.getRequestURI() + '|' + caller(request) + '|' + key;
+        String fingerprint = fingerprint(body);
+
+        IdempotencyRecord existing = idempotencyStore.reserve(storeKey, fingerprint);
+        if (existing != null) {
+            if (!fingerprint.equals(existing.getFingerprint())) {
+                LOGGER.warn("Idempotency-Key {} reused with a different payload on {}", key, request.getRequestURI());
+                writeError(response, 422, "Idempotency-Key was already used with a different request body.");
+            } else if (existing.isInFlight()) {
+                LOGGER.info("Idempotency-Key {} is still in flight on {}", key, request.getRequestURI());
+                writeError(response, 409, "A request with this Idempotency-Key is still being processed.");
+            } else {
+                LOGGER.info("Replaying stored response for Idempotency-Key {} on {}", key, request.getRequestURI());
+                response.setStatus(existing.getStatus());
+                if (existing.getContentType() != null) {
+                    response.setContentType(existing.getContentType());
+                }
+                response.setHeader("Idempotent-Replayed", "true");
+                if (existing.getBody() != null) {
+                    response.getOutputStream().write(existing.getBody());
+                }
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+            int status = cachingResponse.getStatus();
+            // Server errors are left retryable
+            if (status < 500) {
+                idempotencyStore.complete(storeKey, status, cachingResponse.getContentType(),
+                        cachingResponse.getContentAsByteArray());
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyStore.release(storeKey);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    // The session user when there is a token; without one only the identical body can replay it
+    private static String caller(HttpServletRequest request) {
+        Object claims = request.getAttribute(SessionTokenFilter.CLAIMS);
+        return claims instanceof SessionClaims session ? session.userId() : "anonymous";
+    }
+
+    // Null when the body is longer than limit
+    private static byte[] readBody(HttpServletRequest request, long limit) throws IOException {
+        if (request.getContentLengthLong() > limit) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        InputStream in = request.getInputStream();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > limit) {
+                return null;
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.classroom.class_backend.filter;
+
+import com.classroom.class_backend.dto.ErrorResponse;
+import com.classroom.class_backend.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Per client address limits for login, forgot-password and join, checked ahead of admission
+ * control so a flood of guesses is turned away with 429 before it takes a permit or reads a body.
+ * The per account limits are checked by the controllers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final Map<String, String> POLICIES = Map.of(
+        "/api/auth/login", RateLimiter.LOGIN_IP,
+        "/api/auth/forgot-password", RateLimiter.FORGOT_PASSWORD_IP,
+        "/api/classes/join", RateLimiter.JOIN_IP);
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Only behind a proxy that overwrites X-Forwarded-For; otherwise clients pick their own key
+    @Value("${classroom.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !POLICIES.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String address = clientAddress(request);
+        long wait = rateLimiter.tryAcquire(POLICIES.get(request.getRequestURI()), address);
+        if (wait > 0) {
+            LOGGER.warn("Rate limited {} {} from {}", request.getMethod(), request.getRequestURI(), address);
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(RateLimiter.retryAfterSeconds(wait)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Too many requests, please retry later."));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String clientAddress(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,103 @@
+package com.classroom.class_backend.filter;
+
+import com.classroom.class_backend.dto.ErrorResponse;
+import com.classroom.class_backend.service.SessionClaims;
+import com.classroom.class_backend.service.SessionTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Verifies the session token in "Authorization: Bearer ..." and exposes its claims as the CLAIMS
+ * request attribute, so controllers take the caller's identity and role from the token instead of
+ * the userId the client sends. A bad or expired token is a 401. EventSource cannot set headers, so
+ * event streams may pass the token as the access_token query parameter instead.
+ *
+ * Requests without a token pass through unchanged, for clients that predate tokens, unless
+ * classroom.auth.require-token is set; then everything under /api/ except signing in, signing up
+ * and resetting a password needs one.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS = "com.classroom.class_backend.filter.SessionTokenFilter.claims";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionTokenFilter.class);
+
+    private static final String BEARER = "Bearer ";
+
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+        "/api/auth/login", "/api/auth/signup", "/api/auth/google-login", "/api/auth/google-signup",
+        "/api/auth/forgot-password", "/api/auth/reset-password");
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${classroom.auth.require-token:false}")
+    private boolean requireToken;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.startsWith("/api/internal/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = token(request);
+        if (token == null) {
+            if (requireToken && !PUBLIC_PATHS.contains(request.getRequestURI())) {
+                unauthorized(response, "Sign in required.");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        SessionClaims claims = sessionTokenService.verify(token);
+        if (claims == null) {
+            LOGGER.warn("Rejected {} {}: invalid or expired session token", request.getMethod(), request.getRequestURI());
+            unauthorized(response, "Session expired, please sign in again.");
+            return;
+        }
+        request.setAttribute(CLAIMS, claims);
+        chain.doFilter(request, response);
+    }
+
+    private static String token(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return authorization.substring(BEARER.length()).trim();
+        }
+        if (request.getRequestURI().startsWith("/api/events/")) {
+            return request.getParameter("access_token");
+        }
+        return null;
+    }
+
+    private void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(401);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+}
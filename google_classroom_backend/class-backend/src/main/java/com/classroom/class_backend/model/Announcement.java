@@ -3,6 +3,7 @@ package com.classroom.class_backend.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import javax.validation.constraints.NotEmpty;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "announcements")
+@Sharded(shardKey = {"classId", "_id"}, immutableKey = true)
 public class Announcement {
 
     @Id
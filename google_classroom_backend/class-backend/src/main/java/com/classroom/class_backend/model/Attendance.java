@@ -3,12 +3,14 @@ package com.classroom.class_backend.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 
 @Data
 @Document(collection = "attendance")
+@Sharded(shardKey = {"classId", "date"}, immutableKey = true)
 public class Attendance {
 
     @Id
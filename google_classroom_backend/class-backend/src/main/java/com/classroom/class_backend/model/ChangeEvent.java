@@ -0,0 +1,43 @@
+package com.classroom.class_backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "change_events")
+public class ChangeEvent {
+
+    @Id
+    private String id;
+
+    // "class:<classId>" or "user:<userId>"
+    private String scopeKey;
+
+    private long seq;
+
+    private String entityType;
+
+    private String entityId;
+
+    private String action;
+
+    private String classId;
+
+    private LocalDateTime occurredAt;
+
+    public ChangeEvent() {}
+
+    public ChangeEvent(String scopeKey, long seq, String entityType, String entityId, String action, String classId, LocalDateTime occurredAt) {
+        this.id = scopeKey + ":" + seq;
+        this.scopeKey = scopeKey;
+        this.seq = seq;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.classId = classId;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,22 @@
+package com.classroom.class_backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Document(collection = "change_sequences")
+public class ChangeSequence {
+
+    @Id
+    private String id;
+
+    private long seq;
+
+    public ChangeSequence() {}
+
+    public ChangeSequence(String id, long seq) {
+        this.id = id;
+        this.seq = seq;
+    }
+}
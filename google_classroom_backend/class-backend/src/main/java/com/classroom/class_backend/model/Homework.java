@@ -3,6 +3,7 @@ package com.classroom.class_backend.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "homework")
+@Sharded(shardKey = {"classId", "_id"}, immutableKey = true)
 public class Homework {
 
     @Id
@@ -3,11 +3,13 @@ package com.classroom.class_backend.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 
 import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "homework_submissions")
+@Sharded(shardKey = {"classId", "_id"}, immutableKey = true)
 public class HomeworkSubmission {
 
     @Id
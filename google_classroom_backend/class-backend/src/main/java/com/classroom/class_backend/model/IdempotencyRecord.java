@@ -0,0 +1,47 @@
+package com.classroom.class_backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String id;
+
+    private String fingerprint;
+
+    // 0 while the original request is still being processed
+    private int status;
+
+    private String contentType;
+
+    private byte[] body;
+
+    // An Instant, so the TTL index sees the real time whatever the JVM's zone
+    private Instant createdAt;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String id, String fingerprint, Instant createdAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+    }
+
+    public IdempotencyRecord completed(int status, String contentType, byte[] body) {
+        IdempotencyRecord completed = new IdempotencyRecord(id, fingerprint, createdAt);
+        completed.setStatus(status);
+        completed.setContentType(contentType);
+        completed.setBody(body);
+        return completed;
+    }
+
+    public boolean isInFlight() {
+        return status == 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.classroom.class_backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A named lease that at most one instance holds at a time. fencingToken goes up by one every time
+ * the lease changes hands, so work done under an older token can be recognised as stale.
+ * expiresAt is in the database server's clock. completedToken is the fencing token of the last run
+ * of a {@code LeaderOnly(once = true)} job that finished.
+ */
+@Data
+@Document(collection = "leases")
+public class Lease {
+
+    @Id
+    private String id;
+
+    private String owner;
+
+    private long fencingToken;
+
+    private Date expiresAt;
+
+    private Long completedToken;
+
+    public Lease() {}
+
+    public Lease(String id, String owner, long fencingToken, Date expiresAt) {
+        this.id = id;
+        this.owner = owner;
+        this.fencingToken = fencingToken;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 @Document(collection = "password_reset_tokens")
 public class PasswordResetToken {
 
+    // The email, so each user has at most one token (older documents have generated ids)
     @Id
     private String id;
 
@@ -0,0 +1,31 @@
+package com.classroom.class_backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Where a change stream consumer got to, so it can resume after a restart. The id names the
+ * consumer (one per backend instance); tokenData is the _data field of the stream's resume token.
+ */
+@Data
+@Document(collection = "change_stream_resume_tokens")
+public class ResumeToken {
+
+    @Id
+    private String id;
+
+    private String tokenData;
+
+    private Instant updatedAt;
+
+    public ResumeToken() {}
+
+    public ResumeToken(String id, String tokenData, Instant updatedAt) {
+        this.id = id;
+        this.tokenData = tokenData;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -3,9 +3,11 @@ package com.classroom.class_backend.model;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 
 @Data
 @Document(collection = "user")
+@Sharded(shardKey = "_id", immutableKey = true)
 public class User {
 
     @Id
@@ -5,8 +5,14 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AnnouncementRepository extends MongoRepository<Announcement, String> {
     List<Announcement> findByClassId(String classId);
+
+    // By id alone is sent to every shard; with the shard key it goes to the one owning the class
+    Optional<Announcement> findByIdAndClassId(String id, String classId);
+
+    void deleteByIdAndClassId(String id, String classId);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.classroom.class_backend.repository;
+
+import com.classroom.class_backend.model.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ChangeEventRepository extends MongoRepository<ChangeEvent, String> {
+    List<ChangeEvent> findByScopeKeyAndSeqGreaterThanOrderBySeqAsc(String scopeKey, long seq, Pageable pageable);
+}
@@ -0,0 +1,7 @@
+package com.classroom.class_backend.repository;
+
+import com.classroom.class_backend.model.ChangeSequence;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ChangeSequenceRepository extends MongoRepository<ChangeSequence, String>, ChangeSequenceRepositoryCustom {
+}
@@ -0,0 +1,6 @@
+package com.classroom.class_backend.repository;
+
+public interface ChangeSequenceRepositoryCustom {
+    // Atomically increments and returns the sequence for the scope, starting at 1
+    long nextSequence(String scopeKey);
+}
@@ -0,0 +1,25 @@
+package com.classroom.class_backend.repository;
+
+import com.classroom.class_backend.model.ChangeSequence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class ChangeSequenceRepositoryImpl implements ChangeSequenceRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public long nextSequence(String scopeKey) {
+        ChangeSequence sequence = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(scopeKey)),
+            new Update().inc("seq", 1),
+            FindAndModifyOptions.options().returnNew(true).upsert(true),
+            ChangeSequence.class);
+        return sequence.getSeq();
+    }
+}
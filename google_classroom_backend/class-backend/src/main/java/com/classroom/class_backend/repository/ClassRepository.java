@@ -2,12 +2,18 @@ package com.classroom.class_backend.repository;
 
 import com.classroom.class_backend.model.Class;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClassRepository extends MongoRepository<Class, String> {
     boolean existsByClassId(String classId);
     boolean existsByClassCode(String classCode);
     List<Class> findByUserId(String userId);
     Optional<Class> findByClassCode(String classCode);
+
+    // Only _id and classCode are populated; the caller must close the stream
+    @Query(value = "{}", fields = "{ 'classCode': 1 }")
+    Stream<Class> streamAllClassCodes();
 }
\ No newline at end of file
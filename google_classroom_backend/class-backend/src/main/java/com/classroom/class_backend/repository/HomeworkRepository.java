@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HomeworkRepository extends MongoRepository<Homework, String> {
@@ -15,10 +16,16 @@ public interface HomeworkRepository extends MongoRepository<Homework, String> {
     List<Homework> findByClassId(String classId);
 
     // Find homework due after a specific date
+    // Not used by the API; without a classId it is sent to every shard
     @Query("{ 'dueDate': { $gt: ?0 } }")
     List<Homework> findByDueDateAfter(LocalDateTime date);
 
     // Find homework by classId and due date range
     @Query("{ 'classId': ?0, 'dueDate': { $gte: ?1, $lte: ?2 } }")
     List<Homework> findByClassIdAndDueDateBetween(String classId, LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+
+    // By id alone is sent to every shard; with the shard key it goes to the one owning the class
+    Optional<Homework> findByIdAndClassId(String id, String classId);
+
+    void deleteByIdAndClassId(String id, String classId);
+}
@@ -10,6 +10,6 @@ import java.util.List;
 public interface HomeworkSubmissionRepository extends MongoRepository<HomeworkSubmission, String> {
     List<HomeworkSubmission> findByClassId(String classId);
     List<HomeworkSubmission> findByClassIdAndUserId(String classId, String userId);
-    boolean existsByHomeworkIdAndUserId(String homeworkId, String userId);
+    boolean existsByClassIdAndHomeworkIdAndUserId(String classId, String homeworkId, String userId);
     void deleteByClassId(String classId);
 } 
\ No newline at end of file
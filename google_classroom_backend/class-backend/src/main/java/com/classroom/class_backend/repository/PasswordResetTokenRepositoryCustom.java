@@ -0,0 +1,18 @@
+package com.classroom.class_backend.repository;
+
+import com.classroom.class_backend.model.PasswordResetToken;
+
+import java.time.LocalDateTime;
+
+public interface PasswordResetTokenRepositoryCustom {
+    // Replaces any token issued to the email with this one, in one upsert keyed by the email
+    void upsertForEmail(String email, String token, LocalDateTime expiryDate);
+
+    // Atomically removes and returns the token if it expires after now, so it can be used once;
+    // null when it is gone or expired. The TTL index removes expired tokens within a minute or so,
+    // the expiry bound covers that gap.
+    PasswordResetToken consume(String token, LocalDateTime now);
+
+    // Puts a consumed token back, unless another token was issued to its email since
+    void restore(PasswordResetToken resetToken);
+}
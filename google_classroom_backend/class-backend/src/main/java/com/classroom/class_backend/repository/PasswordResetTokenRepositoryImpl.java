@@ -0,0 +1,40 @@
+package com.classroom.class_backend.repository;
+
+import com.classroom.class_backend.model.PasswordResetToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+public class PasswordResetTokenRepositoryImpl implements PasswordResetTokenRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void upsertForEmail(String email, String token, LocalDateTime expiryDate) {
+        mongoTemplate.upsert(
+            new Query(Criteria.where("_id").is(email)),
+            new Update().set("token", token).set("email", email).set("expiryDate", expiryDate),
+            PasswordResetToken.class);
+    }
+
+    @Override
+    public PasswordResetToken consume(String token, LocalDateTime now) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("token").is(token).and("expiryDate").gt(now)),
+            PasswordResetToken.class);
+    }
+
+    @Override
+    public void restore(PasswordResetToken resetToken) {
+        try {
+            mongoTemplate.insert(resetToken);
+        } catch (DuplicateKeyException e) {
+            // A newer token for the email replaced it in the meantime
+        }
+    }
+}
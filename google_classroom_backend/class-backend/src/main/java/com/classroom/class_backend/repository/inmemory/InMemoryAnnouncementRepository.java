@@ -0,0 +1,37 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.Announcement;
+import com.classroom.class_backend.repository.AnnouncementRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryAnnouncementRepository extends InMemoryMongoRepository<Announcement> implements AnnouncementRepository {
+
+    private final HashIndex byClassId = index(Announcement::getClassId);
+
+    public InMemoryAnnouncementRepository() {
+        super(Announcement.class);
+    }
+
+    @Override
+    public List<Announcement> findByClassId(String classId) {
+        return byClassId.find(classId);
+    }
+
+    @Override
+    public Optional<Announcement> findByIdAndClassId(String id, String classId) {
+        return findById(id).filter(announcement -> classId.equals(announcement.getClassId()));
+    }
+
+    @Override
+    public void deleteByIdAndClassId(String id, String classId) {
+        findByIdAndClassId(id, classId).ifPresent(this::delete);
+    }
+}
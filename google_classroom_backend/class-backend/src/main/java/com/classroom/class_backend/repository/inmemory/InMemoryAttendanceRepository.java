@@ -0,0 +1,45 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.Attendance;
+import com.classroom.class_backend.repository.AttendanceRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryAttendanceRepository extends InMemoryMongoRepository<Attendance> implements AttendanceRepository {
+
+    // The {classId, date} compound index from MongoConfig, plus its classId prefix
+    private final HashIndex byClassIdAndDate = index(attendance -> key(attendance.getClassId(), attendance.getDate()));
+
+    private final HashIndex byClassId = index(Attendance::getClassId);
+
+    public InMemoryAttendanceRepository() {
+        super(Attendance.class);
+    }
+
+    @Override
+    public List<Attendance> findByClassIdAndDate(String classId, String date) {
+        return byClassIdAndDate.find(key(classId, date));
+    }
+
+    @Override
+    public void deleteByClassId(String classId) {
+        deleteWhere(byClassId.find(classId));
+    }
+
+    // Dates are ISO yyyy-MM-dd strings, so string order is date order as in the Mongo query
+    @Override
+    public List<Attendance> findByClassIdAndDateRange(String classId, String startDate, String endDate) {
+        return byClassId.find(classId).stream()
+            .filter(attendance -> attendance.getDate() != null
+                && attendance.getDate().compareTo(startDate) >= 0
+                && attendance.getDate().compareTo(endDate) <= 0)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,36 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.ChangeEvent;
+import com.classroom.class_backend.repository.ChangeEventRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryChangeEventRepository extends InMemoryMongoRepository<ChangeEvent> implements ChangeEventRepository {
+
+    // The unique {scopeKey, seq} index from MongoConfig, plus its scopeKey prefix for range reads
+    private final HashIndex byScopeKeyAndSeq = uniqueIndex(event -> key(event.getScopeKey(), event.getSeq()));
+
+    private final HashIndex byScopeKey = index(ChangeEvent::getScopeKey);
+
+    public InMemoryChangeEventRepository() {
+        super(ChangeEvent.class);
+    }
+
+    @Override
+    public List<ChangeEvent> findByScopeKeyAndSeqGreaterThanOrderBySeqAsc(String scopeKey, long seq, Pageable pageable) {
+        return byScopeKey.find(scopeKey).stream()
+            .filter(event -> event.getSeq() > seq)
+            .sorted(Comparator.comparingLong(ChangeEvent::getSeq))
+            .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,22 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.ChangeSequence;
+import com.classroom.class_backend.repository.ChangeSequenceRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryChangeSequenceRepository extends InMemoryMongoRepository<ChangeSequence> implements ChangeSequenceRepository {
+
+    public InMemoryChangeSequenceRepository() {
+        super(ChangeSequence.class);
+    }
+
+    @Override
+    public long nextSequence(String scopeKey) {
+        return compute(scopeKey, current -> new ChangeSequence(scopeKey, current == null ? 1 : current.getSeq() + 1)).getSeq();
+    }
+}
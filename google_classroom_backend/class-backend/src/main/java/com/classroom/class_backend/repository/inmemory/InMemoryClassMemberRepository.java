@@ -0,0 +1,50 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.repository.ClassMemberRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryClassMemberRepository extends InMemoryMongoRepository<ClassMember> implements ClassMemberRepository {
+
+    private final HashIndex byClassId = index(ClassMember::getClassId);
+
+    private final HashIndex byUserId = index(ClassMember::getUserId);
+
+    private final HashIndex byClassIdAndUserId = index(member -> key(member.getClassId(), member.getUserId()));
+
+    public InMemoryClassMemberRepository() {
+        super(ClassMember.class);
+    }
+
+    @Override
+    public List<ClassMember> findByUserId(String userId) {
+        return byUserId.find(userId);
+    }
+
+    @Override
+    public List<ClassMember> findByClassId(String classId) {
+        return byClassId.find(classId);
+    }
+
+    @Override
+    public boolean existsByClassIdAndUserId(String classId, String userId) {
+        return byClassIdAndUserId.exists(key(classId, userId));
+    }
+
+    @Override
+    public void deleteByClassId(String classId) {
+        deleteWhere(byClassId.find(classId));
+    }
+
+    @Override
+    public void deleteByClassIdAndUserId(String classId, String userId) {
+        deleteWhere(byClassIdAndUserId.find(key(classId, userId)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.repository.ClassRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryClassRepository extends InMemoryMongoRepository<Class> implements ClassRepository {
+
+    // Same indexes as MongoConfig creates on "classes"
+    private final HashIndex byUserId = index(Class::getUserId);
+
+    private final HashIndex byClassCode = uniqueIndex(Class::getClassCode);
+
+    public InMemoryClassRepository() {
+        super(Class.class);
+    }
+
+    @Override
+    public boolean existsByClassId(String classId) {
+        return existsById(classId);
+    }
+
+    @Override
+    public boolean existsByClassCode(String classCode) {
+        return byClassCode.exists(classCode);
+    }
+
+    @Override
+    public List<Class> findByUserId(String userId) {
+        return byUserId.find(userId);
+    }
+
+    @Override
+    public Optional<Class> findByClassCode(String classCode) {
+        return byClassCode.findOne(classCode);
+    }
+
+    @Override
+    public Stream<Class> streamAllClassCodes() {
+        return findAll().stream();
+    }
+}
@@ -0,0 +1,54 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.repository.HomeworkRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryHomeworkRepository extends InMemoryMongoRepository<Homework> implements HomeworkRepository {
+
+    private final HashIndex byClassId = index(Homework::getClassId);
+
+    public InMemoryHomeworkRepository() {
+        super(Homework.class);
+    }
+
+    @Override
+    public List<Homework> findByClassId(String classId) {
+        return byClassId.find(classId);
+    }
+
+    // Unindexed in Mongo as well
+    @Override
+    public List<Homework> findByDueDateAfter(LocalDateTime date) {
+        return scan(homework -> homework.getDueDate() != null && homework.getDueDate().isAfter(date));
+    }
+
+    @Override
+    public List<Homework> findByClassIdAndDueDateBetween(String classId, LocalDateTime start, LocalDateTime end) {
+        return byClassId.find(classId).stream()
+            .filter(homework -> homework.getDueDate() != null
+                && !homework.getDueDate().isBefore(start)
+                && !homework.getDueDate().isAfter(end))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Homework> findByIdAndClassId(String id, String classId) {
+        return findById(id).filter(homework -> classId.equals(homework.getClassId()));
+    }
+
+    @Override
+    public void deleteByIdAndClassId(String id, String classId) {
+        findByIdAndClassId(id, classId).ifPresent(this::delete);
+    }
+}
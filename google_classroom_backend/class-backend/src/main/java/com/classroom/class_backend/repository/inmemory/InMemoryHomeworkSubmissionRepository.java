@@ -0,0 +1,46 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.repository.HomeworkSubmissionRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryHomeworkSubmissionRepository extends InMemoryMongoRepository<HomeworkSubmission> implements HomeworkSubmissionRepository {
+
+    private final HashIndex byClassId = index(HomeworkSubmission::getClassId);
+
+    private final HashIndex byClassIdAndUserId = index(submission -> key(submission.getClassId(), submission.getUserId()));
+
+    private final HashIndex byClassIdHomeworkIdAndUserId = index(submission ->
+        key(submission.getClassId(), submission.getHomeworkId(), submission.getUserId()));
+
+    public InMemoryHomeworkSubmissionRepository() {
+        super(HomeworkSubmission.class);
+    }
+
+    @Override
+    public List<HomeworkSubmission> findByClassId(String classId) {
+        return byClassId.find(classId);
+    }
+
+    @Override
+    public List<HomeworkSubmission> findByClassIdAndUserId(String classId, String userId) {
+        return byClassIdAndUserId.find(key(classId, userId));
+    }
+
+    @Override
+    public boolean existsByClassIdAndHomeworkIdAndUserId(String classId, String homeworkId, String userId) {
+        return byClassIdHomeworkIdAndUserId.exists(key(classId, homeworkId, userId));
+    }
+
+    @Override
+    public void deleteByClassId(String classId) {
+        deleteWhere(byClassId.find(classId));
+    }
+}
@@ -0,0 +1,537 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Base for the repositories of the "inmemory" profile: entities in a ConcurrentHashMap keyed by
+ * their @Id, plus hash indexes declared by each subclass for the fields its queries filter on.
+ *
+ * <p>Reads are lock-free. Writes are serialized per repository so the map and its indexes change
+ * together; unique indexes reject duplicates with DuplicateKeyException as Mongo does. Entities
+ * are stored by reference, so as with Mongo a changed entity has to be saved again. Query results
+ * are fresh mutable lists, as the services sort some of them in place. Query by example matches
+ * the probe's top-level properties by scanning every entity.
+ */
+public abstract class InMemoryMongoRepository<T> implements MongoRepository<T, String> {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final Map<String, T> store = new ConcurrentHashMap<>();
+
+    private final List<HashIndex> indexes = new ArrayList<>();
+
+    private final Field idField;
+
+    protected InMemoryMongoRepository(java.lang.Class<T> entityType) {
+        this.idField = Arrays.stream(entityType.getDeclaredFields())
+            .filter(field -> field.isAnnotationPresent(Id.class))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(entityType.getName() + " has no @Id field"));
+        this.idField.setAccessible(true);
+    }
+
+    protected HashIndex index(Function<T, Object> key) {
+        HashIndex index = new HashIndex(key, false);
+        indexes.add(index);
+        return index;
+    }
+
+    protected HashIndex uniqueIndex(Function<T, Object> key) {
+        HashIndex index = new HashIndex(key, true);
+        indexes.add(index);
+        return index;
+    }
+
+    // Compound index key; unlike List.of it tolerates null fields
+    protected static Object key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    protected List<T> scan(Predicate<T> filter) {
+        return store.values().stream().filter(filter).collect(Collectors.toList());
+    }
+
+    protected synchronized void deleteWhere(List<T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    // Atomic read-modify-write of a single entity, for the findAndModify-style custom methods
+    protected synchronized T compute(String id, Function<T, T> update) {
+        T previous = store.get(id);
+        T updated = update.apply(previous);
+        if (previous != null) {
+            indexes.forEach(index -> index.remove(id));
+        }
+        checkUnique(id, updated);
+        store.put(id, updated);
+        indexes.forEach(index -> index.add(id, updated));
+        return updated;
+    }
+
+    @Override
+    public synchronized <S extends T> S save(S entity) {
+        String id = idOf(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            setId(entity, id);
+        }
+        checkUnique(id, entity);
+        if (store.containsKey(id)) {
+            String existing = id;
+            indexes.forEach(index -> index.remove(existing));
+        }
+        store.put(id, entity);
+        String saved = id;
+        indexes.forEach(index -> index.add(saved, entity));
+        return entity;
+    }
+
+    @Override
+    public synchronized <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public synchronized <S extends T> S insert(S entity) {
+        String id = idOf(entity);
+        if (id != null && store.containsKey(id)) {
+            throw new DuplicateKeyException("Duplicate _id " + id);
+        }
+        return save(entity);
+    }
+
+    @Override
+    public synchronized <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return new ArrayList<>(store.values());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        for (String id : ids) {
+            T entity = store.get(id);
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        List<T> all = findAll();
+        all.sort(comparator(sort));
+        return all;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> all = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public synchronized void deleteById(String id) {
+        if (store.remove(id) != null) {
+            indexes.forEach(index -> index.remove(id));
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        String id = idOf(entity);
+        if (id != null) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public synchronized void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public synchronized void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        store.clear();
+        indexes.forEach(HashIndex::clear);
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> found = findAll(example);
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return new ExampleQuery<>(example, Sort.unsorted(), Integer.MAX_VALUE, example.getProbeType()).all();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return new ExampleQuery<>(example, sort, Integer.MAX_VALUE, example.getProbeType()).all();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return new ExampleQuery<>(example, Sort.unsorted(), Integer.MAX_VALUE, example.getProbeType()).page(pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return !findAll(example).isEmpty();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(example, Sort.unsorted(), Integer.MAX_VALUE, example.getProbeType()));
+    }
+
+    private void checkUnique(String id, T entity) {
+        for (HashIndex index : indexes) {
+            if (index.unique) {
+                Object key = index.key.apply(entity);
+                for (String other : index.ids(key)) {
+                    if (!other.equals(id)) {
+                        throw new DuplicateKeyException("Duplicate key " + key + " (conflicts with _id " + other + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    private String idOf(T entity) {
+        try {
+            Object id = idField.get(entity);
+            return id == null ? null : id.toString();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void setId(T entity, String id) {
+        try {
+            idField.set(entity, id);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                entity -> (Comparable) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    // Top-level properties of the probe, matched as Mongo's query by example matches them
+    @SuppressWarnings("unchecked")
+    private static <S> List<S> matching(Collection<?> entities, Example<S> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+        BeanWrapperImpl probe = new BeanWrapperImpl(example.getProbe());
+        List<Predicate<Object>> conditions = new ArrayList<>();
+        for (PropertyDescriptor property : probe.getPropertyDescriptors()) {
+            String path = property.getName();
+            if (property.getReadMethod() == null || "class".equals(path) || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object expected = accessor.getValueTransformerForPath(path)
+                .apply(Optional.ofNullable(probe.getPropertyValue(path))).orElse(null);
+            if (expected == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            conditions.add(entity -> matches(accessor, path, expected, new BeanWrapperImpl(entity).getPropertyValue(path)));
+        }
+        Predicate<Object> all = entity -> conditions.stream().allMatch(condition -> condition.test(entity));
+        Predicate<Object> any = entity -> conditions.isEmpty() || conditions.stream().anyMatch(condition -> condition.test(entity));
+        Predicate<Object> filter = matcher.isAllMatching() ? all : any;
+        return entities.stream()
+            .filter(entity -> example.getProbeType().isInstance(entity) && filter.test(entity))
+            .map(entity -> (S) entity)
+            .collect(Collectors.toList());
+    }
+
+    private static boolean matches(ExampleMatcherAccessor accessor, String path, Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (!(expected instanceof String pattern) || !(actual instanceof String value)) {
+            return expected.equals(actual);
+        }
+        boolean ignoreCase = accessor.isIgnoreCaseForPath(path);
+        ExampleMatcher.StringMatcher stringMatcher = accessor.getStringMatcherForPath(path);
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0)
+                .matcher(value).find();
+        }
+        if (ignoreCase) {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (stringMatcher) {
+            case STARTING -> value.startsWith(pattern);
+            case ENDING -> value.endsWith(pattern);
+            case CONTAINING -> value.contains(pattern);
+            default -> value.equals(pattern);
+        };
+    }
+
+    /** The fluent query behind findBy(Example, ...); projections to interfaces go through a ProjectionFactory. */
+    private final class ExampleQuery<S extends T, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+        private final Example<S> example;
+
+        private final Sort sort;
+
+        private final int limit;
+
+        private final java.lang.Class<R> resultType;
+
+        ExampleQuery(Example<S> example, Sort sort, int limit, java.lang.Class<R> resultType) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), limit, resultType);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            return new ExampleQuery<>(example, sort, limit, resultType);
+        }
+
+        @Override
+        public <P> FluentQuery.FetchableFluentQuery<P> as(java.lang.Class<P> resultType) {
+            if (!resultType.isInterface() && !resultType.isAssignableFrom(example.getProbeType())) {
+                throw new IllegalArgumentException("Cannot project " + example.getProbeType().getName() + " to " + resultType.getName());
+            }
+            return new ExampleQuery<>(example, sort, limit, resultType);
+        }
+
+        // Whole entities are returned; a projection only promises at least the listed fields
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> found = all();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            List<R> found = limit(1).all();
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public List<R> all() {
+            List<S> found = matching(store.values(), example);
+            found.sort(comparator(sort));
+            return found.stream().limit(limit).map(this::project).collect(Collectors.toList());
+        }
+
+        @Override
+        public Window<R> scroll(ScrollPosition position) {
+            if (!(position instanceof OffsetScrollPosition offset)) {
+                throw new IllegalArgumentException("Only offset scrolling is supported by the in-memory repositories");
+            }
+            List<R> found = all();
+            int from = (int) Math.min(offset.isInitial() ? 0 : offset.getOffset() + 1, found.size());
+            int to = limit == Integer.MAX_VALUE ? found.size() : Math.min(from + limit, found.size());
+            return Window.from(found.subList(from, to), index -> ScrollPosition.offset(from + index), to < found.size());
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            List<R> found = all();
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(found);
+            }
+            int from = (int) Math.min(pageable.getOffset(), found.size());
+            int to = Math.min(from + pageable.getPageSize(), found.size());
+            return new PageImpl<>(found.subList(from, to), pageable, found.size());
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return all().size();
+        }
+
+        @Override
+        public boolean exists() {
+            return !limit(1).all().isEmpty();
+        }
+
+        private R project(S entity) {
+            return resultType.isInstance(entity) ? resultType.cast(entity) : PROJECTIONS.createProjection(resultType, entity);
+        }
+    }
+
+    /**
+     * Equality index from a key (single field or {@link #key compound}) to entity ids. The key an
+     * entity was indexed under is remembered, so in-place changes followed by save re-index correctly.
+     */
+    protected final class HashIndex {
+
+        private final Function<T, Object> key;
+
+        private final boolean unique;
+
+        private final Map<Object, Set<String>> idsByKey = new ConcurrentHashMap<>();
+
+        private final Map<String, Object> keyById = new ConcurrentHashMap<>();
+
+        private HashIndex(Function<T, Object> key, boolean unique) {
+            this.key = key;
+            this.unique = unique;
+        }
+
+        public List<T> find(Object value) {
+            List<T> found = new ArrayList<>();
+            for (String id : ids(value)) {
+                T entity = store.get(id);
+                if (entity != null) {
+                    found.add(entity);
+                }
+            }
+            return found;
+        }
+
+        public Optional<T> findOne(Object value) {
+            List<T> found = find(value);
+            return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+        }
+
+        public boolean exists(Object value) {
+            return !ids(value).isEmpty();
+        }
+
+        private Set<String> ids(Object value) {
+            return idsByKey.getOrDefault(value == null ? NullKey.INSTANCE : value, Set.of());
+        }
+
+        private void add(String id, T entity) {
+            Object value = key.apply(entity);
+            Object indexed = value == null ? NullKey.INSTANCE : value;
+            idsByKey.computeIfAbsent(indexed, k -> ConcurrentHashMap.newKeySet()).add(id);
+            keyById.put(id, indexed);
+        }
+
+        private void remove(String id) {
+            Object indexed = keyById.remove(id);
+            if (indexed != null) {
+                idsByKey.computeIfPresent(indexed, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        private void clear() {
+            idsByKey.clear();
+            keyById.clear();
+        }
+    }
+
+    // ConcurrentHashMap keys cannot be null; documents missing a field are indexed under this
+    private enum NullKey { INSTANCE }
+}
@@ -0,0 +1,46 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.PasswordResetToken;
+import com.classroom.class_backend.repository.PasswordResetTokenRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryPasswordResetTokenRepository extends InMemoryMongoRepository<PasswordResetToken> implements PasswordResetTokenRepository {
+
+    private final HashIndex byToken = uniqueIndex(PasswordResetToken::getToken);
+
+    public InMemoryPasswordResetTokenRepository() {
+        super(PasswordResetToken.class);
+    }
+
+    @Override
+    public void upsertForEmail(String email, String token, LocalDateTime expiryDate) {
+        compute(email, current -> {
+            PasswordResetToken resetToken = new PasswordResetToken(token, email, expiryDate);
+            resetToken.setId(email);
+            return resetToken;
+        });
+    }
+
+    // No TTL monitor here, so expired tokens stay until consumed or replaced
+    @Override
+    public synchronized PasswordResetToken consume(String token, LocalDateTime now) {
+        PasswordResetToken resetToken = byToken.findOne(token)
+            .filter(found -> found.getExpiryDate().isAfter(now)).orElse(null);
+        if (resetToken != null) {
+            deleteById(resetToken.getId());
+        }
+        return resetToken;
+    }
+
+    @Override
+    public void restore(PasswordResetToken resetToken) {
+        compute(resetToken.getId(), current -> current == null ? resetToken : current);
+    }
+}
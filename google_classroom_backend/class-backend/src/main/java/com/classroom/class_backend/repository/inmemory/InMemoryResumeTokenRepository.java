@@ -0,0 +1,17 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.ResumeToken;
+import com.classroom.class_backend.repository.ResumeTokenRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryResumeTokenRepository extends InMemoryMongoRepository<ResumeToken> implements ResumeTokenRepository {
+
+    public InMemoryResumeTokenRepository() {
+        super(ResumeToken.class);
+    }
+}
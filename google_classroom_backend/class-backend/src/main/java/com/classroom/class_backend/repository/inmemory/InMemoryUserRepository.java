@@ -0,0 +1,40 @@
+package com.classroom.class_backend.repository.inmemory;
+
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.repository.UserRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryUserRepository extends InMemoryMongoRepository<User> implements UserRepository {
+
+    private final HashIndex byEmail = index(User::getEmail);
+
+    public InMemoryUserRepository() {
+        super(User.class);
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        return byEmail.findOne(email).orElse(null);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return byEmail.exists(email);
+    }
+
+    @Override
+    public List<User> findByIdInAndRole(List<String> ids, String role) {
+        return findAllById(ids).stream()
+            .filter(user -> Objects.equals(user.getRole(), role))
+            .collect(Collectors.toList());
+    }
+}
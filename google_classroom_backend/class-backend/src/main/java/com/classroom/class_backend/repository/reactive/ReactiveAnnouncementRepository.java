@@ -0,0 +1,9 @@
+package com.classroom.class_backend.repository.reactive;
+
+import com.classroom.class_backend.model.Announcement;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveAnnouncementRepository extends ReactiveMongoRepository<Announcement, String> {
+    Flux<Announcement> findByClassId(String classId);
+}
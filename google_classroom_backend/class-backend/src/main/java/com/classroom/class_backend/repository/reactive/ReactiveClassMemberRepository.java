@@ -0,0 +1,9 @@
+package com.classroom.class_backend.repository.reactive;
+
+import com.classroom.class_backend.model.ClassMember;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveClassMemberRepository extends ReactiveMongoRepository<ClassMember, String> {
+    Flux<ClassMember> findByClassId(String classId);
+}
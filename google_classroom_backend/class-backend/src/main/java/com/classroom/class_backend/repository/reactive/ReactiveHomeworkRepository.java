@@ -0,0 +1,9 @@
+package com.classroom.class_backend.repository.reactive;
+
+import com.classroom.class_backend.model.Homework;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveHomeworkRepository extends ReactiveMongoRepository<Homework, String> {
+    Flux<Homework> findByClassId(String classId);
+}
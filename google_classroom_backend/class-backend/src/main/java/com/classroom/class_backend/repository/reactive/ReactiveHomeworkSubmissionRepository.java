@@ -0,0 +1,9 @@
+package com.classroom.class_backend.repository.reactive;
+
+import com.classroom.class_backend.model.HomeworkSubmission;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveHomeworkSubmissionRepository extends ReactiveMongoRepository<HomeworkSubmission, String> {
+    Flux<HomeworkSubmission> findByClassId(String classId);
+}
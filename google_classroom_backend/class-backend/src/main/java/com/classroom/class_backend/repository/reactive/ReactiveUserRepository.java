@@ -0,0 +1,13 @@
+package com.classroom.class_backend.repository.reactive;
+
+import com.classroom.class_backend.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    // Sorted by Mongo so the roster can stream without being collected and sorted in memory
+    Flux<User> findByIdInAndRole(Collection<String> ids, String role, Sort sort);
+}
@@ -2,6 +2,7 @@ package com.classroom.class_backend.service;
 
 import com.classroom.class_backend.model.Announcement;
 import com.classroom.class_backend.repository.AnnouncementRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,9 +11,11 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@Observed(name = "classroom.service")
 public class AnnouncementService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AnnouncementService.class);
@@ -20,6 +23,15 @@ public class AnnouncementService {
     @Autowired
     private AnnouncementRepository announcementRepository;
 
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private ClassEventHub classEventHub;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     public Announcement createAnnouncement(Announcement announcement) {
         LOGGER.info("Creating announcement for classId: {}", announcement.getClassId());
         if (announcement.getId() == null || announcement.getId().isEmpty()) {
@@ -30,34 +42,50 @@ public class AnnouncementService {
         }
 
         Announcement savedAnnouncement = announcementRepository.save(announcement);
+        singleFlight.forget("announcements.byClassId", savedAnnouncement.getClassId());
         LOGGER.info("Announcement created successfully with ID: {}. Details: classId={}, title={}, description={}, createdAt={}, createdBy={}",
                 savedAnnouncement.getId(), savedAnnouncement.getClassId(), savedAnnouncement.getTitle(),
                 savedAnnouncement.getDescription(), savedAnnouncement.getCreatedAt(), savedAnnouncement.getCreatedBy());
+        changeLogService.recordClassChange(savedAnnouncement.getClassId(), ChangeLogService.ANNOUNCEMENT,
+                savedAnnouncement.getId(), ChangeLogService.CREATED);
+        classEventHub.publish(savedAnnouncement.getClassId(), "announcement", savedAnnouncement);
         return savedAnnouncement;
     }
 
-    public List<Announcement> getAnnouncementsByClassId(String classId) {
+    // notBefore: when the caller read the class version; only queries started since then are shared
+    public List<Announcement> getAnnouncementsByClassId(String classId, long notBefore) {
         LOGGER.info("Fetching announcements for classId: {}", classId);
         if (classId == null || classId.isEmpty()) {
             LOGGER.warn("Class ID is required to fetch announcements.");
             throw new IllegalArgumentException("Class ID is required.");
         }
-        List<Announcement> announcementList = announcementRepository.findByClassId(classId);
+        List<Announcement> announcementList = singleFlight.execute("announcements.byClassId", classId, notBefore,
+                () -> announcementRepository.findByClassId(classId));
         LOGGER.info("Found {} announcements for classId: {}", announcementList.size(), classId);
         return announcementList;
     }
 
-    public Announcement getAnnouncementById(String announcementId) {
+    public Announcement getAnnouncementById(String announcementId, String classId) {
         LOGGER.info("Fetching announcement with ID: {}", announcementId);
-        return announcementRepository.findById(announcementId)
+        return findAnnouncement(announcementId, classId)
                 .orElseThrow(() -> new IllegalArgumentException("Announcement not found."));
     }
 
-    public void deleteAnnouncement(String announcementId) {
+    public void deleteAnnouncement(String announcementId, String classId) {
         LOGGER.info("Deleting announcement with ID: {}", announcementId);
-        Announcement announcement = announcementRepository.findById(announcementId)
+        Announcement announcement = findAnnouncement(announcementId, classId)
                 .orElseThrow(() -> new IllegalArgumentException("Announcement not found."));
-        announcementRepository.delete(announcement);
+        announcementRepository.deleteByIdAndClassId(announcementId, announcement.getClassId());
+        singleFlight.forget("announcements.byClassId", announcement.getClassId());
         LOGGER.info("Announcement with ID: {} deleted successfully.", announcementId);
+        changeLogService.recordClassChange(announcement.getClassId(), ChangeLogService.ANNOUNCEMENT,
+                announcementId, ChangeLogService.DELETED);
+    }
+
+    // Older clients do not send the classId; their lookups go to every shard
+    private Optional<Announcement> findAnnouncement(String announcementId, String classId) {
+        return classId == null || classId.isEmpty()
+                ? announcementRepository.findById(announcementId)
+                : announcementRepository.findByIdAndClassId(announcementId, classId);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.classroom.class_backend.service;
 
 import com.classroom.class_backend.model.Attendance;
 import com.classroom.class_backend.repository.AttendanceRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,7 @@ import java.time.ZoneId;
 import java.util.List;
 
 @Service
+@Observed(name = "classroom.service")
 public class AttendanceService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AttendanceService.class);
@@ -19,6 +21,9 @@ public class AttendanceService {
     @Autowired
     private AttendanceRepository attendanceRepository;
 
+    @Autowired
+    private ChangeLogService changeLogService;
+
     public List<Attendance> checkAttendanceExists(String classId, String date) {
         LOGGER.info("Checking if attendance exists for classId: {} on date: {}", classId, date);
         List<Attendance> attendance = attendanceRepository.findByClassIdAndDate(classId, date);
@@ -46,6 +51,8 @@ public class AttendanceService {
         Attendance savedAttendance = attendanceRepository.save(attendance);
         LOGGER.info("Attendance saved successfully with ID: {} for classId: {} on date: {}", 
             savedAttendance.getId(), savedAttendance.getClassId(), savedAttendance.getDate());
+        changeLogService.recordClassChange(savedAttendance.getClassId(), ChangeLogService.ATTENDANCE,
+            savedAttendance.getId(), ChangeLogService.CREATED);
         return savedAttendance;
     }
 
@@ -0,0 +1,209 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.dto.SyncResponse;
+import com.classroom.class_backend.model.ChangeEvent;
+import com.classroom.class_backend.model.ChangeSequence;
+import com.classroom.class_backend.repository.ChangeEventRepository;
+import com.classroom.class_backend.repository.ChangeSequenceRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Observed(name = "classroom.service")
+public class ChangeLogService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeLogService.class);
+
+    public static final String CLASS = "CLASS";
+    public static final String MEMBERSHIP = "MEMBERSHIP";
+    public static final String HOMEWORK = "HOMEWORK";
+    public static final String ANNOUNCEMENT = "ANNOUNCEMENT";
+    public static final String SUBMISSION = "SUBMISSION";
+    public static final String ATTENDANCE = "ATTENDANCE";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private static final int MAX_LIMIT = 1000;
+
+    public static final long UNKNOWN_VERSION = -1;
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeSequenceRepository changeSequenceRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    // Writes from other instances become visible once a cached version is older than this
+    @Value("${classroom.etag.version-cache-ttl:1s}")
+    private Duration versionCacheTtl;
+
+    // Used instead while the change stream keeps the cache current; only bounds how long a missed event could last
+    @Value("${classroom.etag.coherent-version-cache-ttl:5m}")
+    private Duration coherentVersionCacheTtl;
+
+    // A missing sequence older than this is a lost change, not one still being inserted
+    @Value("${classroom.sync.pending-gap-timeout:30s}")
+    private Duration pendingGapTimeout;
+
+    private final Map<String, CachedVersion> versionCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.subscribe("change_sequences", (scopeKey, fields) -> {
+            if (fields != null && fields.get("seq") instanceof Number seq) {
+                cacheVersion(scopeKey, seq.longValue(), System.nanoTime());
+            } else {
+                versionCache.remove(scopeKey);
+            }
+        });
+        invalidationBus.onReset(versionCache::clear);
+    }
+
+    public static String classScope(String classId) {
+        return "class:" + classId;
+    }
+
+    public static String userScope(String userId) {
+        return "user:" + userId;
+    }
+
+    public void recordClassChange(String classId, String entityType, String entityId, String action) {
+        append(classScope(classId), entityType, entityId, action, classId);
+    }
+
+    public void recordUserChange(String userId, String entityType, String entityId, String action, String classId) {
+        append(userScope(userId), entityType, entityId, action, classId);
+    }
+
+    /**
+     * Current sequence of a scope, used as its version: it is bumped by every change recorded
+     * for the scope. Returns 0 for a scope without changes, and UNKNOWN_VERSION while a change
+     * made here could not bump it, since the stored version then no longer describes the data.
+     */
+    public long getVersion(String scopeKey) {
+        long now = System.nanoTime();
+        CachedVersion cached = versionCache.get(scopeKey);
+        if (cached != null && now - cached.readAt < ttl(cached).toNanos()) {
+            return cached.version;
+        }
+        long version = changeSequenceRepository.findById(scopeKey).map(ChangeSequence::getSeq).orElse(0L);
+        cacheVersion(scopeKey, version, now);
+        return version;
+    }
+
+    public int getCachedVersionCount() {
+        return versionCache.size();
+    }
+
+    public SyncResponse getChanges(String scopeKey, long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Cursor must not be negative.");
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        LOGGER.info("Fetching changes for scope: {} since: {} (limit {})", scopeKey, since, pageSize);
+        // Fetch one extra event to learn whether another page follows
+        List<ChangeEvent> events = changeEventRepository.findByScopeKeyAndSeqGreaterThanOrderBySeqAsc(
+            scopeKey, since, PageRequest.of(0, pageSize + 1));
+        // Sequences are handed out before the insert, so a concurrent append can leave a gap that
+        // fills a moment later; only the events before the first gap are returned
+        int contiguous = 0;
+        long expected = since + 1;
+        while (contiguous < events.size() && events.get(contiguous).getSeq() == expected) {
+            contiguous++;
+            expected++;
+        }
+        boolean hasMore = events.size() > pageSize;
+        if (contiguous < events.size()) {
+            ChangeEvent next = events.get(contiguous);
+            boolean settled = next.getOccurredAt() == null
+                || next.getOccurredAt().isBefore(LocalDateTime.now(ZoneId.of("Asia/Kolkata")).minus(pendingGapTimeout));
+            if (!settled) {
+                LOGGER.info("Change {} for scope {} is still being recorded; holding back later changes", expected, scopeKey);
+                events = events.subList(0, contiguous);
+                hasMore = false;
+            } else if (contiguous > 0) {
+                // The next sync starts at the gap and reports it
+                events = events.subList(0, contiguous);
+                hasMore = true;
+            } else if (since > 0) {
+                LOGGER.info("Cursor {} for scope {} is older than a change the log no longer has; reset required", since, scopeKey);
+                return new SyncResponse(List.of(), 0, false, true);
+            } else {
+                // A first sync has no changes to lose; the log may have been trimmed before it
+                return getChanges(scopeKey, next.getSeq() - 1, limit);
+            }
+        }
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+        }
+        long cursor = events.isEmpty() ? since : events.get(events.size() - 1).getSeq();
+        LOGGER.info("Found {} changes for scope: {}; next cursor: {}", events.size(), scopeKey, cursor);
+        return new SyncResponse(events, cursor, hasMore, false);
+    }
+
+    private void append(String scopeKey, String entityType, String entityId, String action, String classId) {
+        long seq;
+        try {
+            seq = changeSequenceRepository.nextSequence(scopeKey);
+        } catch (Exception e) {
+            // The write itself succeeded; until a later change bumps the version, no ETag for the scope may match
+            LOGGER.error("Failed to bump version of scope {} for {} {} {}: {}", scopeKey, action, entityType, entityId, e.getMessage(), e);
+            versionCache.put(scopeKey, new CachedVersion(UNKNOWN_VERSION, System.nanoTime()));
+            return;
+        }
+        cacheVersion(scopeKey, seq, System.nanoTime());
+        try {
+            changeEventRepository.insert(new ChangeEvent(scopeKey, seq, entityType, entityId, action, classId,
+                LocalDateTime.now(ZoneId.of("Asia/Kolkata"))));
+            LOGGER.debug("Recorded change {} {} {} at {}#{}", action, entityType, entityId, scopeKey, seq);
+        } catch (Exception e) {
+            // The version did move; a lost event only costs the client a full reload
+            LOGGER.error("Failed to record change {} {} {} for scope {}: {}", action, entityType, entityId, scopeKey, e.getMessage(), e);
+        }
+    }
+
+    private Duration ttl(CachedVersion cached) {
+        if (cached.version == UNKNOWN_VERSION) {
+            return coherentVersionCacheTtl;
+        }
+        return invalidationBus.covers(cached.readAt) ? coherentVersionCacheTtl : versionCacheTtl;
+    }
+
+    private void cacheVersion(String scopeKey, long version, long readAt) {
+        versionCache.merge(scopeKey, new CachedVersion(version, readAt), (current, candidate) -> {
+            // Only a version read after the failed bump replaces UNKNOWN_VERSION
+            if (current.version == UNKNOWN_VERSION) {
+                return candidate.readAt - current.readAt > 0 ? candidate : current;
+            }
+            return candidate.version >= current.version ? candidate : current;
+        });
+    }
+
+    private static final class CachedVersion {
+        final long version;
+        final long readAt;
+
+        CachedVersion(long version, long readAt) {
+            this.version = version;
+            this.readAt = readAt;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.ResumeToken;
+import com.classroom.class_backend.repository.ResumeTokenRepository;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails one database-wide change stream over the collections that in-process caches have subscribed
+ * to on the {@link InvalidationBus} (as of application startup) and publishes every insert, update, replace and delete to the {@link InvalidationBus}, so writes made
+ * by other instances evict this instance's entries within one round trip of the oplog.
+ *
+ * The resume token is saved to change_stream_resume_tokens (at most once per token-save-interval,
+ * and on shutdown) under this instance's consumer id; after a restart the stream resumes there,
+ * as long as the oplog still covers it. When it does not, the stream starts from now and the bus
+ * resets every cache. Change streams need a replica set: on a standalone server this logs once and
+ * the caches keep their short TTLs. A single-node replica set is enough for development:
+ *   mongod --replSet rs0   and then   mongosh --eval 'rs.initiate()'
+ */
+@Service
+@Profile("!inmemory")
+public class ChangeStreamInvalidator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeStreamInvalidator.class);
+
+    // The $changeStream stage is only supported on replica sets
+    private static final int NOT_A_REPLICA_SET = 40573;
+
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ResumeTokenRepository resumeTokenRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${classroom.invalidation.enabled:true}")
+    private boolean enabled;
+
+    // Defaults to host:port; must be unique per instance and stable across its restarts
+    @Value("${classroom.invalidation.consumer-id:}")
+    private String consumerId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${classroom.invalidation.token-save-interval:1s}")
+    private Duration tokenSaveInterval;
+
+    @Value("${classroom.invalidation.retry-delay:5s}")
+    private Duration retryDelay;
+
+    // Each update to a watched collection costs a document lookup on the server, so only those with subscribers
+    private List<String> collections;
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    private BsonDocument resumeToken;
+
+    private BsonDocument savedToken;
+
+    private long savedAt;
+
+    // Seconds since the epoch of the last event's cluster time
+    private volatile long lastClusterTime;
+
+    // By collection, then operation; registering a counter per event would cost a registry lookup each time
+    private final Map<String, Map<OperationType, Counter>> eventCounters = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            LOGGER.info("Change stream invalidation disabled; caches rely on their TTLs");
+            return;
+        }
+        collections = invalidationBus.collections().stream().sorted().toList();
+        if (collections.isEmpty()) {
+            LOGGER.info("No cache subscribes to invalidation events; change stream not started");
+            return;
+        }
+        if (consumerId == null || consumerId.isBlank()) {
+            consumerId = hostName() + ":" + serverPort;
+        }
+        resumeToken = resumeTokenRepository.findById(consumerId)
+            .map(token -> new BsonDocument("_data", new BsonString(token.getTokenData())))
+            .orElse(null);
+        savedToken = resumeToken;
+        Gauge.builder("classroom.invalidation.live", invalidationBus, bus -> bus.isLive() ? 1 : 0)
+            .description("Whether the change stream feeding cache invalidation is open")
+            .register(meterRegistry);
+        Gauge.builder("classroom.invalidation.lag", this, invalidator -> invalidator.lastClusterTime == 0
+                ? Double.NaN : Math.max(0, Instant.now().getEpochSecond() - invalidator.lastClusterTime))
+            .description("Seconds between the last invalidation event's write and now")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        running = true;
+        worker = new Thread(this::run, "change-stream-invalidator");
+        worker.setDaemon(true);
+        worker.start();
+        LOGGER.info("Change stream invalidation started as {} ({})", consumerId,
+            resumeToken == null ? "no resume token" : "resuming");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                watch();
+            } catch (MongoCommandException e) {
+                invalidationBus.setLive(false);
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    LOGGER.warn("Mongo is not a replica set; change stream invalidation is off and caches rely on their TTLs");
+                    return;
+                }
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST || e.getErrorCode() == CHANGE_STREAM_FATAL_ERROR) {
+                    LOGGER.warn("Resume token for {} is no longer in the oplog; restarting the change stream from now", consumerId);
+                    resumeToken = null;
+                    continue;
+                }
+                LOGGER.error("Change stream failed: {}", e.getMessage(), e);
+                backOff();
+            } catch (Exception e) {
+                invalidationBus.setLive(false);
+                if (running) {
+                    LOGGER.error("Change stream failed: {}", e.getMessage(), e);
+                    backOff();
+                }
+            }
+        }
+        invalidationBus.setLive(false);
+        saveToken(true);
+    }
+
+    private void watch() {
+        List<Bson> pipeline = List.of(
+            Aggregates.match(Filters.in("ns.coll", collections)),
+            // Listeners only need the keys a cache is indexed by, not whole documents
+            Aggregates.project(Projections.include("operationType", "ns", "documentKey", "clusterTime",
+                "fullDocument.classId", "fullDocument.classCode", "fullDocument.userId", "fullDocument.seq")));
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline)
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            // Unlike resumeAfter, startAfter also gets past an invalidate event
+            stream = stream.startAfter(resumeToken);
+        }
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            invalidationBus.setLive(true);
+            LOGGER.info("Change stream open on {}", collections);
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null) {
+                    if (event.getOperationType() == OperationType.INVALIDATE) {
+                        resumeToken = event.getResumeToken();
+                        throw new IllegalStateException("Change stream invalidated");
+                    }
+                    dispatch(event);
+                }
+                // Advances on empty batches too, so an idle stream does not resume from far back
+                if (cursor.getResumeToken() != null) {
+                    resumeToken = cursor.getResumeToken();
+                }
+                saveToken(false);
+            }
+        }
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> event) {
+        if (event.getNamespace() == null || event.getDocumentKey() == null) {
+            return;
+        }
+        String collection = event.getNamespace().getCollectionName();
+        String id = id(event.getDocumentKey().get("_id"));
+        if (event.getClusterTime() != null) {
+            lastClusterTime = event.getClusterTime().getTime();
+        }
+        OperationType operationType = event.getOperationType() == null ? OperationType.OTHER : event.getOperationType();
+        eventCounters.computeIfAbsent(collection, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(operationType, operation -> Counter.builder("classroom.invalidation.events")
+                .description("Change stream events published to the invalidation bus")
+                .tag("collection", collection)
+                .tag("operation", operation.getValue().toLowerCase(Locale.ROOT))
+                .register(meterRegistry))
+            .increment();
+        invalidationBus.publish(collection, id, event.getFullDocument());
+    }
+
+    private void saveToken(boolean force) {
+        if (resumeToken == null || resumeToken.equals(savedToken)) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!force && now - savedAt < tokenSaveInterval.toNanos()) {
+            return;
+        }
+        try {
+            resumeTokenRepository.save(new ResumeToken(consumerId, resumeToken.getString("_data").getValue(), Instant.now()));
+            savedToken = resumeToken;
+            savedAt = now;
+        } catch (Exception e) {
+            // Only costs replaying a little more of the oplog after a restart
+            LOGGER.warn("Failed to save resume token for {}: {}", consumerId, e.getMessage());
+        }
+    }
+
+    private void backOff() {
+        try {
+            Thread.sleep(retryDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // Models use String ids; Spring stores the ones that look like ObjectIds as ObjectIds
+    private static String id(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.toString();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
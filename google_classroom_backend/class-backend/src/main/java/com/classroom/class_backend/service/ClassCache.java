@@ -0,0 +1,138 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Class;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classes by id and by code, for the lookups every class-scoped request starts with. Entries are
+ * evicted by writes on this instance and by InvalidationBus events from any instance, and kept for
+ * coherent-ttl while the change stream covers them, ttl otherwise (the same rule ChangeLogService
+ * applies to versions). Cached instances are shared: callers must not modify them.
+ */
+@Service
+public class ClassCache {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${classroom.class-cache.ttl:5s}")
+    private Duration ttl;
+
+    @Value("${classroom.class-cache.coherent-ttl:10m}")
+    private Duration coherentTtl;
+
+    @Value("${classroom.class-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+
+    private final Map<String, String> idByCode = new ConcurrentHashMap<>();
+
+    // A read that started before the latest eviction may have seen the evicted state
+    private volatile long lastEvictionAt = System.nanoTime();
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.subscribe("classes", (classId, fields) -> evict(classId));
+        invalidationBus.onReset(this::clear);
+        Gauge.builder("classroom.class_cache.size", byId, Map::size)
+            .register(meterRegistry);
+        hits = Counter.builder("classroom.class_cache.lookups").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("classroom.class_cache.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    /** The cached class, or null when it is not cached (which says nothing about whether it exists). */
+    public Class getById(String classId) {
+        Entry entry = byId.get(classId);
+        if (entry == null || expired(entry)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.classObj;
+    }
+
+    public Class getByCode(String classCode) {
+        String classId = idByCode.get(classCode);
+        if (classId == null) {
+            misses.increment();
+            return null;
+        }
+        return getById(classId);
+    }
+
+    /**
+     * @param readAt System.nanoTime() taken before the class was read, so a write that raced the
+     *               read is not hidden for longer than the TTL allows
+     */
+    public void put(Class classObj, long readAt) {
+        if (readAt - lastEvictionAt < 0) {
+            return;
+        }
+        if (byId.size() >= maxEntries) {
+            evictOne();
+        }
+        byId.put(classObj.getClassId(), new Entry(classObj, readAt));
+        if (classObj.getClassCode() != null) {
+            idByCode.put(classObj.getClassCode(), classObj.getClassId());
+        }
+    }
+
+    public void evict(String classId) {
+        lastEvictionAt = System.nanoTime();
+        Entry entry = byId.remove(classId);
+        if (entry != null && entry.classObj.getClassCode() != null) {
+            idByCode.remove(entry.classObj.getClassCode(), classId);
+        }
+    }
+
+    public void clear() {
+        lastEvictionAt = System.nanoTime();
+        byId.clear();
+        idByCode.clear();
+    }
+
+    private boolean expired(Entry entry) {
+        Duration entryTtl = invalidationBus.covers(entry.readAt) ? coherentTtl : ttl;
+        return System.nanoTime() - entry.readAt >= entryTtl.toNanos();
+    }
+
+    // Not LRU: a full cache only happens with far more classes than are active at once
+    private void evictOne() {
+        Iterator<String> ids = byId.keySet().iterator();
+        if (ids.hasNext()) {
+            Entry entry = byId.remove(ids.next());
+            if (entry != null && entry.classObj.getClassCode() != null) {
+                idByCode.remove(entry.classObj.getClassCode(), entry.classObj.getClassId());
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Class classObj;
+        final long readAt;
+
+        Entry(Class classObj, long readAt) {
+            this.classObj = classObj;
+            this.readAt = readAt;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.repository.ClassRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every existing class code, so join attempts with a mistyped or guessed code are
+ * answered without a database query. A "no" is certain, a "maybe" (about 1 in 100 for unknown
+ * codes) falls through to the lookup.
+ *
+ * Built from the classes collection when the application is ready, and kept current by
+ * createClass on this instance and by class inserts from other instances arriving through the
+ * InvalidationBus. A Bloom filter cannot forget, so deleted codes stay "maybe" until the periodic
+ * rebuild. A single instance sees every insert through createClass, so its "no" is trusted as soon
+ * as the filter is built. When more than one instance serves joins, set require-invalidation: a
+ * "no" is then only trusted while the change stream has been open since before the rebuild started,
+ * and otherwise every code falls through to the database, as it did before the filter existed.
+ */
+@Service
+public class ClassCodeFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassCodeFilter.class);
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${classroom.class-code-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classroom.class-code-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Only for deployments running more than one instance, whose inserts this one learns of from the change stream
+    @Value("${classroom.class-code-filter.require-invalidation:false}")
+    private boolean requireInvalidation;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "class-code-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong size = new AtomicLong();
+
+    private volatile BloomFilter current;
+
+    // System.nanoTime() when the scan behind current started
+    private volatile long builtAt;
+
+    // Receives puts while a rebuild is scanning, so codes created meanwhile are not lost
+    private BloomFilter next;
+
+    private Counter rejected;
+
+    private Counter passed;
+
+    private Counter untrusted;
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.subscribe("classes", (classId, fields) -> {
+            if (fields != null && fields.getString("classCode") != null) {
+                put(fields.getString("classCode"));
+            }
+        });
+        // Inserts may have been missed while the stream was down
+        invalidationBus.onReset(() -> rebuildAsync("invalidation reset"));
+        Gauge.builder("classroom.class_codes.filter.size", size, AtomicLong::get)
+            .description("Class codes in the join Bloom filter")
+            .register(meterRegistry);
+        rejected = lookups("rejected");
+        passed = lookups("passed");
+        untrusted = lookups("untrusted");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /** False only when no class has this code. */
+    public boolean mightExist(String classCode) {
+        BloomFilter filter = current;
+        if (!enabled || filter == null || requireInvalidation && !invalidationBus.covers(builtAt)) {
+            untrusted.increment();
+            return true;
+        }
+        if (filter.mightContain(classCode)) {
+            passed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public synchronized void put(String classCode) {
+        if (next != null) {
+            next.put(classCode);
+        }
+        // Before the first build, its scan will see the code; known codes arrive again with updates
+        if (current == null || current.mightContain(classCode)) {
+            return;
+        }
+        current.put(classCode);
+        if (size.incrementAndGet() == current.capacity() + 1) {
+            rebuildAsync("capacity reached");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            LOGGER.info("Class code filter disabled; every join looks its code up");
+            return;
+        }
+        if (requireInvalidation) {
+            LOGGER.info("Class code filter requires the change stream; joins look their code up until it has been "
+                + "open since the filter was built (never on a standalone server)");
+        }
+        rebuildAsync("startup");
+    }
+
+    // Drops deleted codes, which a Bloom filter cannot remove
+    @Scheduled(initialDelayString = "${classroom.class-code-filter.rebuild-interval:6h}",
+        fixedDelayString = "${classroom.class-code-filter.rebuild-interval:6h}")
+    public void scheduledRebuild() {
+        rebuildAsync("scheduled");
+    }
+
+    private void rebuildAsync(String reason) {
+        if (enabled && !rebuilder.isShutdown()) {
+            rebuilder.execute(() -> rebuild(reason));
+        }
+    }
+
+    private void rebuild(String reason) {
+        long start = System.nanoTime();
+        try {
+            // Room to double before the false positive rate degrades and a rebuild is forced
+            BloomFilter filter = new BloomFilter(Math.max(1024, 2 * classRepository.count()), falsePositiveRate);
+            synchronized (this) {
+                next = filter;
+            }
+            long count = 0;
+            try (Stream<Class> classes = classRepository.streamAllClassCodes()) {
+                for (Class classObj : (Iterable<Class>) classes::iterator) {
+                    if (classObj.getClassCode() != null) {
+                        filter.put(classObj.getClassCode());
+                        count++;
+                    }
+                }
+            }
+            synchronized (this) {
+                current = filter;
+                builtAt = start;
+                next = null;
+                size.set(count);
+            }
+            LOGGER.info("Rebuilt class code filter ({}) with {} codes in {} ms", reason, count,
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            synchronized (this) {
+                next = null;
+            }
+            LOGGER.error("Failed to rebuild class code filter ({}): {}", reason, e.getMessage(), e);
+        }
+    }
+
+    private Counter lookups(String result) {
+        return Counter.builder("classroom.class_codes.lookups")
+            .description("Join class code checks against the Bloom filter")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,361 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.repository.ClassMemberRepository;
+import com.classroom.class_backend.repository.ClassRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of class events to Server-Sent Event connections.
+ *
+ * Connections are servlet async requests, so an idle stream holds no thread; a small drain pool
+ * writes queued events. Each connection buffers at most {@code buffer-size} events and is evicted
+ * when a slow consumer lets the buffer overflow, or when one send blocks for longer than
+ * {@code send-timeout}. A drain thread stuck in such a send is stood in for by an extra one, so a
+ * few stalled clients cannot hold up delivery to everyone else. Recipient lookups run on their own
+ * pool with a bounded queue; a publish that does not fit is dropped, and clients catch up through
+ * the change log.
+ */
+@Service
+public class ClassEventHub {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassEventHub.class);
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private ClassMemberRepository classMemberRepository;
+
+    @Value("${classroom.events.max-connections:20000}")
+    private int maxConnections;
+
+    @Value("${classroom.events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${classroom.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${classroom.events.heartbeat-interval:20s}")
+    private Duration heartbeatInterval;
+
+    @Value("${classroom.events.connection-timeout:30m}")
+    private Duration connectionTimeout;
+
+    @Value("${classroom.events.drain-threads:4}")
+    private int drainThreads;
+
+    // Upper bound on the threads started to stand in for drain threads stuck in a send
+    @Value("${classroom.events.max-replacement-threads:16}")
+    private int maxReplacementThreads;
+
+    @Value("${classroom.events.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Value("${classroom.events.lookup-threads:2}")
+    private int lookupThreads;
+
+    @Value("${classroom.events.publish-queue-size:10000}")
+    private int publishQueueSize;
+
+    private final Map<String, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private final AtomicLong droppedPublishCount = new AtomicLong();
+
+    private ThreadPoolExecutor drainExecutor;
+
+    private ThreadPoolExecutor lookupExecutor;
+
+    // Sends currently stuck past send-timeout, each stood in for by a replacement drain thread
+    private int stalledSends;
+
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @PostConstruct
+    public void start() {
+        // A subscriber has at most one drain queued or running, so this queue never fills
+        drainExecutor = new ThreadPoolExecutor(drainThreads, drainThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxConnections), daemonThreads("class-events-"));
+        lookupExecutor = new ThreadPoolExecutor(lookupThreads, lookupThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(publishQueueSize), daemonThreads("class-events-lookup-"));
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "class-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = heartbeatInterval.toMillis();
+        heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(1, sendTimeout.toMillis() / 2);
+        heartbeatScheduler.scheduleAtFixedRate(this::evictStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatScheduler.shutdownNow();
+        lookupExecutor.shutdownNow();
+        drainExecutor.shutdownNow();
+        subscribersByUser.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        subscribersByUser.clear();
+    }
+
+    public SseEmitter subscribe(String userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            LOGGER.warn("Rejecting event stream for user {}: instance is at {} connections", userId, maxConnections);
+            throw new IllegalStateException("Too many open event streams. Please retry later.");
+        }
+        SseEmitter emitter = new SseEmitter(connectionTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+        AtomicBoolean accepted = new AtomicBoolean();
+        // compute() keeps the add atomic with remove() dropping the user's last subscriber
+        subscribersByUser.compute(userId, (id, subscribers) -> {
+            if (subscribers == null) {
+                subscribers = ConcurrentHashMap.newKeySet();
+            }
+            if (subscribers.size() < maxConnectionsPerUser) {
+                subscribers.add(subscriber);
+                accepted.set(true);
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        if (!accepted.get()) {
+            connectionCount.decrementAndGet();
+            LOGGER.warn("Rejecting event stream for user {}: {} streams already open", userId, maxConnectionsPerUser);
+            throw new IllegalArgumentException("Too many open event streams for this user.");
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        LOGGER.info("Opened event stream for user {} ({} open on this instance)", userId, connectionCount.get());
+        enqueue(subscriber, SseEmitter.event().name("connected").data("ok"));
+        return emitter;
+    }
+
+    /**
+     * Publishes an event to the owner and members of a class. Recipient lookup runs on the lookup
+     * pool and delivery on the drain pool, so the publishing request does not wait on either.
+     */
+    public void publish(String classId, String eventName, Object payload) {
+        if (subscribersByUser.isEmpty()) {
+            return;
+        }
+        try {
+            lookupExecutor.execute(() -> deliver(classId, eventName, payload));
+        } catch (RejectedExecutionException e) {
+            droppedPublishCount.incrementAndGet();
+            LOGGER.warn("Dropping {} event for classId: {}: {} publishes already queued", eventName, classId, publishQueueSize);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public long getDroppedPublishCount() {
+        return droppedPublishCount.get();
+    }
+
+    public long getBufferedEventCount() {
+        long buffered = 0;
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                buffered += subscriber.buffer.size();
+            }
+        }
+        return buffered;
+    }
+
+    private void deliver(String classId, String eventName, Object payload) {
+        try {
+            List<String> recipients = new ArrayList<>();
+            classRepository.findById(classId).ifPresent(classObj -> recipients.add(classObj.getUserId()));
+            for (ClassMember member : classMemberRepository.findByClassId(classId)) {
+                recipients.add(member.getUserId());
+            }
+            int delivered = 0;
+            for (String userId : recipients) {
+                Set<Subscriber> userSubscribers = userId == null ? null : subscribersByUser.get(userId);
+                if (userSubscribers == null) {
+                    continue;
+                }
+                for (Subscriber subscriber : userSubscribers) {
+                    enqueue(subscriber, SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+                    delivered++;
+                }
+            }
+            LOGGER.info("Published {} event for classId: {} to {} streams", eventName, classId, delivered);
+        } catch (Exception e) {
+            LOGGER.error("Failed to publish {} event for classId: {}. Error: {}", eventName, classId, e.getMessage(), e);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    // The stuck send keeps its thread until the container's write timeout fails it
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                long started = subscriber.sendStarted.get();
+                if (started == Subscriber.IDLE || started == Subscriber.STALLED || now - started < sendTimeout.toNanos()
+                        || !subscriber.sendStarted.compareAndSet(started, Subscriber.STALLED)) {
+                    continue;
+                }
+                evictedCount.incrementAndGet();
+                LOGGER.warn("Evicting stalled event stream for user {}: a send has been blocked for {} ms",
+                    subscriber.userId, TimeUnit.NANOSECONDS.toMillis(now - started));
+                remove(subscriber);
+                resizeDrainPool(1);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.buffer.offer(event)) {
+            evictedCount.incrementAndGet();
+            LOGGER.warn("Evicting slow event stream for user {}: {} events buffered", subscriber.userId, bufferSize);
+            remove(subscriber);
+            // The drain completes the emitter; completing it here would wait behind a send in progress
+            scheduleDrain(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.buffer.poll()) != null) {
+                long started = System.nanoTime();
+                subscriber.sendStarted.set(started);
+                subscriber.emitter.send(event);
+                if (!subscriber.sendStarted.compareAndSet(started, Subscriber.IDLE)) {
+                    // Evicted as stalled while sending; its replacement thread is no longer needed
+                    resizeDrainPool(-1);
+                }
+            }
+            if (subscriber.closed.get() && subscriber.completed.compareAndSet(false, true)) {
+                subscriber.emitter.complete();
+            }
+        } catch (Exception e) {
+            if (subscriber.sendStarted.getAndSet(Subscriber.IDLE) == Subscriber.STALLED) {
+                resizeDrainPool(-1);
+            }
+            LOGGER.info("Event stream for user {} closed: {}", subscriber.userId, e.getMessage());
+            subscriber.completed.set(true);
+            subscriber.emitter.completeWithError(e);
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event or an eviction may have arrived after the last check but before draining was cleared
+        boolean pending = subscriber.closed.get() ? !subscriber.completed.get() : !subscriber.buffer.isEmpty();
+        if (pending) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private synchronized void resizeDrainPool(int stalledDelta) {
+        stalledSends += stalledDelta;
+        int size = drainThreads + Math.min(stalledSends, maxReplacementThreads);
+        // The core size may never exceed the maximum, so the order depends on the direction
+        if (size > drainExecutor.getMaximumPoolSize()) {
+            drainExecutor.setMaximumPoolSize(size);
+            drainExecutor.setCorePoolSize(size);
+        } else {
+            drainExecutor.setCorePoolSize(size);
+            drainExecutor.setMaximumPoolSize(size);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriber.buffer.clear();
+        subscribersByUser.computeIfPresent(subscriber.userId, (userId, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        connectionCount.decrementAndGet();
+        LOGGER.info("Closed event stream for user {} ({} open on this instance)", subscriber.userId, connectionCount.get());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadIds = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        // sendStarted values that can never be a System.nanoTime() reading in practice
+        static final long IDLE = Long.MIN_VALUE;
+        static final long STALLED = Long.MIN_VALUE + 1;
+
+        final String userId;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean completed = new AtomicBoolean();
+        // System.nanoTime() when the send in progress began
+        final AtomicLong sendStarted = new AtomicLong(IDLE);
+
+        Subscriber(String userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -2,25 +2,38 @@ package com.classroom.class_backend.service;
 
 import com.classroom.class_backend.model.Class;
 import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.model.User;
 import com.classroom.class_backend.repository.ClassRepository;
 import com.classroom.class_backend.repository.ClassMemberRepository;
 import com.classroom.class_backend.repository.AttendanceRepository;
 import com.classroom.class_backend.repository.HomeworkSubmissionRepository;
+import com.classroom.class_backend.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import jakarta.annotation.PostConstruct;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "classroom.service")
 public class ClassService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClassService.class);
 
+    // Compiled once; String.matches recompiles the regex on every call
+    private static final Pattern CLASS_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{8}$");
+
+    // Classes saved per write during the migration; the lease is checked once per batch
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
     @Autowired
     private ClassRepository classRepository;
 
@@ -33,6 +46,24 @@ public class ClassService {
     @Autowired
     private HomeworkSubmissionRepository homeworkSubmissionRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ClassCache classCache;
+
+    @Autowired
+    private ClassCodeFilter classCodeFilter;
+
     public Class createClass(Class classObj) {
         // Validate classId
         if (classRepository.existsById(classObj.getClassId())) {
@@ -41,7 +72,7 @@ public class ClassService {
         }
 
         // Validate classCode format
-        if (!classObj.getClassCode().matches("^[A-Z0-9]{8}$")) {
+        if (!CLASS_CODE_PATTERN.matcher(classObj.getClassCode()).matches()) {
             LOGGER.error("Invalid class code: {}. Must be 8 uppercase alphanumeric characters.", classObj.getClassCode());
             throw new IllegalArgumentException("Class code must be 8 uppercase alphanumeric characters.");
         }
@@ -56,33 +87,52 @@ public class ClassService {
 
         LOGGER.info("Creating class with ID: {} and Code: {} by user: {}", 
             classObj.getClassId(), classObj.getClassCode(), classObj.getUserId());
-        return classRepository.save(classObj);
+        Class savedClass = classRepository.save(classObj);
+        classCodeFilter.put(savedClass.getClassCode());
+        singleFlight.forget("classes.byUserId", savedClass.getUserId());
+        singleFlight.forget("classes.byId", savedClass.getClassId());
+        singleFlight.forget("classes.byCode", savedClass.getClassCode());
+        changeLogService.recordClassChange(savedClass.getClassId(), ChangeLogService.CLASS,
+            savedClass.getClassId(), ChangeLogService.CREATED);
+        changeLogService.recordUserChange(savedClass.getUserId(), ChangeLogService.CLASS,
+            savedClass.getClassId(), ChangeLogService.CREATED, savedClass.getClassId());
+        return savedClass;
     }
 
-    public List<Class> getClassesByUserId(String userId) {
+    // notBefore: when the caller read the user's version; only queries started since then are shared
+    public List<Class> getClassesByUserId(String userId, long notBefore) {
         LOGGER.info("Fetching classes for user: {}", userId);
-        List<Class> classes = classRepository.findByUserId(userId);
+        List<Class> classes = singleFlight.execute("classes.byUserId", userId, notBefore, () -> classRepository.findByUserId(userId));
         LOGGER.info("Found {} classes for user: {}", classes.size(), userId);
         return classes;
     }
 
-    public List<Class> getJoinedClassesByUserId(String userId) {
+    public List<Class> getJoinedClassesByUserId(String userId, long notBefore) {
         LOGGER.info("Fetching joined classes for user: {}", userId);
-        List<ClassMember> classMembers = classMemberRepository.findByUserId(userId);
-        List<String> classIds = classMembers.stream()
-            .map(ClassMember::getClassId)
-            .collect(Collectors.toList());
-        List<Class> joinedClasses = classRepository.findAllById(classIds)
-            .stream()
-            .filter(classObj -> !classObj.getUserId().equals(userId))
-            .collect(Collectors.toList());
+        List<Class> joinedClasses = singleFlight.execute("classes.joinedByUserId", userId, notBefore, () -> {
+            List<ClassMember> classMembers = classMemberRepository.findByUserId(userId);
+            List<String> classIds = classMembers.stream()
+                .map(ClassMember::getClassId)
+                .collect(Collectors.toList());
+            return classRepository.findAllById(classIds)
+                .stream()
+                .filter(classObj -> !classObj.getUserId().equals(userId))
+                .collect(Collectors.toList());
+        });
         LOGGER.info("Found {} joined classes for user: {}", joinedClasses.size(), userId);
         return joinedClasses;
     }
 
     public Class getClassById(String classId) {
         LOGGER.info("Fetching class with ID: {}", classId);
-        Class classObj = classRepository.findById(classId).orElse(null);
+        Class classObj = classCache.getById(classId);
+        if (classObj == null) {
+            long readAt = System.nanoTime();
+            classObj = singleFlight.execute("classes.byId", classId, () -> classRepository.findById(classId)).orElse(null);
+            if (classObj != null) {
+                classCache.put(classObj, readAt);
+            }
+        }
         if (classObj == null) {
             LOGGER.warn("Class with ID {} not found.", classId);
         } else {
@@ -93,7 +143,20 @@ public class ClassService {
 
     public Class getClassByCode(String classCode) {
         LOGGER.info("Fetching class with code: {}", classCode);
-        Class classObj = classRepository.findByClassCode(classCode).orElse(null);
+        // Typos and guesses end here, without a query
+        if (classCode == null || !CLASS_CODE_PATTERN.matcher(classCode).matches() || !classCodeFilter.mightExist(classCode)) {
+            LOGGER.warn("Class with code {} not found.", classCode);
+            return null;
+        }
+        Class classObj = classCache.getByCode(classCode);
+        if (classObj == null) {
+            long readAt = System.nanoTime();
+            classObj = singleFlight.execute("classes.byCode", classCode, () -> classRepository.findByClassCode(classCode))
+                .orElse(null);
+            if (classObj != null) {
+                classCache.put(classObj, readAt);
+            }
+        }
         if (classObj == null) {
             LOGGER.warn("Class with code {} not found.", classCode);
         } else {
@@ -102,9 +165,36 @@ public class ClassService {
         return classObj;
     }
 
+    public List<User> getStudentsByClassId(String classId) {
+        LOGGER.info("Fetching students for classId: {}", classId);
+        List<User> students = singleFlight.execute("roster.byClassId", classId, () -> {
+            List<String> studentIds = classMemberRepository.findByClassId(classId).stream()
+                .map(ClassMember::getUserId)
+                .collect(Collectors.toList());
+            if (studentIds.isEmpty()) {
+                return List.<User>of();
+            }
+            List<User> roster = userRepository.findByIdInAndRole(studentIds, "STUDENT");
+            roster.sort((a, b) -> a.getRollNumber().compareTo(b.getRollNumber()));
+            return roster;
+        });
+        LOGGER.info("Found {} students for classId: {}", students.size(), classId);
+        return students;
+    }
+
+    /** Called after a member joins or leaves, so the next roster and joined-classes reads see it. */
+    public void membershipChanged(String classId, String userId) {
+        singleFlight.forget("roster.byClassId", classId);
+        singleFlight.forget("classes.joinedByUserId", userId);
+    }
+
     public void deleteClass(String classId) {
         LOGGER.info("Deleting class with ID: {}", classId);
 
+        // Capture owner and members first so their dashboards learn about the deletion
+        Class classObj = classRepository.findById(classId).orElse(null);
+        List<ClassMember> members = classMemberRepository.findByClassId(classId);
+
         // Delete associated ClassMember entries
         classMemberRepository.deleteByClassId(classId);
         LOGGER.info("Deleted associated ClassMember entries for class ID: {}", classId);
@@ -119,10 +209,32 @@ public class ClassService {
 
         // Delete the class
         classRepository.deleteById(classId);
+        classCache.evict(classId);
+        singleFlight.forget("classes.byId", classId);
+        singleFlight.forget("roster.byClassId", classId);
+        if (classObj != null) {
+            singleFlight.forget("classes.byCode", classObj.getClassCode());
+            singleFlight.forget("classes.byUserId", classObj.getUserId());
+        }
+        for (ClassMember member : members) {
+            singleFlight.forget("classes.joinedByUserId", member.getUserId());
+        }
         LOGGER.info("Class with ID {} deleted successfully.", classId);
+
+        changeLogService.recordClassChange(classId, ChangeLogService.CLASS, classId, ChangeLogService.DELETED);
+        if (classObj != null && classObj.getUserId() != null) {
+            changeLogService.recordUserChange(classObj.getUserId(), ChangeLogService.CLASS, classId,
+                ChangeLogService.DELETED, classId);
+        }
+        for (ClassMember member : members) {
+            changeLogService.recordUserChange(member.getUserId(), ChangeLogService.CLASS, classId,
+                ChangeLogService.DELETED, classId);
+        }
     }
 
-    @PostConstruct
+    // Once per cluster rather than on every instance that boots
+    @EventListener(ApplicationReadyEvent.class)
+    @LeaderOnly(value = "class-migration", once = true)
     public void migrateExistingClasses() {
         try {
             LOGGER.info("Starting migration of existing classes to add userId and createdAt");
@@ -131,6 +243,7 @@ public class ClassService {
                 LOGGER.info("No classes found to migrate");
                 return;
             }
+            List<Class> batch = new ArrayList<>();
             for (Class classObj : classes) {
                 boolean updated = false;
                 if (classObj.getUserId() == null) {
@@ -143,13 +256,27 @@ public class ClassService {
                     updated = true;
                 }
                 if (updated) {
-                    classRepository.save(classObj);
+                    batch.add(classObj);
+                }
+                if (batch.size() == MIGRATION_BATCH_SIZE) {
+                    saveMigrated(batch);
                 }
             }
+            saveMigrated(batch);
             LOGGER.info("Migration completed for {} classes", classes.size());
         } catch (Exception e) {
             LOGGER.error("Migration failed: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to migrate existing classes: " + e.getMessage(), e);
         }
     }
+
+    private void saveMigrated(List<Class> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        leaderElection.checkLease();
+        classRepository.saveAll(batch);
+        batch.forEach(classObj -> classCache.evict(classObj.getClassId()));
+        batch.clear();
+    }
 }
\ No newline at end of file
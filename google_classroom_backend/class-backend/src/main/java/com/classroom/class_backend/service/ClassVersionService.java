@@ -0,0 +1,54 @@
+package com.classroom.class_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * ETags for class and user feeds, derived from the change log sequences. Any announcement,
+ * homework, membership, submission or attendance write for a class bumps its version, so a
+ * matching If-None-Match can be answered without running the list query.
+ */
+@Service
+public class ClassVersionService {
+
+    // Bump when the JSON shape of the feeds changes so clients drop their cached copies
+    private static final String FORMAT_VERSION = "v1";
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    public String classETag(String classId) {
+        return eTag("c", changeLogService.getVersion(ChangeLogService.classScope(classId)));
+    }
+
+    /** For one of the user's feeds; feeds sharing the user's version must not share a validator. */
+    public String userETag(String userId, String feed) {
+        return eTag("u" + feed + "-", changeLogService.getVersion(ChangeLogService.userScope(userId)));
+    }
+
+    public boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String eTag(String scope, long version) {
+        if (version == ChangeLogService.UNKNOWN_VERSION) {
+            // Matches nothing, so every request gets the full body
+            return "\"" + FORMAT_VERSION + "-" + scope + "x" + UUID.randomUUID() + "\"";
+        }
+        return "\"" + FORMAT_VERSION + "-" + scope + version + "\"";
+    }
+}
@@ -2,6 +2,7 @@ package com.classroom.class_backend.service;
 
 import com.classroom.class_backend.model.Homework;
 import com.classroom.class_backend.repository.HomeworkRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,10 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 @Service
+@Observed(name = "classroom.service")
 public class HomeworkService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HomeworkService.class);
@@ -19,47 +22,79 @@ public class HomeworkService {
     @Autowired
     private HomeworkRepository homeworkRepository;
 
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private ClassEventHub classEventHub;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     public Homework createHomework(Homework homework) {
         LOGGER.info("Creating homework for classId: {}", homework.getClassId());
         homework.setAssignedDate(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
         Homework savedHomework = homeworkRepository.save(homework);
+        singleFlight.forget("homework.byClassId", savedHomework.getClassId());
         LOGGER.info("Homework created successfully with ID: {}", savedHomework.getId());
         LOGGER.debug("Details: classId={}, title={}, description={}, assignedDate={}, dueDate={}",
                 savedHomework.getClassId(), savedHomework.getTitle(),
                 savedHomework.getDescription(), savedHomework.getAssignedDate(), savedHomework.getDueDate());
+        changeLogService.recordClassChange(savedHomework.getClassId(), ChangeLogService.HOMEWORK,
+                savedHomework.getId(), ChangeLogService.CREATED);
+        classEventHub.publish(savedHomework.getClassId(), "homework", savedHomework);
         return savedHomework;
     }
 
-    public List<Homework> getHomeworkByClassId(String classId) {
+    // notBefore: when the caller read the class version; only queries started since then are shared
+    public List<Homework> getHomeworkByClassId(String classId, long notBefore) {
         LOGGER.info("Fetching homework for classId: {}", classId);
         if (classId == null || classId.isEmpty()) {
             LOGGER.warn("Class ID is required to fetch homework.");
             throw new IllegalArgumentException("Class ID is required.");
         }
-        List<Homework> homeworkList = homeworkRepository.findByClassId(classId);
+        List<Homework> homeworkList = singleFlight.execute("homework.byClassId", classId, notBefore,
+                () -> homeworkRepository.findByClassId(classId));
         LOGGER.info("Found {} homework assignments for classId: {}", homeworkList.size(), classId);
         return homeworkList;
     }
 
-    public Homework getHomeworkById(String homeworkId) {
+    public Homework getHomeworkById(String homeworkId, String classId) {
         LOGGER.info("Fetching homework with ID: {}", homeworkId);
         if (homeworkId == null || homeworkId.isEmpty()) {
             LOGGER.warn("Homework ID is required.");
             throw new IllegalArgumentException("Homework ID is required.");
         }
-        return homeworkRepository.findById(homeworkId)
+        return singleFlight.execute("homework.byId", homeworkKey(homeworkId, classId), () -> findHomework(homeworkId, classId))
                 .orElseThrow(() -> new IllegalArgumentException("Homework not found."));
     }
 
-    public void deleteHomework(String homeworkId) {
+    public void deleteHomework(String homeworkId, String classId) {
         LOGGER.info("Deleting homework with ID: {}", homeworkId);
         if (homeworkId == null || homeworkId.isEmpty()) {
             LOGGER.warn("Homework ID is required for deletion.");
             throw new IllegalArgumentException("Homework ID is required.");
         }
-        Homework homework = homeworkRepository.findById(homeworkId)
+        Homework homework = findHomework(homeworkId, classId)
                 .orElseThrow(() -> new IllegalArgumentException("Homework not found."));
-        homeworkRepository.delete(homework);
+        homeworkRepository.deleteByIdAndClassId(homeworkId, homework.getClassId());
+        singleFlight.forget("homework.byClassId", homework.getClassId());
+        singleFlight.forget("homework.byId", homeworkKey(homeworkId, homework.getClassId()));
+        singleFlight.forget("homework.byId", homeworkKey(homeworkId, null));
         LOGGER.info("Homework with ID: {} deleted successfully.", homeworkId);
+        changeLogService.recordClassChange(homework.getClassId(), ChangeLogService.HOMEWORK,
+                homeworkId, ChangeLogService.DELETED);
+    }
+
+    // A lookup scoped to one class must not share a result with a lookup in another, or in every class
+    private static String homeworkKey(String homeworkId, String classId) {
+        return classId == null || classId.isEmpty() ? homeworkId : classId + "/" + homeworkId;
+    }
+
+    // Older clients do not send the classId; their lookups go to every shard
+    private Optional<Homework> findHomework(String homeworkId, String classId) {
+        return classId == null || classId.isEmpty()
+                ? homeworkRepository.findById(homeworkId)
+                : homeworkRepository.findByIdAndClassId(homeworkId, classId);
     }
-}
\ No newline at end of file
+}
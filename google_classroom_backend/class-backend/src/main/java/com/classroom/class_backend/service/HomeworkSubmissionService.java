@@ -4,6 +4,7 @@ import com.classroom.class_backend.model.Homework;
 import com.classroom.class_backend.model.HomeworkSubmission;
 import com.classroom.class_backend.repository.HomeworkRepository;
 import com.classroom.class_backend.repository.HomeworkSubmissionRepository;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +17,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Service
+@Observed(name = "classroom.service")
 public class HomeworkSubmissionService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HomeworkSubmissionService.class);
@@ -26,18 +28,16 @@ public class HomeworkSubmissionService {
     @Autowired
     private HomeworkRepository homeworkRepository;
 
+    @Autowired
+    private ChangeLogService changeLogService;
+
     public HomeworkSubmission submitHomework(HomeworkSubmission submission) {
         LOGGER.info("Submitting homework for homeworkId: {}, userId: {}", submission.getHomeworkId(),
                 submission.getUserId());
 
         validateSubmission(submission);
 
-        Homework homework = homeworkRepository.findById(submission.getHomeworkId())
-                .orElseThrow(() -> new IllegalArgumentException("Homework not found."));
-
-        if (!homework.getClassId().equals(submission.getClassId())) {
-            throw new IllegalArgumentException("Class ID does not match the homework's class.");
-        }
+        Homework homework = findHomework(submission);
 
         LocalDateTime dueDate = homework.getDueDate();
         LocalDateTime currentDate = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
@@ -45,7 +45,8 @@ public class HomeworkSubmissionService {
             throw new IllegalArgumentException("Cannot submit homework after the due date.");
         }
 
-        if (submissionRepository.existsByHomeworkIdAndUserId(submission.getHomeworkId(), submission.getUserId())) {
+        if (submissionRepository.existsByClassIdAndHomeworkIdAndUserId(submission.getClassId(),
+                submission.getHomeworkId(), submission.getUserId())) {
             throw new IllegalArgumentException(
                     "You have already submitted this homework. Use reupload to update your submission.");
         }
@@ -56,6 +57,8 @@ public class HomeworkSubmissionService {
 
         HomeworkSubmission savedSubmission = submissionRepository.save(submission);
         LOGGER.info("Homework submission saved successfully with ID: {}", savedSubmission.getId());
+        changeLogService.recordClassChange(savedSubmission.getClassId(), ChangeLogService.SUBMISSION,
+                savedSubmission.getId(), ChangeLogService.CREATED);
         return savedSubmission;
     }
 
@@ -65,12 +68,7 @@ public class HomeworkSubmissionService {
 
         validateSubmission(submission);
 
-        Homework homework = homeworkRepository.findById(submission.getHomeworkId())
-                .orElseThrow(() -> new IllegalArgumentException("Homework not found."));
-
-        if (!homework.getClassId().equals(submission.getClassId())) {
-            throw new IllegalArgumentException("Class ID does not match the homework's class.");
-        }
+        Homework homework = findHomework(submission);
 
         LocalDateTime dueDate = homework.getDueDate();
         LocalDateTime currentDate = LocalDateTime.now(ZoneId.of("Asia/Kolkata"));
@@ -95,6 +93,8 @@ public class HomeworkSubmissionService {
 
         HomeworkSubmission savedSubmission = submissionRepository.save(updatedSubmission);
         LOGGER.info("Homework submission updated successfully with ID: {}", savedSubmission.getId());
+        changeLogService.recordClassChange(savedSubmission.getClassId(), ChangeLogService.SUBMISSION,
+                savedSubmission.getId(), ChangeLogService.UPDATED);
         return savedSubmission;
     }
 
@@ -117,6 +117,12 @@ public class HomeworkSubmissionService {
         return submissionRepository.findByClassIdAndUserId(classId, userId);
     }
 
+    // Looked up together with the classId so the query goes to a single shard
+    private Homework findHomework(HomeworkSubmission submission) {
+        return homeworkRepository.findByIdAndClassId(submission.getHomeworkId(), submission.getClassId())
+                .orElseThrow(() -> new IllegalArgumentException("Homework not found in this class."));
+    }
+
     private void validateSubmission(HomeworkSubmission submission) {
         if (submission.getHomeworkId() == null || submission.getHomeworkId().isEmpty()) {
             throw new IllegalArgumentException("Homework ID is required.");
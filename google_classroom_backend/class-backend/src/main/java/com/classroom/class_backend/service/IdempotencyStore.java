@@ -0,0 +1,21 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.IdempotencyRecord;
+
+/**
+ * Key to response store backing the Idempotency-Key filter.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserves the key for a new request. Returns null when the caller now owns the key,
+     * otherwise the existing record (completed or still in flight).
+     */
+    IdempotencyRecord reserve(String key, String fingerprint);
+
+    void complete(String key, int status, String contentType, byte[] body);
+
+    void release(String key);
+
+    long size();
+}
@@ -0,0 +1,115 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.IdempotencyRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnProperty(name = "classroom.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final long ttlNanos;
+
+    private final int maxEntriesPerStripe;
+
+    public InMemoryIdempotencyStore(
+            @Value("${classroom.idempotency.ttl:24h}") Duration ttl,
+            @Value("${classroom.idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public IdempotencyRecord reserve(String key, String fingerprint) {
+        Stripe stripe = stripeFor(key);
+        long now = System.nanoTime();
+        synchronized (stripe) {
+            // Looked up before evicting, so a full stripe never evicts the key being repeated
+            Entry existing = stripe.entries.get(key);
+            if (existing != null && existing.expiresAt - now > 0) {
+                return existing.record;
+            }
+            stripe.entries.remove(key);
+            stripe.evict(now);
+            IdempotencyRecord record = new IdempotencyRecord(key, fingerprint, Instant.now());
+            stripe.entries.put(key, new Entry(record, now + ttlNanos));
+            return null;
+        }
+    }
+
+    @Override
+    public void complete(String key, int status, String contentType, byte[] body) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null) {
+                // Readers hold the in-flight record outside the lock, so it is replaced, not changed
+                stripe.entries.put(key, new Entry(entry.record.completed(status, contentType, body), entry.expiresAt));
+            }
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.entries.remove(key);
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Entry {
+        final IdempotencyRecord record;
+        final long expiresAt;
+
+        Entry(IdempotencyRecord record, long expiresAt) {
+            this.record = record;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Insertion order equals expiry order, so expired entries are always at the head.
+    private final class Stripe {
+        final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        void evict(long now) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Entry head = it.next().getValue();
+                if (head.expiresAt - now > 0 && entries.size() < maxEntriesPerStripe) {
+                    break;
+                }
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Lease;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Leases for the inmemory profile, where there is only ever one instance. Same semantics as
+ * MongoLeaseStore so the leader-only paths still run the way they do in production.
+ */
+@Service
+@Profile("inmemory")
+public class InMemoryLeaseStore implements LeaseStore {
+
+    private final Map<String, Lease> leases = new HashMap<>();
+
+    @Override
+    public synchronized Lease acquire(String name, String owner, Duration duration) {
+        long now = System.currentTimeMillis();
+        Lease lease = leases.get(name);
+        if (lease != null && !lease.getOwner().equals(owner) && lease.getExpiresAt().getTime() > now) {
+            return null;
+        }
+        long fencingToken = lease == null ? 1 : lease.getOwner().equals(owner) ? lease.getFencingToken() : lease.getFencingToken() + 1;
+        Lease acquired = new Lease(name, owner, fencingToken, new Date(now + duration.toMillis()));
+        acquired.setCompletedToken(lease == null ? null : lease.getCompletedToken());
+        leases.put(name, acquired);
+        return copy(acquired);
+    }
+
+    @Override
+    public synchronized boolean isCurrent(String name, long fencingToken) {
+        Lease lease = leases.get(name);
+        return lease != null && lease.getFencingToken() == fencingToken
+            && lease.getExpiresAt().getTime() > System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void release(String name, String owner) {
+        Lease lease = leases.get(name);
+        if (lease != null && lease.getOwner().equals(owner)) {
+            lease.setExpiresAt(new Date());
+        }
+    }
+
+    @Override
+    public synchronized void complete(String name, String owner, long fencingToken) {
+        Lease lease = leases.get(name);
+        if (lease != null && lease.getOwner().equals(owner) && lease.getFencingToken() == fencingToken) {
+            lease.setExpiresAt(new Date());
+            lease.setCompletedToken(fencingToken);
+        }
+    }
+
+    @Override
+    public synchronized Lease find(String name) {
+        Lease lease = leases.get(name);
+        return lease == null ? null : copy(lease);
+    }
+
+    private static Lease copy(Lease lease) {
+        Lease copy = new Lease(lease.getId(), lease.getOwner(), lease.getFencingToken(), lease.getExpiresAt());
+        copy.setCompletedToken(lease.getCompletedToken());
+        return copy;
+    }
+}
@@ -0,0 +1,80 @@
+package com.classroom.class_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reset tokens recently found to be unknown, expired or already used, so the same stale link
+ * submitted again is refused without a query. Safe to keep for minutes: tokens are random UUIDs
+ * that are never reissued, so a token that is not valid now never becomes valid later.
+ */
+@Service
+public class InvalidResetTokenCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${classroom.password-reset.negative-cache-ttl:10m}")
+    private Duration ttl;
+
+    @Value("${classroom.password-reset.negative-cache-max-entries:10000}")
+    private int maxEntries;
+
+    // Token to System.nanoTime() when it was found invalid
+    private final Map<String, Long> invalid = new ConcurrentHashMap<>();
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("classroom.reset_tokens.negative_cache.size", invalid, Map::size)
+            .register(meterRegistry);
+        hits = Counter.builder("classroom.reset_tokens.negative_cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("classroom.reset_tokens.negative_cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public boolean isKnownInvalid(String token) {
+        Long since = invalid.get(token);
+        if (since != null && System.nanoTime() - since < ttl.toNanos()) {
+            hits.increment();
+            return true;
+        }
+        if (since != null) {
+            invalid.remove(token, since);
+        }
+        misses.increment();
+        return false;
+    }
+
+    public void markInvalid(String token) {
+        if (invalid.size() >= maxEntries) {
+            evictOne();
+        }
+        invalid.put(token, System.nanoTime());
+    }
+
+    // For a token put back after it was found used up
+    public void forget(String token) {
+        invalid.remove(token);
+    }
+
+    // Not LRU: a full cache means a flood of distinct tokens, which the cache cannot help with anyway
+    private void evictOne() {
+        Iterator<String> tokens = invalid.keySet().iterator();
+        if (tokens.hasNext()) {
+            invalid.remove(tokens.next());
+        }
+    }
+}
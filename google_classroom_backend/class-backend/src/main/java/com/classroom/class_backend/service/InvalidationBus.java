@@ -0,0 +1,78 @@
+package com.classroom.class_backend.service;
+
+import org.bson.Document;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tells in-process caches about writes made by any backend instance, this one included. The
+ * events come from ChangeStreamInvalidator; caches subscribe per collection and evict (or refresh)
+ * the entries an event touches. An entry may only be kept indefinitely if {@link #covers} says the
+ * stream was open before it was read; otherwise (standalone Mongo, inmemory profile, a broken
+ * stream) caches fall back to short TTLs. Whenever the stream opens or breaks every cache is reset,
+ * because events may have been missed in between.
+ *
+ * Listeners run on the change stream thread and must not block.
+ */
+@Service
+public class InvalidationBus {
+
+    public interface Listener {
+
+        /**
+         * @param id     the document's _id, as the String id the models use
+         * @param fields the classId / classCode / userId / seq fields of the document when the event carries
+         *               them (not for deletes)
+         */
+        void invalidate(String id, Document fields);
+    }
+
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private final List<Runnable> resetListeners = new CopyOnWriteArrayList<>();
+
+    // System.nanoTime() when the stream opened, or Long.MAX_VALUE while it is down
+    private volatile long liveSince = Long.MAX_VALUE;
+
+    public void subscribe(String collection, Listener listener) {
+        listeners.computeIfAbsent(collection, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /** The collections some cache has subscribed to; the change stream watches only these. */
+    public Set<String> collections() {
+        return Set.copyOf(listeners.keySet());
+    }
+
+    public void onReset(Runnable listener) {
+        resetListeners.add(listener);
+    }
+
+    public boolean isLive() {
+        return liveSince != Long.MAX_VALUE;
+    }
+
+    /** Whether every change after a read started at readAtNanos (System.nanoTime()) will be published. */
+    public boolean covers(long readAtNanos) {
+        return readAtNanos >= liveSince;
+    }
+
+    void publish(String collection, String id, Document fields) {
+        for (Listener listener : listeners.getOrDefault(collection, List.of())) {
+            listener.invalidate(id, fields);
+        }
+    }
+
+    void setLive(boolean live) {
+        liveSince = live ? System.nanoTime() : Long.MAX_VALUE;
+        reset();
+    }
+
+    void reset() {
+        resetListeners.forEach(Runnable::run);
+    }
+}
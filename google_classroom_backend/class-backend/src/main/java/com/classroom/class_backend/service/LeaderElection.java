@@ -0,0 +1,218 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Lease;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lease-based leader election for jobs that must run on one instance only (see {@link LeaderOnly}).
+ * A lease is held for lease-duration and renewed every renew-interval while this instance is up;
+ * if the instance dies, another one takes the lease over once it expires, with a higher fencing
+ * token. On shutdown held leases are released so followers do not have to wait for the expiry.
+ * One-shot jobs ({@link LeaderOnly#once()}) release theirs when they finish, and are retried by the
+ * instances that skipped them until one run has completed.
+ *
+ * A leader that stalls (GC pause, lost network) may still be running a job after its lease has
+ * passed to another instance. Jobs that write should call {@link #checkLease()} before each batch:
+ * it fails once the lease has expired locally or its fencing token is no longer the current one.
+ */
+@Service
+public class LeaderElection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeaderElection.class);
+
+    static final ThreadLocal<Leadership> CURRENT = new ThreadLocal<>();
+
+    @Autowired
+    private LeaseStore leaseStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // false runs every @LeaderOnly job on every instance
+    @Value("${classroom.leader.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classroom.leader.lease-duration:30s}")
+    private Duration leaseDuration;
+
+    // Defaults to host:port:pid; must be unique per running instance
+    @Value("${classroom.leader.instance-id:}")
+    private String instanceId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    private final Map<String, Held> held = new ConcurrentHashMap<>();
+
+    // One-shot jobs skipped here while another instance held their lease, by lease name
+    private final Map<String, Deferred> deferred = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = hostName() + ":" + serverPort + ":" + ProcessHandle.current().pid();
+        }
+        Gauge.builder("classroom.leader.leases", held, Map::size)
+            .description("Leases this instance currently holds")
+            .register(meterRegistry);
+        LOGGER.info("Leader election {} as {} with {} leases", enabled ? "enabled" : "disabled", instanceId, leaseDuration);
+    }
+
+    /**
+     * Acquires or renews the named lease. Returns its fencing token, or null when another
+     * instance holds it.
+     */
+    public Long acquire(String name) {
+        if (!enabled) {
+            return 0L;
+        }
+        // Measured from before the request, so the local view never outlives the stored lease
+        long start = System.nanoTime();
+        Lease lease = leaseStore.acquire(name, instanceId, leaseDuration);
+        if (lease == null) {
+            if (held.remove(name) != null) {
+                LOGGER.warn("Lost lease {} to another instance", name);
+            }
+            return null;
+        }
+        Held previous = held.put(name, new Held(lease.getFencingToken(), start + leaseDuration.toNanos()));
+        if (previous == null || previous.fencingToken != lease.getFencingToken()) {
+            LOGGER.info("Acquired lease {} with fencing token {}", name, lease.getFencingToken());
+        }
+        return lease.getFencingToken();
+    }
+
+    public boolean isLeader(String name) {
+        if (!enabled) {
+            return true;
+        }
+        Held lease = held.get(name);
+        return lease != null && System.nanoTime() - lease.validUntil < 0;
+    }
+
+    /**
+     * Inside a {@link LeaderOnly} method: throws IllegalStateException when this instance may no
+     * longer be the only one running it. Does nothing elsewhere.
+     */
+    public void checkLease() {
+        Leadership current = CURRENT.get();
+        if (current == null || !enabled) {
+            return;
+        }
+        Held lease = held.get(current.name());
+        if (lease == null || lease.fencingToken != current.fencingToken() || !isLeader(current.name())
+                || !leaseStore.isCurrent(current.name(), current.fencingToken())) {
+            throw new IllegalStateException("Lease " + current.name() + " with fencing token "
+                + current.fencingToken() + " is no longer held");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${classroom.leader.renew-interval:10s}")
+    public void renew() {
+        for (String name : held.keySet()) {
+            try {
+                acquire(name);
+            } catch (Exception e) {
+                // The lease lapses locally at validUntil unless a later renewal gets through
+                LOGGER.warn("Failed to renew lease {}: {}", name, e.getMessage());
+            }
+        }
+        retryDeferred();
+    }
+
+    /**
+     * Records a one-shot job skipped because another instance holds its lease; it is retried
+     * until a run under the holder's fencing token, or a later one, completes.
+     */
+    void defer(String name, Runnable retry) {
+        if (!enabled || deferred.containsKey(name)) {
+            return;
+        }
+        Lease lease = leaseStore.find(name);
+        deferred.put(name, new Deferred(lease == null ? 0 : lease.getFencingToken(), retry));
+    }
+
+    /** Ends a one-shot job's run: releases its lease, recording the run as complete if it returned. */
+    void finish(String name, long fencingToken, boolean completed) {
+        deferred.remove(name);
+        if (!enabled || held.remove(name) == null) {
+            return;
+        }
+        try {
+            if (completed) {
+                leaseStore.complete(name, instanceId, fencingToken);
+            } else {
+                leaseStore.release(name, instanceId);
+            }
+            LOGGER.info("Released lease {} after its job {}", name, completed ? "completed" : "failed");
+        } catch (Exception e) {
+            LOGGER.warn("Failed to release lease {}; it expires on its own: {}", name, e.getMessage());
+        }
+    }
+
+    private void retryDeferred() {
+        deferred.forEach((name, job) -> {
+            try {
+                Lease lease = leaseStore.find(name);
+                if (lease != null && lease.getCompletedToken() != null && lease.getCompletedToken() >= job.sinceToken) {
+                    LOGGER.info("{} completed on another instance", name);
+                    deferred.remove(name);
+                    return;
+                }
+                job.retry.run();
+            } catch (Exception e) {
+                LOGGER.warn("Retry of {} failed: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        for (String name : held.keySet()) {
+            try {
+                leaseStore.release(name, instanceId);
+                LOGGER.info("Released lease {}", name);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to release lease {}; it expires on its own: {}", name, e.getMessage());
+            }
+        }
+        held.clear();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+
+    record Leadership(String name, long fencingToken) {}
+
+    private record Deferred(long sinceToken, Runnable retry) {}
+
+    private static final class Held {
+        final long fencingToken;
+        final long validUntil;
+
+        Held(long fencingToken, long validUntil) {
+            this.fencingToken = fencingToken;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.classroom.class_backend.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method only on the instance that holds the named lease (see
+ * {@link LeaderElection}); on every other instance the call returns immediately (null for
+ * non-void methods). Meant for @Scheduled jobs, which keep their lease between runs and fail over
+ * on the next run after the leader's lease expires, and for one-shot ApplicationReadyEvent
+ * listeners marked {@link #once()}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeaderOnly {
+
+    /** Lease name, shared by all instances; defaults to ClassName.methodName. */
+    String value() default "";
+
+    /**
+     * A job that is done once it returns: its lease is released as soon as it finishes, and an
+     * instance that skipped it retries every renew-interval until a run that started no earlier
+     * than its own skip has completed, so the job is not lost if its leader dies part way. An
+     * instance starting later, when no other holds the lease, runs it again: such jobs must be
+     * idempotent.
+     */
+    boolean once() default false;
+}
@@ -0,0 +1,60 @@
+package com.classroom.class_backend.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class LeaderOnlyAspect {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeaderOnlyAspect.class);
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Around("@annotation(leaderOnly)")
+    public Object runIfLeader(ProceedingJoinPoint joinPoint, LeaderOnly leaderOnly) throws Throwable {
+        String name = leaderOnly.value().isEmpty()
+            ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+            : leaderOnly.value();
+        Long fencingToken = leaderElection.acquire(name);
+        if (fencingToken == null) {
+            LOGGER.info("Skipping {}: another instance holds its lease", name);
+            if (leaderOnly.once()) {
+                // Spring's join points can be proceeded again, each time through the rest of the chain
+                leaderElection.defer(name, () -> {
+                    try {
+                        runIfLeader(joinPoint, leaderOnly);
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            return null;
+        }
+        LeaderElection.Leadership previous = LeaderElection.CURRENT.get();
+        LeaderElection.CURRENT.set(new LeaderElection.Leadership(name, fencingToken));
+        boolean completed = false;
+        try {
+            Object result = joinPoint.proceed();
+            completed = true;
+            return result;
+        } finally {
+            if (leaderOnly.once()) {
+                leaderElection.finish(name, fencingToken, completed);
+            }
+            if (previous == null) {
+                LeaderElection.CURRENT.remove();
+            } else {
+                LeaderElection.CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Lease;
+
+import java.time.Duration;
+
+/**
+ * Shared store of the leases behind LeaderElection.
+ */
+public interface LeaseStore {
+
+    /**
+     * Renews the lease when owner holds it, or takes it over when it is free or expired (with a
+     * new fencing token). Returns null when another owner holds an unexpired lease.
+     */
+    Lease acquire(String name, String owner, Duration duration);
+
+    /** Whether fencingToken is still the token of an unexpired lease. */
+    boolean isCurrent(String name, long fencingToken);
+
+    /** Lets the lease expire now if owner holds it; the fencing token is kept. */
+    void release(String name, String owner);
+
+    /** Releases the lease if owner holds it under fencingToken, recording that token as completed. */
+    void complete(String name, String owner, long fencingToken);
+
+    /** The lease as stored, or null when it was never acquired. */
+    Lease find(String name);
+}
@@ -0,0 +1,91 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.IdempotencyRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Shared store for multi-instance deployments. Expiry is delegated to a TTL index on createdAt.
+ */
+@Service
+@ConditionalOnProperty(name = "classroom.idempotency.store", havingValue = "mongo")
+public class MongoIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIdempotencyStore.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${classroom.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    // An in-flight reservation older than this is treated as abandoned by a crashed instance
+    @Value("${classroom.idempotency.in-flight-timeout:60s}")
+    private Duration inFlightTimeout;
+
+    @PostConstruct
+    public void initIndexes() {
+        mongoTemplate.indexOps(IdempotencyRecord.class).ensureIndex(
+            new Index().on("createdAt", Sort.Direction.ASC).expire(ttl));
+    }
+
+    @Override
+    public IdempotencyRecord reserve(String key, String fingerprint) {
+        Instant now = Instant.now();
+        try {
+            mongoTemplate.insert(new IdempotencyRecord(key, fingerprint, now));
+            return null;
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(key, IdempotencyRecord.class);
+            if (existing == null) {
+                return reserve(key, fingerprint);
+            }
+            if (existing.isInFlight() && existing.getCreatedAt().isBefore(now.minus(inFlightTimeout))) {
+                Query abandoned = new Query(Criteria.where("_id").is(key)
+                    .and("status").is(0)
+                    .and("createdAt").is(existing.getCreatedAt()));
+                Update takeOver = new Update().set("fingerprint", fingerprint).set("createdAt", now);
+                if (mongoTemplate.updateFirst(abandoned, takeOver, IdempotencyRecord.class).getModifiedCount() == 1) {
+                    LOGGER.warn("Took over abandoned idempotency key: {}", key);
+                    return null;
+                }
+                return mongoTemplate.findById(key, IdempotencyRecord.class);
+            }
+            return existing;
+        }
+    }
+
+    @Override
+    public void complete(String key, int status, String contentType, byte[] body) {
+        Update update = new Update()
+            .set("status", status)
+            .set("contentType", contentType)
+            .set("body", body);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(key)), update, IdempotencyRecord.class);
+    }
+
+    @Override
+    public void release(String key) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(key)), IdempotencyRecord.class);
+    }
+
+    @Override
+    public long size() {
+        return mongoTemplate.estimatedCount(IdempotencyRecord.class);
+    }
+}
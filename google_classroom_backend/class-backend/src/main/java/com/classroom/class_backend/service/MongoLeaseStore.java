@@ -0,0 +1,109 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Lease;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Leases in the leases collection. Expiry is computed and compared with $$NOW, so only the
+ * database server's clock matters, not the (possibly skewed) clocks of the instances. Writes use
+ * majority write concern: a lease acknowledged by a primary that is then rolled back could be
+ * granted twice.
+ */
+@Service
+@Profile("!inmemory")
+public class MongoLeaseStore implements LeaseStore {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Lease acquire(String name, String owner, Duration duration) {
+        Document renewed = leases().findOneAndUpdate(
+            Filters.and(Filters.eq("_id", name), Filters.eq("owner", owner)),
+            List.of(new Document("$set", new Document("expiresAt", expiresAt(duration)))),
+            new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        if (renewed != null) {
+            return toLease(renewed);
+        }
+        // Free or expired: take it over with the next fencing token, creating it on first use
+        try {
+            Document taken = leases().findOneAndUpdate(
+                Filters.and(Filters.eq("_id", name), expired()),
+                List.of(new Document("$set", new Document("owner", owner)
+                    .append("expiresAt", expiresAt(duration))
+                    .append("fencingToken", new Document("$add",
+                        List.of(new Document("$ifNull", List.of("$fencingToken", 0L)), 1L))))),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+            return taken == null ? null : toLease(taken);
+        } catch (MongoCommandException | MongoWriteException e) {
+            if (isDuplicateKey(e)) {
+                // The lease exists and has not expired, so the upsert tried to insert a second one
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isCurrent(String name, long fencingToken) {
+        return leases().countDocuments(Filters.and(Filters.eq("_id", name), Filters.eq("fencingToken", fencingToken),
+            Filters.expr(new Document("$gt", List.of("$expiresAt", "$$NOW"))))) > 0;
+    }
+
+    @Override
+    public void release(String name, String owner) {
+        leases().updateOne(Filters.and(Filters.eq("_id", name), Filters.eq("owner", owner)),
+            List.of(new Document("$set", new Document("expiresAt", "$$NOW"))));
+    }
+
+    @Override
+    public void complete(String name, String owner, long fencingToken) {
+        leases().updateOne(Filters.and(Filters.eq("_id", name), Filters.eq("owner", owner),
+                Filters.eq("fencingToken", fencingToken)),
+            List.of(new Document("$set", new Document("expiresAt", "$$NOW").append("completedToken", fencingToken))));
+    }
+
+    @Override
+    public Lease find(String name) {
+        Document lease = leases().find(Filters.eq("_id", name)).first();
+        return lease == null ? null : toLease(lease);
+    }
+
+    private MongoCollection<Document> leases() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Lease.class))
+            .withWriteConcern(WriteConcern.MAJORITY);
+    }
+
+    private static Document expiresAt(Duration duration) {
+        return new Document("$add", List.of("$$NOW", duration.toMillis()));
+    }
+
+    private static Bson expired() {
+        return Filters.expr(new Document("$lte", List.of(new Document("$ifNull", List.of("$expiresAt", new Date(0))), "$$NOW")));
+    }
+
+    private static boolean isDuplicateKey(MongoException e) {
+        return e.getCode() == 11000 || e instanceof MongoWriteException write && write.getError().getCode() == 11000;
+    }
+
+    private Lease toLease(Document document) {
+        return mongoTemplate.getConverter().read(Lease.class, document);
+    }
+}
@@ -0,0 +1,250 @@
+package com.classroom.class_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt hashing and verification, run on a pool of one platform thread per core with a bounded
+ * queue. Request handlers run on virtual threads, which would otherwise all hash at once and take
+ * every carrier thread with them; here they park until their turn while other requests keep being
+ * served. A request that cannot be queued, or waits longer than queue-timeout, fails with
+ * PasswordHasher.BusyException, which the controllers turn into 503 with Retry-After.
+ *
+ * The cost factor is calibrated at startup to the highest that hashes within target-time on this
+ * machine (never below min-cost), and re-evaluated from the measured verification times, so a
+ * move to slower or faster hardware moves the cost with it. Stored hashes with a lower cost than
+ * the current one, and the plaintext passwords stored before hashing existed, are rehashed at the
+ * next successful login.
+ */
+@Service
+public class PasswordHasher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./A-Za-z0-9]{53}$");
+
+    // BCrypt supports 4 to 31; past 16 a single hash takes seconds on any current CPU
+    private static final int MAX_COST = 16;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one per available processor
+    @Value("${classroom.password.threads:0}")
+    private int threads;
+
+    @Value("${classroom.password.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${classroom.password.queue-timeout:5s}")
+    private Duration queueTimeout;
+
+    @Value("${classroom.password.target-time:100ms}")
+    private Duration targetTime;
+
+    @Value("${classroom.password.min-cost:10}")
+    private int minCost;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicInteger cost = new AtomicInteger();
+
+    // Mean verification time at the current cost, in nanoseconds; 0 until a verification is measured
+    private volatile double meanNanos;
+
+    private Timer queueTime;
+
+    private Timer hashTime;
+
+    private Timer verifyTime;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        cost.set(calibrate());
+        queueTime = Timer.builder("classroom.password.queue")
+            .description("Time password work waits for a hashing thread")
+            .register(meterRegistry);
+        hashTime = Timer.builder("classroom.password.work").tag("operation", "hash").register(meterRegistry);
+        verifyTime = Timer.builder("classroom.password.work").tag("operation", "verify").register(meterRegistry);
+        rejected = Counter.builder("classroom.password.rejected")
+            .description("Password work refused because the hashing queue was full or too slow")
+            .register(meterRegistry);
+        Gauge.builder("classroom.password.queued", executor, pool -> pool.getQueue().size())
+            .register(meterRegistry);
+        Gauge.builder("classroom.password.cost", cost, AtomicInteger::get)
+            .description("BCrypt cost factor for new hashes")
+            .register(meterRegistry);
+        LOGGER.info("Password hashing on {} threads with BCrypt cost {} (target {})", threads, cost.get(), targetTime);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String hash(String password) {
+        int hashCost = cost.get();
+        return run(hashTime, () -> BCrypt.hashpw(password, BCrypt.gensalt(hashCost)));
+    }
+
+    /** Checks password against a stored BCrypt hash, or a stored plaintext password from before hashing. */
+    public boolean matches(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(stored);
+        if (!matcher.matches()) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        int storedCost = Integer.parseInt(matcher.group(1));
+        return run(verifyTime, () -> {
+            long start = System.nanoTime();
+            boolean matches = BCrypt.checkpw(password, stored);
+            if (storedCost == cost.get()) {
+                record(System.nanoTime() - start);
+            }
+            return matches;
+        });
+    }
+
+    public boolean isHash(String stored) {
+        return stored != null && BCRYPT_HASH.matcher(stored).matches();
+    }
+
+    /** Plaintext, or hashed at a lower cost than new hashes get. Costs are never lowered by rehashing. */
+    public boolean needsRehash(String stored) {
+        Matcher matcher = BCRYPT_HASH.matcher(stored);
+        return !matcher.matches() || Integer.parseInt(matcher.group(1)) < cost.get();
+    }
+
+    public int cost() {
+        return cost.get();
+    }
+
+    // Each step doubles the work; moves by one at a time, and only when well outside the target
+    @Scheduled(initialDelayString = "${classroom.password.adapt-interval:5m}",
+        fixedDelayString = "${classroom.password.adapt-interval:5m}")
+    public void adapt() {
+        double mean = meanNanos;
+        if (mean == 0) {
+            return;
+        }
+        long target = targetTime.toNanos();
+        int current = cost.get();
+        int next = current;
+        if (mean > 2 * target && current > minCost) {
+            next = current - 1;
+        } else if (mean * 2 < target / 2.0 && current < MAX_COST) {
+            // Only when the next cost would still be within half the target
+            next = current + 1;
+        }
+        if (next != current && cost.compareAndSet(current, next)) {
+            meanNanos = 0;
+            LOGGER.info("BCrypt cost {} -> {}: verifications took {} ms against a {} ms target", current, next,
+                Math.round(mean / 1_000_000), targetTime.toMillis());
+        }
+    }
+
+    private void record(long nanos) {
+        double mean = meanNanos;
+        meanNanos = mean == 0 ? nanos : mean + (nanos - mean) * 0.05;
+    }
+
+    private int calibrate() {
+        long target = targetTime.toNanos();
+        // Warm up once, then time the minimum cost; each further step doubles it
+        BCrypt.hashpw("calibration", BCrypt.gensalt(minCost));
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", BCrypt.gensalt(minCost));
+        long nanos = System.nanoTime() - start;
+        int calibrated = minCost;
+        while (calibrated < MAX_COST && nanos * 2 <= target) {
+            nanos *= 2;
+            calibrated++;
+        }
+        return calibrated;
+    }
+
+    private <T> T run(Timer workTime, Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueTime.record(waited, TimeUnit.NANOSECONDS);
+                // The caller has given up; do not spend a core on it
+                if (waited > queueTimeout.toNanos()) {
+                    return null;
+                }
+                return workTime.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusyException();
+        }
+        try {
+            T result = future.get(queueTimeout.toNanos() + targetTime.toNanos() * 4, TimeUnit.NANOSECONDS);
+            if (result == null) {
+                rejected.increment();
+                throw new BusyException();
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /** Too much password work is queued; the request should be retried shortly. */
+    public static class BusyException extends RuntimeException {
+
+        public BusyException() {
+            super("Server is busy, please retry shortly.");
+        }
+    }
+}
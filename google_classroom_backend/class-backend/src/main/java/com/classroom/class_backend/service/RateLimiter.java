@@ -0,0 +1,300 @@
+package com.classroom.class_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for the endpoints that are worth guessing at: logins, password reset mails and
+ * class joins. Each policy allows capacity requests per key in a burst, refilled evenly over its
+ * period, e.g. classroom.rate-limit.login-email.capacity=10 and .period=5m. Keys are client
+ * addresses (checked in RateLimitFilter, before anything else runs) and emails or user ids
+ * (checked in the controllers, once the body is parsed).
+ *
+ * A bucket is one AtomicLong holding the time its bucket will be full again (the generic cell
+ * rate algorithm, which behaves exactly like a token bucket), updated with compare-and-set, so
+ * checks never lock. Buckets live in striped maps; each stripe also queues its buckets in creation
+ * order, and every new bucket pays for examining the oldest ones: a full bucket is dropped, since a
+ * fresh one behaves the same, a busy one goes to the back of the queue unless the stripe is over
+ * its share of max-buckets, in which case it is dropped anyway. That keeps memory bounded under a
+ * flood of distinct keys at the cost of forgetting the oldest, which only makes limits more lenient.
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+
+    public static final String LOGIN_IP = "login-ip";
+
+    public static final String LOGIN_EMAIL = "login-email";
+
+    public static final String FORGOT_PASSWORD_IP = "forgot-password-ip";
+
+    public static final String FORGOT_PASSWORD_EMAIL = "forgot-password-email";
+
+    public static final String JOIN_IP = "join-ip";
+
+    public static final String JOIN_USER = "join-user";
+
+    private static final int STRIPES = 64;
+
+    // Old buckets examined per new bucket; more than one so the queue shrinks after a burst of keys
+    private static final int SWEEP_STEPS = 2;
+
+    // Per address limits are loose: a whole school can sit behind one NAT address
+    private static final Map<String, Limit> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put(LOGIN_IP, new Limit(600, Duration.ofMinutes(1)));
+        // Failed logins only: UserController refunds the token of a successful one
+        DEFAULTS.put(LOGIN_EMAIL, new Limit(10, Duration.ofMinutes(5)));
+        DEFAULTS.put(FORGOT_PASSWORD_IP, new Limit(60, Duration.ofMinutes(10)));
+        DEFAULTS.put(FORGOT_PASSWORD_EMAIL, new Limit(3, Duration.ofMinutes(15)));
+        DEFAULTS.put(JOIN_IP, new Limit(600, Duration.ofMinutes(1)));
+        DEFAULTS.put(JOIN_USER, new Limit(20, Duration.ofMinutes(1)));
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${classroom.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${classroom.rate-limit.max-buckets:1000000}")
+    private int maxBuckets;
+
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final Map<String, Counter> allowed = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    private Counter idleEvictions;
+
+    private Counter capacityEvictions;
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        DEFAULTS.forEach((policy, defaults) -> {
+            String prefix = "classroom.rate-limit." + policy;
+            Limit limit = new Limit(
+                environment.getProperty(prefix + ".capacity", Integer.class, defaults.capacity),
+                environment.getProperty(prefix + ".period", Duration.class, defaults.period));
+            limits.put(policy, limit);
+            allowed.put(policy, requests(policy, "allowed"));
+            rejected.put(policy, requests(policy, "rejected"));
+        });
+        Gauge.builder("classroom.rate_limit.buckets", this, RateLimiter::size)
+            .description("Token buckets currently held in memory")
+            .register(meterRegistry);
+        idleEvictions = evictions("idle");
+        capacityEvictions = evictions("capacity");
+        LOGGER.info("Rate limiting {} with {}", enabled ? "enabled" : "disabled", limits);
+    }
+
+    /**
+     * Takes a token from the policy's bucket for key.
+     *
+     * @return 0 when the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String policy, String key) {
+        Limit limit = limits.get(policy);
+        if (!enabled || limit == null || key == null || key.isBlank()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long wait = bucket(policy + ':' + key, now).take(limit, now);
+        (wait == 0 ? allowed : rejected).get(policy).increment();
+        return wait;
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire, for policies that only count failed attempts: a
+     * successful login should not use up the account's allowance for wrong passwords.
+     */
+    public void refund(String policy, String key) {
+        Limit limit = limits.get(policy);
+        if (!enabled || limit == null || key == null || key.isBlank()) {
+            return;
+        }
+        String bucketKey = policy + ':' + key;
+        Bucket bucket = stripes[spread(bucketKey.hashCode()) & (STRIPES - 1)].buckets.get(bucketKey);
+        if (bucket != null) {
+            bucket.refund(limit, System.nanoTime());
+        }
+    }
+
+    /** Whole seconds for a Retry-After header, rounded up. */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    // Catches up on buckets left behind by keys that stopped arriving, when no new keys do
+    @Scheduled(fixedDelayString = "${classroom.rate-limit.sweep-interval:1m}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            stripe.sweep(now, stripe.buckets.size());
+        }
+    }
+
+    private Bucket bucket(String key, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        Bucket bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        Bucket created = new Bucket(key, now);
+        bucket = stripe.buckets.putIfAbsent(key, created);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Before queueing it: the new bucket is still full and would be the first to go
+        stripe.sweep(now, SWEEP_STEPS);
+        stripe.order.add(created);
+        return created;
+    }
+
+    private int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private Counter requests(String policy, String result) {
+        return Counter.builder("classroom.rate_limit.requests")
+            .description("Requests checked against a rate limit")
+            .tag("policy", policy)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private Counter evictions(String reason) {
+        return Counter.builder("classroom.rate_limit.evictions")
+            .description("Token buckets dropped from memory")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        // Oldest first; every bucket in buckets is queued exactly once
+        final Queue<Bucket> order = new ConcurrentLinkedQueue<>();
+
+        void sweep(long now, int steps) {
+            for (int i = 0; i < steps; i++) {
+                Bucket oldest = order.poll();
+                if (oldest == null) {
+                    return;
+                }
+                if (oldest.fullAt() - now <= 0) {
+                    // A request that fetched it just before this only gets one token for free
+                    buckets.remove(oldest.key, oldest);
+                    idleEvictions.increment();
+                } else if (buckets.size() > maxBuckets / STRIPES) {
+                    buckets.remove(oldest.key, oldest);
+                    capacityEvictions.increment();
+                } else {
+                    order.add(oldest);
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        final String key;
+
+        // System.nanoTime() at which every token is back; at or before now means the bucket is full
+        final AtomicLong fullAt;
+
+        Bucket(String key, long now) {
+            this.key = key;
+            this.fullAt = new AtomicLong(now);
+        }
+
+        long fullAt() {
+            return fullAt.get();
+        }
+
+        long take(Limit limit, long now) {
+            long interval = limit.interval();
+            // How far fullAt may run ahead of now: capacity - 1 tokens already taken
+            long tolerance = limit.period.toNanos() - interval;
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long ahead = base - now;
+                if (ahead > tolerance) {
+                    return ahead - tolerance;
+                }
+                if (fullAt.compareAndSet(current, base + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        void refund(Limit limit, long now) {
+            while (true) {
+                long current = fullAt.get();
+                // Already full: nothing was taken that has not come back by now
+                if (current - now <= 0) {
+                    return;
+                }
+                long refunded = current - limit.interval();
+                if (fullAt.compareAndSet(current, refunded - now > 0 ? refunded : now)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    record Limit(int capacity, Duration period) {
+
+        Limit {
+            if (capacity < 1 || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Rate limit needs a positive capacity and period");
+            }
+        }
+
+        // Time for one token to come back
+        long interval() {
+            return period.toNanos() / capacity;
+        }
+
+        @Override
+        public String toString() {
+            return capacity + " per " + period;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.classroom.class_backend.service;
+
+/**
+ * What a verified session token says about the caller. Controllers receive it as the
+ * SessionTokenFilter.CLAIMS request attribute, which is absent when the request carried no token.
+ */
+public record SessionClaims(String userId, String role, long expiresAt) {
+
+    /** Whether a request naming userId (or nobody) may proceed as this session's user. */
+    public boolean actsFor(String userId) {
+        return userId == null || userId.isEmpty() || userId.equals(this.userId);
+    }
+
+    public boolean isTeacher() {
+        return "TEACHER".equalsIgnoreCase(role);
+    }
+}
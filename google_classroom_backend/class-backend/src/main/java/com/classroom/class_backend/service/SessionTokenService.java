@@ -0,0 +1,125 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Issues and verifies the session token returned by login: base64url("userId:role:expiresAt")
+ * and a base64url HMAC-SHA256 of it, joined by a dot. Verifying is a MAC over a few dozen bytes,
+ * so requests carrying a token can be authorized without reading the user.
+ *
+ * All instances must share classroom.auth.token-secret (base64, at least 32 bytes). Without it
+ * a random key is generated at startup, and tokens only work on this instance until it restarts.
+ * A token stays valid until it expires: a role change takes effect at the next login.
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${classroom.auth.token-secret:}")
+    private String tokenSecret;
+
+    @Value("${classroom.auth.token-ttl:12h}")
+    private Duration tokenTtl;
+
+    private SecretKeySpec key;
+
+    // Mac is not thread safe, and requests run on virtual threads, so a ThreadLocal would not
+    // outlive the request; idle Macs are pooled here instead, each keyed once
+    private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    public void init() {
+        byte[] secret;
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            LOGGER.warn("classroom.auth.token-secret is not set; session tokens are signed with a random key "
+                + "and will not be accepted by other instances or after a restart");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(tokenSecret.trim());
+            if (secret.length < 32) {
+                throw new IllegalStateException("classroom.auth.token-secret must decode to at least 32 bytes");
+            }
+        }
+        key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    public String issue(User user) {
+        long expiresAt = Instant.now().plus(tokenTtl).getEpochSecond();
+        String payload = ENCODER.encodeToString(
+            (user.getId() + ":" + user.getRole() + ":" + expiresAt).getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /** The token's claims, or null when it is malformed, forged or expired. */
+    public SessionClaims verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        String payload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":");
+            if (fields.length != 3) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(fields[2]);
+            if (Instant.now().getEpochSecond() >= expiresAt) {
+                return null;
+            }
+            return new SessionClaims(fields[0], fields[1], expiresAt);
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or a non-numeric expiry
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        try {
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.config.CausalSession;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonTimestamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: while a query for a key is in flight, further callers
+ * with the same key wait for and share its result instead of issuing their own query.
+ *
+ * Results are shared between callers and must be treated as read-only. A query that started
+ * before a write may miss it, so writers call forget() for the keys they changed: reads that
+ * follow the write then start a query of their own instead of joining the older one.
+ *
+ * Reads routed to a secondary in a CausalSession only see writes up to the session's operation
+ * time, so a caller only joins such a query if it started from the caller's operation time or a
+ * later one; otherwise a client that brought back the time of its own write could be answered
+ * from another client's older read.
+ */
+@Service
+public class SingleFlight {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public <T> T execute(String groupName, Object key, Supplier<T> query) {
+        return execute(groupName, key, false, 0, query);
+    }
+
+    /**
+     * Only joins a query that started at or after notBefore, a System.nanoTime() reading. ETagged
+     * reads pass the time they read the version their ETag is built from, so the body they return
+     * is never older than the ETag.
+     */
+    public <T> T execute(String groupName, Object key, long notBefore, Supplier<T> query) {
+        return execute(groupName, key, true, notBefore, query);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T execute(String groupName, Object key, boolean bounded, long notBefore, Supplier<T> query) {
+        Group group = groups.computeIfAbsent(groupName, this::createGroup);
+        group.calls.increment();
+
+        Call call = new Call(System.nanoTime(), ReadPoint.current());
+        // A query that started too early, or reads too old a snapshot, is left to its own callers;
+        // later callers join this one
+        Call inFlight = group.inFlight.compute(key, (k, running) ->
+            running != null && (!bounded || running.startedAt - notBefore >= 0) && running.readPoint.covers(call.readPoint)
+                ? running : call);
+        if (inFlight != call) {
+            group.coalesced.increment();
+            LOGGER.debug("Joined in-flight {} query for key: {}", groupName, key);
+            try {
+                return (T) inFlight.result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T result = query.get();
+            call.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too, or the waiters would block forever
+            call.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            group.inFlight.remove(key, call);
+        }
+    }
+
+    /** Later callers for key start a new query; callers already waiting keep the one in flight. */
+    public void forget(String groupName, Object key) {
+        Group group = groups.get(groupName);
+        if (group != null) {
+            group.inFlight.remove(key);
+        }
+    }
+
+    private Group createGroup(String name) {
+        Group group = new Group();
+        FunctionCounter.builder("classroom.singleflight.calls", group, g -> g.calls.sum())
+            .tag("group", name)
+            .register(meterRegistry);
+        FunctionCounter.builder("classroom.singleflight.coalesced", group, g -> g.coalesced.sum())
+            .tag("group", name)
+            .description("Calls answered by another caller's in-flight query")
+            .register(meterRegistry);
+        Gauge.builder("classroom.singleflight.inflight", group, g -> g.inFlight.size())
+            .tag("group", name)
+            .register(meterRegistry);
+        return group;
+    }
+
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        groups.forEach((name, group) -> stats.put(name, group.stats()));
+        return stats;
+    }
+
+    public static class Stats {
+        private final long calls;
+        private final long coalesced;
+        private final int inFlight;
+
+        Stats(long calls, long coalesced, int inFlight) {
+            this.calls = calls;
+            this.coalesced = coalesced;
+            this.inFlight = inFlight;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        // Fraction of calls answered by another caller's query
+        public double getCoalescingRatio() {
+            return calls == 0 ? 0.0 : (double) coalesced / calls;
+        }
+    }
+
+    private static final class Call {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final long startedAt;
+        final ReadPoint readPoint;
+
+        Call(long startedAt, ReadPoint readPoint) {
+            this.startedAt = startedAt;
+            this.readPoint = readPoint;
+        }
+    }
+
+    // Where a query reads from: the primary, or a secondary once it has caught up to afterClusterTime
+    private static final class ReadPoint {
+        static final ReadPoint PRIMARY = new ReadPoint(false, null);
+
+        final boolean secondary;
+        // Null when the session has no operation time yet, so the secondary may be arbitrarily behind
+        final BsonTimestamp afterClusterTime;
+
+        ReadPoint(boolean secondary, BsonTimestamp afterClusterTime) {
+            this.secondary = secondary;
+            this.afterClusterTime = afterClusterTime;
+        }
+
+        static ReadPoint current() {
+            CausalSession session = CausalSession.current();
+            if (session == null || session.getReadPreference() == null || !session.getReadPreference().isSecondaryOk()) {
+                return PRIMARY;
+            }
+            return new ReadPoint(true, session.getClientSession().getOperationTime());
+        }
+
+        // Whether a query reading from here sees every write the caller reading from other must see
+        boolean covers(ReadPoint other) {
+            if (!secondary) {
+                return true;
+            }
+            if (!other.secondary) {
+                return false;
+            }
+            return other.afterClusterTime == null
+                || afterClusterTime != null && afterClusterTime.compareTo(other.afterClusterTime) >= 0;
+        }
+    }
+
+    private static final class Group {
+        final Map<Object, Call> inFlight = new ConcurrentHashMap<>();
+        final LongAdder calls = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+
+        Stats stats() {
+            return new Stats(calls.sum(), coalesced.sum(), inFlight.size());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.classroom.class_backend.service;
+
+import com.classroom.class_backend.model.Announcement;
+import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.repository.reactive.ReactiveAnnouncementRepository;
+import com.classroom.class_backend.repository.reactive.ReactiveClassMemberRepository;
+import com.classroom.class_backend.repository.reactive.ReactiveHomeworkRepository;
+import com.classroom.class_backend.repository.reactive.ReactiveHomeworkSubmissionRepository;
+import com.classroom.class_backend.repository.reactive.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads for the large class lists, backed by the reactive Mongo driver. Results are
+ * emitted as the driver's cursor delivers them and only as fast as the subscriber requests them.
+ */
+@Service
+@Profile("!inmemory")
+public class StreamingReadService {
+
+    @Autowired
+    private ReactiveAnnouncementRepository announcementRepository;
+
+    @Autowired
+    private ReactiveHomeworkRepository homeworkRepository;
+
+    @Autowired
+    private ReactiveHomeworkSubmissionRepository submissionRepository;
+
+    @Autowired
+    private ReactiveClassMemberRepository classMemberRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    public Flux<Announcement> getAnnouncementsByClassId(String classId) {
+        return announcementRepository.findByClassId(classId);
+    }
+
+    public Flux<Homework> getHomeworkByClassId(String classId) {
+        return homeworkRepository.findByClassId(classId);
+    }
+
+    public Flux<HomeworkSubmission> getSubmissionsByClassId(String classId) {
+        return submissionRepository.findByClassId(classId);
+    }
+
+    // Member ids have to be known before the user query can start; the users then stream in roll-number order
+    public Flux<User> getStudentsByClassId(String classId) {
+        return classMemberRepository.findByClassId(classId)
+            .map(ClassMember::getUserId)
+            .collectList()
+            .flatMapMany(studentIds -> studentIds.isEmpty()
+                ? Flux.empty()
+                : userRepository.findByIdInAndRole(studentIds, "STUDENT", Sort.by("rollNumber")));
+    }
+}
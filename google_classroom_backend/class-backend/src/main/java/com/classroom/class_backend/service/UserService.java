@@ -9,6 +9,9 @@ import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +24,7 @@ import java.util.Collections;
 import java.util.UUID;
 
 @Service
+@Observed(name = "classroom.service")
 public class UserService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
@@ -35,6 +39,15 @@ public class UserService {
     @Autowired
     private PasswordResetTokenRepository tokenRepository;
 
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private InvalidResetTokenCache invalidResetTokenCache;
+
     public User signUp(User user) throws Exception {
         LOGGER.info("Attempting to sign up user with email: {}", user.getEmail());
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -43,7 +56,7 @@ public class UserService {
         }
         user.setId(UUID.randomUUID().toString()); 
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            user.setPassword(user.getPassword()); 
+            user.setPassword(passwordHasher.hash(user.getPassword()));
         }
         User savedUser = userRepository.save(user);
         LOGGER.info("User signed up successfully: {}", savedUser.getEmail());
@@ -61,10 +74,16 @@ public class UserService {
             LOGGER.warn("User {} signed up with Google, cannot login with password", email);
             throw new Exception("User signed up with Google. Please use Google login.");
         }
-        if (!user.getPassword().equals(password)) { 
+        if (!passwordHasher.matches(password, user.getPassword())) {
             LOGGER.warn("Invalid password for email: {}", email);
             throw new Exception("Invalid password");
         }
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            // Plaintext from before hashing, or a cost below the current one
+            LOGGER.info("Rehashing password for email: {}", email);
+            user.setPassword(passwordHasher.hash(password));
+            userRepository.save(user);
+        }
         LOGGER.info("Login successful for email: {}", email);
         LoginResponse response = new LoginResponse();
         response.setUserId(user.getId());
@@ -79,7 +98,18 @@ public class UserService {
                 .setAudience(Collections.singletonList(googleClientId))
                 .build();
 
-        GoogleIdToken googleIdToken = verifier.verify(token);
+        // Traced separately: the call to Google's certificate endpoint is a frequent source of slow logins
+        Observation verification = Observation.start("classroom.google.verify", observationRegistry);
+        GoogleIdToken googleIdToken;
+        try (Observation.Scope scope = verification.openScope()) {
+            googleIdToken = verifier.verify(token);
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            verification.error(e);
+            throw e;
+        } finally {
+            verification.stop();
+        }
+
         if (googleIdToken == null) {
             throw new IllegalArgumentException("Invalid Google ID token");
         }
@@ -121,8 +151,9 @@ public class UserService {
 
     public User updateUser(User user) {
         LOGGER.info("Updating user with ID: {}", user.getId());
-        if (user.getPassword() != null && !user.getPassword().isEmpty()) {
-            user.setPassword(user.getPassword());
+        // A hash here is the stored one coming back unchanged
+        if (user.getPassword() != null && !user.getPassword().isEmpty() && !passwordHasher.isHash(user.getPassword())) {
+            user.setPassword(passwordHasher.hash(user.getPassword()));
         }
         User updatedUser = userRepository.save(user);
         LOGGER.info("User updated successfully: {}", updatedUser.getEmail());
@@ -142,15 +173,10 @@ public class UserService {
             throw new RuntimeException("User signed up with Google. Password reset is not applicable.");
         }
 
-        PasswordResetToken existingToken = tokenRepository.findByEmail(email);
-        if (existingToken != null) {
-            tokenRepository.delete(existingToken);
-        }
-
+        // Replaces any earlier token for the email, which invalidates its link
         String token = UUID.randomUUID().toString();
         LocalDateTime expiryDate = LocalDateTime.now().plusHours(1);
-        PasswordResetToken passwordResetToken = new PasswordResetToken(token, email, expiryDate);
-        tokenRepository.save(passwordResetToken);
+        tokenRepository.upsertForEmail(email, token, expiryDate);
 
         String resetLink = "http://localhost:3000/reset-password?token=" + token;
         LOGGER.info("Generated password reset link: {}", resetLink);
@@ -159,21 +185,37 @@ public class UserService {
 
     public void resetPassword(String token, String newPassword) {
         LOGGER.info("Resetting password with token: {}", token);
-        PasswordResetToken resetToken = tokenRepository.findByToken(token);
-        if (resetToken == null || resetToken.getExpiryDate().isBefore(LocalDateTime.now())) {
-            LOGGER.warn("Invalid or expired token: {}", token);
+        if (invalidResetTokenCache.isKnownInvalid(token)) {
+            LOGGER.warn("Invalid or expired token (cached): {}", token);
+            throw new RuntimeException("Invalid or expired token.");
+        }
+        // Checked and used up in one findAndRemove, so two concurrent resets cannot both get past it
+        PasswordResetToken resetToken = tokenRepository.consume(token, LocalDateTime.now());
+        if (resetToken == null) {
+            LOGGER.warn("Invalid, expired or used token: {}", token);
+            invalidResetTokenCache.markInvalid(token);
             throw new RuntimeException("Invalid or expired token.");
         }
 
         User user = userRepository.findByEmail(resetToken.getEmail());
         if (user == null) {
             LOGGER.warn("User not found for email: {}", resetToken.getEmail());
+            invalidResetTokenCache.markInvalid(token);
             throw new RuntimeException("User not found.");
         }
 
-        user.setPassword(newPassword); // Store new password as plain text
+        String passwordHash;
+        try {
+            passwordHash = passwordHasher.hash(newPassword);
+        } catch (PasswordHasher.BusyException e) {
+            // A busy hasher leaves the link valid for a retry
+            tokenRepository.restore(resetToken);
+            invalidResetTokenCache.forget(token);
+            throw e;
+        }
+        invalidResetTokenCache.markInvalid(token);
+        user.setPassword(passwordHash);
         updateUser(user);
-        tokenRepository.delete(resetToken);
         LOGGER.info("Password reset successful for email: {}", user.getEmail());
     }
 }
\ No newline at end of file
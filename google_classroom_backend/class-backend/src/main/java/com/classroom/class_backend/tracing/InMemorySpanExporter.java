@@ -0,0 +1,41 @@
+package com.classroom.class_backend.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Collects exported spans in memory so tests can assert on them.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final List<SpanData> finishedSpans = new ArrayList<>();
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        finishedSpans.addAll(spans);
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public synchronized List<SpanData> getFinishedSpans() {
+        return new ArrayList<>(finishedSpans);
+    }
+
+    public synchronized void reset() {
+        finishedSpans.clear();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
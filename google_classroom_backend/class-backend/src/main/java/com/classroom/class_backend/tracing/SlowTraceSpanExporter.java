@@ -0,0 +1,77 @@
+package com.classroom.class_backend.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tail-based sampling: holds the spans of each trace until its local root span ends, then
+ * forwards the whole trace to the delegate only if the root took at least the threshold.
+ */
+public class SlowTraceSpanExporter implements SpanExporter {
+
+    private static final int MAX_PENDING_TRACES = 10_000;
+
+    private final SpanExporter delegate;
+
+    private final long thresholdNanos;
+
+    // Oldest traces are dropped first when roots never arrive (e.g. spans ending on background threads)
+    private final LinkedHashMap<String, List<SpanData>> pending = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<SpanData>> eldest) {
+            return size() > MAX_PENDING_TRACES;
+        }
+    };
+
+    public SlowTraceSpanExporter(SpanExporter delegate, Duration threshold) {
+        this.delegate = delegate;
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    public SpanExporter getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<SpanData> slowTraces = new ArrayList<>();
+        synchronized (pending) {
+            for (SpanData span : spans) {
+                boolean localRoot = !span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote();
+                if (!localRoot) {
+                    pending.computeIfAbsent(span.getTraceId(), traceId -> new ArrayList<>()).add(span);
+                    continue;
+                }
+                List<SpanData> trace = pending.remove(span.getTraceId());
+                if (span.getEndEpochNanos() - span.getStartEpochNanos() >= thresholdNanos) {
+                    if (trace != null) {
+                        slowTraces.addAll(trace);
+                    }
+                    slowTraces.add(span);
+                }
+            }
+        }
+        return slowTraces.isEmpty() ? CompletableResultCode.ofSuccess() : delegate.export(slowTraces);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        synchronized (pending) {
+            pending.clear();
+        }
+        return delegate.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package com.classroom.class_backend.tracing;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class SpanFormatter {
+
+    private SpanFormatter() {}
+
+    static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("traceId", span.getTraceId());
+        fields.put("spanId", span.getSpanId());
+        fields.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        fields.put("name", span.getName());
+        fields.put("startEpochNanos", span.getStartEpochNanos());
+        fields.put("durationMs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0);
+        fields.put("status", span.getStatus().getStatusCode().name());
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        fields.put("attributes", attributes);
+        return fields;
+    }
+}
@@ -0,0 +1,138 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.dto.SyncResponse;
+import com.classroom.class_backend.model.ChangeEvent;
+import com.classroom.class_backend.model.ChangeSequence;
+import com.classroom.class_backend.repository.ChangeEventRepository;
+import com.classroom.class_backend.repository.ChangeSequenceRepository;
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.ClassVersionService;
+import com.classroom.class_backend.service.InvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChangeLogServiceTests {
+
+    private static final String SCOPE = ChangeLogService.classScope("c1");
+
+    private final ChangeEventRepository changeEventRepository = mock(ChangeEventRepository.class);
+
+    private final ChangeSequenceRepository changeSequenceRepository = mock(ChangeSequenceRepository.class);
+
+    private final ChangeLogService changeLogService = new ChangeLogService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(changeLogService, "changeEventRepository", changeEventRepository);
+        ReflectionTestUtils.setField(changeLogService, "changeSequenceRepository", changeSequenceRepository);
+        ReflectionTestUtils.setField(changeLogService, "invalidationBus", new InvalidationBus());
+        ReflectionTestUtils.setField(changeLogService, "pendingGapTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(changeLogService, "versionCacheTtl", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(changeLogService, "coherentVersionCacheTtl", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void failedVersionBumpInvalidatesIssuedETags() {
+        ClassVersionService classVersionService = new ClassVersionService();
+        ReflectionTestUtils.setField(classVersionService, "changeLogService", changeLogService);
+        when(changeSequenceRepository.findById(SCOPE)).thenReturn(Optional.of(new ChangeSequence(SCOPE, 4)));
+        String issued = classVersionService.classETag("c1");
+
+        when(changeSequenceRepository.nextSequence(SCOPE)).thenThrow(new IllegalStateException("primary stepped down"));
+        changeLogService.recordClassChange("c1", ChangeLogService.HOMEWORK, "h5", ChangeLogService.CREATED);
+
+        assertEquals(ChangeLogService.UNKNOWN_VERSION, changeLogService.getVersion(SCOPE));
+        assertFalse(classVersionService.matches(issued, classVersionService.classETag("c1")));
+        assertNotEquals(classVersionService.classETag("c1"), classVersionService.classETag("c1"));
+    }
+
+    @Test
+    void contiguousEventsAreReturned() {
+        events(event(5, 1), event(6, 1));
+
+        SyncResponse changes = changeLogService.getChanges(SCOPE, 4, 10);
+
+        assertEquals(List.of(5L, 6L), seqs(changes));
+        assertEquals(6, changes.getCursor());
+        assertFalse(changes.isResetRequired());
+    }
+
+    @Test
+    void eventsAfterAnInFlightSequenceAreHeldBack() {
+        // 6 is allocated but not inserted yet; 7 already is
+        events(event(5, 1), event(7, 1));
+
+        SyncResponse changes = changeLogService.getChanges(SCOPE, 4, 10);
+
+        assertEquals(List.of(5L), seqs(changes));
+        assertEquals(5, changes.getCursor());
+        assertFalse(changes.isHasMore());
+        assertFalse(changes.isResetRequired());
+    }
+
+    @Test
+    void inFlightSequenceAtTheCursorReturnsNothingYet() {
+        events(event(7, 1));
+
+        SyncResponse changes = changeLogService.getChanges(SCOPE, 5, 10);
+
+        assertTrue(changes.getEvents().isEmpty());
+        assertEquals(5, changes.getCursor());
+        assertFalse(changes.isResetRequired());
+    }
+
+    @Test
+    void lostSequenceRequiresReset() {
+        events(event(7, 120));
+
+        SyncResponse changes = changeLogService.getChanges(SCOPE, 5, 10);
+
+        assertTrue(changes.isResetRequired());
+    }
+
+    @Test
+    void lostSequenceAfterContiguousEventsStopsBeforeIt() {
+        events(event(5, 120), event(7, 120));
+
+        SyncResponse changes = changeLogService.getChanges(SCOPE, 4, 10);
+
+        assertEquals(List.of(5L), seqs(changes));
+        assertTrue(changes.isHasMore());
+        assertFalse(changes.isResetRequired());
+    }
+
+    private void events(ChangeEvent... events) {
+        when(changeEventRepository.findByScopeKeyAndSeqGreaterThanOrderBySeqAsc(eq(SCOPE), anyLong(), any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                long since = invocation.getArgument(1);
+                return List.of(events).stream().filter(event -> event.getSeq() > since).toList();
+            });
+    }
+
+    private static ChangeEvent event(long seq, long secondsAgo) {
+        return new ChangeEvent(SCOPE, seq, ChangeLogService.HOMEWORK, "h" + seq, ChangeLogService.CREATED, "c1",
+            LocalDateTime.now(ZoneId.of("Asia/Kolkata")).minusSeconds(secondsAgo));
+    }
+
+    private static List<Long> seqs(SyncResponse changes) {
+        return changes.getEvents().stream().map(ChangeEvent::getSeq).toList();
+    }
+}
@@ -0,0 +1,75 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.ClassBackendApplication;
+import com.classroom.class_backend.repository.ResumeTokenRepository;
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.InvalidationBus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Needs a replica set, a single node is enough:
+ *   mongod --replSet rs0 --dbpath /tmp/rs0 && mongosh --eval 'rs.initiate()'
+ *   ./mvnw test -Dtest=ChangeStreamInvalidatorTests -Dclassroom.test.replica-set-uri=mongodb://localhost:27017/classroom_test
+ */
+@SpringBootTest(classes = ClassBackendApplication.class, properties = {
+    "spring.data.google.client-id=test",
+    "classroom.invalidation.consumer-id=change-stream-test"
+})
+@EnabledIfSystemProperty(named = "classroom.test.replica-set-uri", matches = ".+")
+class ChangeStreamInvalidatorTests {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private ResumeTokenRepository resumeTokenRepository;
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> System.getProperty("classroom.test.replica-set-uri"));
+    }
+
+    @Test
+    void writeFromAnotherInstanceEvictsCachedVersion() throws InterruptedException {
+        assertTrue(await(invalidationBus::isLive), "change stream did not open");
+        String scope = ChangeLogService.classScope(UUID.randomUUID().toString());
+        assertEquals(0, changeLogService.getVersion(scope));
+
+        // Bypasses this instance's ChangeLogService, like a write made by another instance
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(scope)), new Update().set("seq", 41L), "change_sequences");
+
+        assertTrue(await(() -> changeLogService.getVersion(scope) == 41), "cached version was not refreshed");
+        assertTrue(await(() -> resumeTokenRepository.findById("change-stream-test").isPresent()), "resume token was not saved");
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
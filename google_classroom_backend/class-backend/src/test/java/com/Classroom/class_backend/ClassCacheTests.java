@@ -0,0 +1,91 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.service.ClassCache;
+import com.classroom.class_backend.service.InvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ClassCacheTests {
+
+    private final InvalidationBus invalidationBus = new InvalidationBus();
+
+    private final ClassCache classCache = classCache();
+
+    @Test
+    void readStartedBeforeAnEvictionIsNotCached() {
+        long readAt = System.nanoTime();
+        // A write lands between the read and the put
+        classCache.evict("c1");
+
+        classCache.put(classObj("c1", "CODE0001"), readAt);
+
+        assertNull(classCache.getById("c1"));
+        assertNull(classCache.getByCode("CODE0001"));
+    }
+
+    @Test
+    void readStartedAfterTheEvictionIsCached() {
+        classCache.evict("c1");
+        Class classObj = classObj("c1", "CODE0001");
+
+        classCache.put(classObj, System.nanoTime());
+
+        assertSame(classObj, classCache.getById("c1"));
+        assertSame(classObj, classCache.getByCode("CODE0001"));
+    }
+
+    @Test
+    void readStartedBeforeAResetIsNotCached() {
+        long readAt = System.nanoTime();
+        ReflectionTestUtils.invokeMethod(invalidationBus, "reset");
+
+        classCache.put(classObj("c1", "CODE0001"), readAt);
+
+        assertNull(classCache.getById("c1"));
+    }
+
+    @Test
+    void invalidationEventEvictsTheClassAndItsCode() {
+        classCache.put(classObj("c1", "CODE0001"), System.nanoTime());
+
+        ReflectionTestUtils.invokeMethod(invalidationBus, "publish", "classes", "c1", null);
+
+        assertNull(classCache.getById("c1"));
+        assertNull(classCache.getByCode("CODE0001"));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtlWhileTheStreamIsDown() throws InterruptedException {
+        ReflectionTestUtils.setField(classCache, "ttl", Duration.ofMillis(50));
+        classCache.put(classObj("c1", "CODE0001"), System.nanoTime());
+
+        Thread.sleep(100);
+
+        assertNull(classCache.getById("c1"));
+    }
+
+    private ClassCache classCache() {
+        ClassCache cache = new ClassCache();
+        ReflectionTestUtils.setField(cache, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(cache, "coherentTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        cache.init();
+        return cache;
+    }
+
+    private static Class classObj(String classId, String classCode) {
+        Class classObj = new Class();
+        classObj.setClassId(classId);
+        classObj.setClassCode(classCode);
+        return classObj;
+    }
+}
@@ -0,0 +1,198 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.repository.ClassRepository;
+import com.classroom.class_backend.service.ClassCodeFilter;
+import com.classroom.class_backend.service.InvalidationBus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClassCodeFilterTests {
+
+    private final ClassRepository classRepository = mock(ClassRepository.class);
+
+    private final InvalidationBus invalidationBus = new InvalidationBus();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClassCodeFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        if (filter != null) {
+            filter.shutdown();
+        }
+    }
+
+    @Test
+    void knownCodesAlwaysPassAndUnknownCodesRarelyDo() throws InterruptedException {
+        List<String> known = IntStream.range(0, 10_000).mapToObj(i -> String.format("K%07d", i)).toList();
+        when(classRepository.count()).thenReturn((long) known.size());
+        when(classRepository.streamAllClassCodes()).thenAnswer(invocation -> known.stream().map(ClassCodeFilterTests::classWithCode));
+        filter = classCodeFilter(false);
+        build();
+
+        for (String code : known) {
+            assertTrue(filter.mightExist(code), code + " was built into the filter");
+        }
+        int unknown = 100_000;
+        long falsePositives = IntStream.range(0, unknown)
+            .filter(i -> filter.mightExist(String.format("U%07d", i)))
+            .count();
+        // Sized for twice the current codes at 1%, so well under the configured rate today
+        assertTrue(falsePositives < unknown * 0.01, falsePositives + " false positives in " + unknown);
+        assertEquals(unknown - falsePositives,
+            meterRegistry.get("classroom.class_codes.lookups").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void codeCreatedDuringARebuildIsInTheOldAndTheNewFilter() throws InterruptedException {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(classRepository.count()).thenReturn(1L);
+        when(classRepository.streamAllClassCodes())
+            .thenAnswer(invocation -> Stream.of(classWithCode("OLDCODE1")))
+            .thenAnswer(invocation -> blockingScan(scanning, release, "OLDCODE1"));
+        filter = classCodeFilter(false);
+        build();
+
+        filter.scheduledRebuild();
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        // Created after the scan read past it
+        filter.put("NEWCODE1");
+        assertTrue(filter.mightExist("NEWCODE1"), "the filter in use has the new code");
+        release.countDown();
+
+        assertTrue(await(() -> ReflectionTestUtils.getField(filter, "next") == null), "rebuild did not finish");
+        assertTrue(filter.mightExist("NEWCODE1"), "the rebuilt filter has the new code");
+        assertTrue(filter.mightExist("OLDCODE1"));
+    }
+
+    @Test
+    void everyCodeMightExistUntilTheChangeStreamCoversTheFilter() throws InterruptedException {
+        when(classRepository.count()).thenReturn(1L);
+        when(classRepository.streamAllClassCodes()).thenAnswer(invocation -> Stream.of(classWithCode("OLDCODE1")));
+        filter = classCodeFilter(true);
+        build();
+
+        // Another instance may have created it, and the stream that would have said so is down
+        assertTrue(filter.mightExist("UNKNOWN1"));
+        assertEquals(1, meterRegistry.get("classroom.class_codes.lookups").tag("result", "untrusted").counter().count());
+
+        // Opening the stream resets the bus, which rebuilds the filter under it
+        ReflectionTestUtils.invokeMethod(invalidationBus, "setLive", true);
+        assertTrue(await(() -> !filter.mightExist("UNKNOWN1")), "filter was not trusted once covered");
+        assertTrue(filter.mightExist("OLDCODE1"));
+
+        ReflectionTestUtils.invokeMethod(invalidationBus, "setLive", false);
+        assertTrue(filter.mightExist("UNKNOWN1"));
+    }
+
+    @Test
+    void singleInstanceTrustsTheFilterWithoutAChangeStream() throws InterruptedException {
+        when(classRepository.count()).thenReturn(1L);
+        when(classRepository.streamAllClassCodes()).thenAnswer(invocation -> Stream.of(classWithCode("OLDCODE1")));
+        filter = classCodeFilter(false);
+        build();
+
+        // A standalone server never opens the stream
+        assertFalse(invalidationBus.isLive());
+        assertFalse(filter.mightExist("UNKNOWN1"));
+        filter.put("NEWCODE1");
+        assertTrue(filter.mightExist("NEWCODE1"));
+    }
+
+    @Test
+    void codesFromOtherInstancesArriveThroughTheBus() throws InterruptedException {
+        when(classRepository.count()).thenReturn(1L);
+        when(classRepository.streamAllClassCodes()).thenAnswer(invocation -> Stream.of(classWithCode("OLDCODE1")));
+        filter = classCodeFilter(false);
+        build();
+        assertFalse(filter.mightExist("NEWCODE1"));
+
+        ReflectionTestUtils.invokeMethod(invalidationBus, "publish", "classes", "c2",
+            new Document("classCode", "NEWCODE1"));
+
+        assertTrue(filter.mightExist("NEWCODE1"));
+    }
+
+    private ClassCodeFilter classCodeFilter(boolean requireInvalidation) {
+        ClassCodeFilter classCodeFilter = new ClassCodeFilter();
+        ReflectionTestUtils.setField(classCodeFilter, "classRepository", classRepository);
+        ReflectionTestUtils.setField(classCodeFilter, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(classCodeFilter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(classCodeFilter, "enabled", true);
+        ReflectionTestUtils.setField(classCodeFilter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(classCodeFilter, "requireInvalidation", requireInvalidation);
+        classCodeFilter.init();
+        return classCodeFilter;
+    }
+
+    private void build() throws InterruptedException {
+        filter.onReady();
+        assertTrue(await(() -> ReflectionTestUtils.getField(filter, "current") != null), "filter was not built");
+    }
+
+    // Hands out the codes, then waits before ending the scan
+    private static Stream<Class> blockingScan(CountDownLatch scanning, CountDownLatch release, String... codes) {
+        Iterator<String> iterator = List.of(codes).iterator();
+        Iterator<Class> classes = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (iterator.hasNext()) {
+                    return true;
+                }
+                scanning.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+
+            @Override
+            public Class next() {
+                return classWithCode(iterator.next());
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(classes, Spliterator.ORDERED), false);
+    }
+
+    private static Class classWithCode(String code) {
+        Class classObj = new Class();
+        classObj.setClassId("id-" + code);
+        classObj.setClassCode(code);
+        return classObj;
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,174 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.model.ClassMember;
+import com.classroom.class_backend.repository.ClassMemberRepository;
+import com.classroom.class_backend.repository.ClassRepository;
+import com.classroom.class_backend.service.ClassEventHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClassEventHubTests {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    private ClassEventHub classEventHub;
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        if (classEventHub != null) {
+            classEventHub.stop();
+        }
+    }
+
+    @Test
+    void stalledSendIsEvictedAndOtherStreamsStillGetTheirEvents() throws InterruptedException {
+        // One drain thread, so the stalled send would hold up everyone without a stand-in
+        classEventHub = classEventHub(1, 64, Duration.ofMillis(200), Duration.ofMinutes(1));
+        RecordingEmitter stalled = subscribe("stalled", true);
+        RecordingEmitter healthy = subscribe("healthy", false);
+
+        classEventHub.publish("c1", "homework", Map.of("n", 1));
+
+        assertTrue(received(healthy).contains("homework"));
+        assertEquals(1, classEventHub.getEvictedCount());
+        assertEquals(1, classEventHub.getConnectionCount());
+
+        classEventHub.publish("c1", "homework", Map.of("n", 2));
+        assertTrue(received(healthy).contains("n=2"));
+        assertEquals(0, stalled.events.size());
+    }
+
+    @Test
+    void slowConsumerIsEvictedOnceItsBufferOverflows() throws InterruptedException {
+        classEventHub = classEventHub(2, 4, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        RecordingEmitter slow = subscribe("stalled", true);
+        RecordingEmitter healthy = subscribe("healthy", false);
+
+        // The first event is taken by the blocked send, the next four fill the buffer
+        for (int i = 1; i <= 5; i++) {
+            classEventHub.publish("c1", "homework", Map.of("n", i));
+            assertNotNull(received(healthy));
+        }
+        assertEquals(0, classEventHub.getEvictedCount());
+        assertEquals(4, classEventHub.getBufferedEventCount());
+
+        classEventHub.publish("c1", "homework", Map.of("n", 6));
+        assertTrue(received(healthy).contains("n=6"));
+        assertEquals(1, classEventHub.getEvictedCount());
+        assertEquals(1, classEventHub.getConnectionCount());
+        assertEquals(0, classEventHub.getBufferedEventCount());
+
+        unblock.countDown();
+        assertNotNull(slow.events.poll(5, TimeUnit.SECONDS));
+        assertNull(slow.events.poll(200, TimeUnit.MILLISECONDS), "nothing buffered is sent after the eviction");
+    }
+
+    @Test
+    void idleStreamsGetHeartbeats() throws InterruptedException {
+        classEventHub = classEventHub(1, 64, Duration.ofMinutes(1), Duration.ofMillis(100));
+        RecordingEmitter healthy = subscribe("healthy", false);
+
+        assertTrue(received(healthy).contains("heartbeat"));
+        assertTrue(received(healthy).contains("heartbeat"));
+        assertEquals(1, classEventHub.getConnectionCount());
+    }
+
+    // Subscribes, then swaps in an emitter that records what it is sent, blocking each send if asked.
+    // The connected event may have gone to either emitter, so the recording one leaves it out.
+    private RecordingEmitter subscribe(String userId, boolean blocking) {
+        classEventHub.subscribe(userId);
+        @SuppressWarnings("unchecked")
+        Map<String, Set<Object>> subscribersByUser =
+            (Map<String, Set<Object>>) ReflectionTestUtils.getField(classEventHub, "subscribersByUser");
+        RecordingEmitter emitter = new RecordingEmitter(blocking ? unblock : null);
+        ReflectionTestUtils.setField(subscribersByUser.get(userId).iterator().next(), "emitter", emitter);
+        return emitter;
+    }
+
+    private static String received(RecordingEmitter emitter) throws InterruptedException {
+        String event = emitter.events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "no event within 5s");
+        return event;
+    }
+
+    private static ClassEventHub classEventHub(int drainThreads, int bufferSize, Duration sendTimeout,
+            Duration heartbeatInterval) {
+        Class classObj = new Class();
+        classObj.setClassId("c1");
+        classObj.setUserId("teacher");
+        ClassRepository classRepository = mock(ClassRepository.class);
+        when(classRepository.findById("c1")).thenReturn(Optional.of(classObj));
+        ClassMemberRepository classMemberRepository = mock(ClassMemberRepository.class);
+        when(classMemberRepository.findByClassId("c1")).thenReturn(List.of(
+            new ClassMember("c1", "stalled", LocalDateTime.now()), new ClassMember("c1", "healthy", LocalDateTime.now())));
+
+        ClassEventHub hub = new ClassEventHub();
+        ReflectionTestUtils.setField(hub, "classRepository", classRepository);
+        ReflectionTestUtils.setField(hub, "classMemberRepository", classMemberRepository);
+        ReflectionTestUtils.setField(hub, "maxConnections", 100);
+        ReflectionTestUtils.setField(hub, "maxConnectionsPerUser", 5);
+        ReflectionTestUtils.setField(hub, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(hub, "heartbeatInterval", heartbeatInterval);
+        ReflectionTestUtils.setField(hub, "connectionTimeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(hub, "drainThreads", drainThreads);
+        ReflectionTestUtils.setField(hub, "maxReplacementThreads", 4);
+        ReflectionTestUtils.setField(hub, "sendTimeout", sendTimeout);
+        ReflectionTestUtils.setField(hub, "lookupThreads", 1);
+        ReflectionTestUtils.setField(hub, "publishQueueSize", 10);
+        hub.start();
+        return hub;
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        private final CountDownLatch unblock;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String event = builder.build().stream().map(data -> String.valueOf(data.getData())).collect(Collectors.joining());
+            if (event.startsWith("event:connected")) {
+                return;
+            }
+            if (unblock != null) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            events.add(event);
+        }
+    }
+}
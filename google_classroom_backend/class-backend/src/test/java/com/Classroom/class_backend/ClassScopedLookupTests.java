@@ -0,0 +1,126 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.Controller.AnnouncementController;
+import com.classroom.class_backend.Controller.HomeworkController;
+import com.classroom.class_backend.model.Announcement;
+import com.classroom.class_backend.model.Homework;
+import com.classroom.class_backend.repository.AnnouncementRepository;
+import com.classroom.class_backend.repository.HomeworkRepository;
+import com.classroom.class_backend.service.AnnouncementService;
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.ClassEventHub;
+import com.classroom.class_backend.service.ClassService;
+import com.classroom.class_backend.service.ClassVersionService;
+import com.classroom.class_backend.service.HomeworkService;
+import com.classroom.class_backend.service.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Homework and announcements are sharded on classId: a request that names its class must reach
+ * the repository with it, so the lookup and the delete go to one shard instead of all of them.
+ */
+class ClassScopedLookupTests {
+
+    private final HomeworkRepository homeworkRepository = mock(HomeworkRepository.class);
+
+    private final AnnouncementRepository announcementRepository = mock(AnnouncementRepository.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SingleFlight singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", new SimpleMeterRegistry());
+
+        HomeworkService homeworkService = new HomeworkService();
+        ReflectionTestUtils.setField(homeworkService, "homeworkRepository", homeworkRepository);
+        ReflectionTestUtils.setField(homeworkService, "changeLogService", mock(ChangeLogService.class));
+        ReflectionTestUtils.setField(homeworkService, "classEventHub", mock(ClassEventHub.class));
+        ReflectionTestUtils.setField(homeworkService, "singleFlight", singleFlight);
+        HomeworkController homeworkController = new HomeworkController();
+        ReflectionTestUtils.setField(homeworkController, "homeworkService", homeworkService);
+        ReflectionTestUtils.setField(homeworkController, "classService", mock(ClassService.class));
+        ReflectionTestUtils.setField(homeworkController, "classVersionService", mock(ClassVersionService.class));
+
+        AnnouncementService announcementService = new AnnouncementService();
+        ReflectionTestUtils.setField(announcementService, "announcementRepository", announcementRepository);
+        ReflectionTestUtils.setField(announcementService, "changeLogService", mock(ChangeLogService.class));
+        ReflectionTestUtils.setField(announcementService, "classEventHub", mock(ClassEventHub.class));
+        ReflectionTestUtils.setField(announcementService, "singleFlight", singleFlight);
+        AnnouncementController announcementController = new AnnouncementController();
+        ReflectionTestUtils.setField(announcementController, "announcementService", announcementService);
+        ReflectionTestUtils.setField(announcementController, "classVersionService", mock(ClassVersionService.class));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(homeworkController, announcementController).build();
+
+        Homework homework = new Homework();
+        homework.setId("h1");
+        homework.setClassId("c1");
+        homework.setCreatedBy("teacher");
+        when(homeworkRepository.findByIdAndClassId("h1", "c1")).thenReturn(Optional.of(homework));
+        when(homeworkRepository.findById("h1")).thenReturn(Optional.of(homework));
+        Announcement announcement = new Announcement("a1", "c1", "Title", "Description", null, "teacher");
+        when(announcementRepository.findByIdAndClassId("a1", "c1")).thenReturn(Optional.of(announcement));
+        when(announcementRepository.findById("a1")).thenReturn(Optional.of(announcement));
+    }
+
+    @Test
+    void homeworkLookupUsesTheClassId() throws Exception {
+        mockMvc.perform(get("/api/homework/h1").param("classId", "c1")).andExpect(status().isOk());
+
+        verify(homeworkRepository).findByIdAndClassId("h1", "c1");
+        verify(homeworkRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void homeworkInAnotherClassIsNotFound() throws Exception {
+        when(homeworkRepository.findByIdAndClassId("h1", "c2")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/homework/h1").param("classId", "c2")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void homeworkDeleteUsesTheClassId() throws Exception {
+        mockMvc.perform(delete("/api/homework/h1").param("classId", "c1").header("userId", "teacher"))
+            .andExpect(status().isNoContent());
+
+        verify(homeworkRepository).deleteByIdAndClassId("h1", "c1");
+        verify(homeworkRepository, never()).findById(anyString());
+        verify(homeworkRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void homeworkDeleteWithoutClassIdStillDeletesWithinTheHomeworksClass() throws Exception {
+        mockMvc.perform(delete("/api/homework/h1").header("userId", "teacher")).andExpect(status().isNoContent());
+
+        verify(homeworkRepository).deleteByIdAndClassId("h1", "c1");
+    }
+
+    @Test
+    void announcementDeleteUsesTheClassId() throws Exception {
+        mockMvc.perform(delete("/api/announcements/a1").param("classId", "c1").header("userId", "teacher"))
+            .andExpect(status().isNoContent());
+
+        verify(announcementRepository, atLeastOnce()).findByIdAndClassId("a1", "c1");
+        verify(announcementRepository).deleteByIdAndClassId("a1", "c1");
+        verify(announcementRepository, never()).findById(anyString());
+    }
+}
@@ -0,0 +1,136 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.filter.IdempotencyFilter;
+import com.classroom.class_backend.filter.SessionTokenFilter;
+import com.classroom.class_backend.service.IdempotencyStore;
+import com.classroom.class_backend.service.InMemoryIdempotencyStore;
+import com.classroom.class_backend.service.SessionClaims;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class IdempotencyFilterTests {
+
+    private final Things things = new Things();
+
+    @Test
+    void retriedPostIsReplayedWithoutReachingTheController() throws Exception {
+        MockMvc mockMvc = mockMvc(new InMemoryIdempotencyStore(Duration.ofHours(1), 1000), DataSize.ofKilobytes(1));
+
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", null))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andExpect(content().string("created 1"));
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", null))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(content().string("created 1"));
+        // The same key with another body is a client bug, not a retry
+        mockMvc.perform(createThing("key-1", "{\"name\":\"b\"}", null))
+            .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, things.created.get());
+    }
+
+    @Test
+    void keysAreScopedToTheSignedInUser() throws Exception {
+        MockMvc mockMvc = mockMvc(new InMemoryIdempotencyStore(Duration.ofHours(1), 1000), DataSize.ofKilobytes(1));
+        SessionClaims first = new SessionClaims("s1", "STUDENT", Long.MAX_VALUE);
+        SessionClaims second = new SessionClaims("s2", "STUDENT", Long.MAX_VALUE);
+
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", first))
+            .andExpect(content().string("created 1"));
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", second))
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andExpect(content().string("created 2"));
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", first))
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(content().string("created 1"));
+
+        assertEquals(2, things.created.get());
+    }
+
+    @Test
+    void oversizedBodyIsRejectedBeforeTheController() throws Exception {
+        IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore(Duration.ofHours(1), 1000);
+        MockMvc mockMvc = mockMvc(idempotencyStore, DataSize.ofBytes(16));
+
+        mockMvc.perform(createThing("key-1", "{\"name\":\"" + "a".repeat(16) + "\"}", null))
+            .andExpect(status().isPayloadTooLarge());
+        mockMvc.perform(createThing(" ", "{\"name\":\"a\"}", null))
+            .andExpect(status().isBadRequest());
+
+        assertEquals(0, things.created.get());
+        assertEquals(0, idempotencyStore.size());
+    }
+
+    @Test
+    void expiredKeyReachesTheControllerAgain() throws Exception {
+        MockMvc mockMvc = mockMvc(new InMemoryIdempotencyStore(Duration.ofMillis(100), 1000), DataSize.ofKilobytes(1));
+
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", null))
+            .andExpect(content().string("created 1"));
+        Thread.sleep(150);
+        mockMvc.perform(createThing("key-1", "{\"name\":\"a\"}", null))
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andExpect(content().string("created 2"));
+    }
+
+    @Test
+    void fullStripeEvictsItsOldestKey() {
+        // One entry per stripe; "Aa" and "BB" have the same hash code, so they share one
+        IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore(Duration.ofHours(1), 64);
+
+        assertNull(idempotencyStore.reserve("Aa", "fingerprint"));
+        assertNotNull(idempotencyStore.reserve("Aa", "fingerprint"));
+        assertNull(idempotencyStore.reserve("BB", "fingerprint"));
+
+        assertEquals(1, idempotencyStore.size());
+        assertNull(idempotencyStore.reserve("Aa", "fingerprint"));
+    }
+
+    private MockMvc mockMvc(IdempotencyStore idempotencyStore, DataSize maxBodySize) {
+        IdempotencyFilter idempotencyFilter = new IdempotencyFilter();
+        ReflectionTestUtils.setField(idempotencyFilter, "idempotencyStore", idempotencyStore);
+        ReflectionTestUtils.setField(idempotencyFilter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyFilter, "maxBodySize", maxBodySize);
+        return MockMvcBuilders.standaloneSetup(things).addFilters(idempotencyFilter).build();
+    }
+
+    private static MockHttpServletRequestBuilder createThing(String key, String body, SessionClaims session) {
+        MockHttpServletRequestBuilder request = post("/api/things").contentType(MediaType.APPLICATION_JSON)
+            .header(IdempotencyFilter.HEADER, key).content(body);
+        return session == null ? request : request.requestAttr(SessionTokenFilter.CLAIMS, session);
+    }
+
+    @RestController
+    static class Things {
+
+        final AtomicInteger created = new AtomicInteger();
+
+        @PostMapping("/api/things")
+        public ResponseEntity<String> create(@RequestBody String body) {
+            return ResponseEntity.status(201).body("created " + created.incrementAndGet());
+        }
+    }
+}
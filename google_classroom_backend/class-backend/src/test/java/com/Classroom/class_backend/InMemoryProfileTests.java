@@ -0,0 +1,117 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.ClassBackendApplication;
+import com.classroom.class_backend.model.Class;
+import com.classroom.class_backend.repository.ClassRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boots the whole application on the in-memory repositories, so it runs without a database.
+ * Started through main(), which excludes the Mongo auto-configurations under the profile.
+ */
+@SpringBootTest(classes = ClassBackendApplication.class, properties = "spring.data.google.client-id=test",
+    useMainMethod = SpringBootTest.UseMainMethod.ALWAYS)
+@ActiveProfiles("inmemory")
+@AutoConfigureMockMvc
+class InMemoryProfileTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClassRepository classRepository;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void noMongoClientIsBuilt() {
+        assertEquals(0, context.getBeanNamesForType(com.mongodb.client.MongoClient.class).length);
+        assertEquals(0, context.getBeanNamesForType(com.mongodb.reactivestreams.client.MongoClient.class).length);
+        assertEquals(0, context.getBeanNamesForType(MongoTemplate.class).length);
+    }
+
+    @Test
+    void signUpCreateClassAndListIt() throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Teacher\",\"email\":\"teacher@example.com\",\"password\":\"secret123\",\"role\":\"teacher\"}"))
+            .andExpect(status().isOk());
+        String login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"teacher@example.com\",\"password\":\"secret123\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").isNotEmpty())
+            .andReturn().getResponse().getContentAsString();
+        String userId = JsonPath.read(login, "$.userId");
+
+        mockMvc.perform(post("/api/classes/create").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"classId\":\"class-1\",\"classCode\":\"ABCD1234\",\"subjectCode\":\"CS101\",\"section\":\"A\","
+                    + "\"subject\":\"Algorithms\",\"teacherName\":\"Teacher\",\"userId\":\"" + userId + "\"}"))
+            .andExpect(status().is2xxSuccessful());
+
+        String created = mockMvc.perform(get("/api/classes").param("userId", userId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(jsonPath("$.data[0].classCode").value("ABCD1234"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        // The created list's ETag says nothing about the joined list
+        mockMvc.perform(get("/api/classes").param("userId", userId).param("type", "joined")
+                .header("If-None-Match", created))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data").isEmpty());
+        mockMvc.perform(get("/api/classes").param("userId", userId).header("If-None-Match", created))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void queryByExample() {
+        classRepository.save(newClass("qbe-1", "QBEA0001", "Physics", "teacher-a"));
+        classRepository.save(newClass("qbe-2", "QBEA0002", "Physical Education", "teacher-a"));
+        classRepository.save(newClass("qbe-3", "QBEA0003", "Chemistry", "teacher-b"));
+
+        Class byTeacher = new Class();
+        byTeacher.setUserId("teacher-a");
+        List<Class> found = classRepository.findAll(Example.of(byTeacher), Sort.by("classId"));
+        assertEquals(List.of("qbe-1", "qbe-2"), found.stream().map(Class::getClassId).toList());
+
+        Class bySubject = new Class();
+        bySubject.setSubject("physic");
+        ExampleMatcher startsWith = ExampleMatcher.matching().withIgnoreCase()
+            .withStringMatcher(ExampleMatcher.StringMatcher.STARTING);
+        assertEquals(2, classRepository.count(Example.of(bySubject, startsWith)));
+        assertTrue(classRepository.exists(Example.of(bySubject, startsWith)));
+        assertEquals("qbe-1", classRepository.findBy(Example.of(bySubject, startsWith),
+            query -> query.sortBy(Sort.by("classId")).firstValue()).getClassId());
+    }
+
+    private static Class newClass(String classId, String classCode, String subject, String userId) {
+        Class classObj = new Class();
+        classObj.setClassId(classId);
+        classObj.setClassCode(classCode);
+        classObj.setSubject(subject);
+        classObj.setUserId(userId);
+        return classObj;
+    }
+}
@@ -0,0 +1,125 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.service.ChangeStreamInvalidator;
+import com.classroom.class_backend.service.InvalidationBus;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvalidationBusTests {
+
+    private final InvalidationBus bus = new InvalidationBus();
+
+    @Test
+    void onlyReadsStartedWhileTheStreamIsOpenAreCovered() {
+        long beforeOpen = System.nanoTime();
+        assertFalse(bus.isLive());
+        assertFalse(bus.covers(beforeOpen));
+
+        setLive(true);
+        long afterOpen = System.nanoTime();
+        assertTrue(bus.isLive());
+        assertFalse(bus.covers(beforeOpen), "events before the stream opened may have been missed");
+        assertTrue(bus.covers(afterOpen));
+
+        setLive(false);
+        assertFalse(bus.isLive());
+        assertFalse(bus.covers(afterOpen));
+        assertFalse(bus.covers(System.nanoTime()));
+    }
+
+    @Test
+    void openingOrBreakingTheStreamResetsEveryCache() {
+        AtomicInteger resets = new AtomicInteger();
+        bus.onReset(resets::incrementAndGet);
+        bus.onReset(resets::incrementAndGet);
+
+        setLive(true);
+        assertEquals(2, resets.get());
+        setLive(false);
+        assertEquals(4, resets.get());
+    }
+
+    @Test
+    void dispatchRoutesEventsToTheirCollectionsListeners() {
+        List<String> homework = new ArrayList<>();
+        List<Document> homeworkFields = new ArrayList<>();
+        List<String> classes = new ArrayList<>();
+        bus.subscribe("homework", (id, fields) -> {
+            homework.add(id);
+            homeworkFields.add(fields);
+        });
+        bus.subscribe("classes", (id, fields) -> classes.add(id));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChangeStreamInvalidator invalidator = new ChangeStreamInvalidator();
+        ReflectionTestUtils.setField(invalidator, "invalidationBus", bus);
+        ReflectionTestUtils.setField(invalidator, "meterRegistry", meterRegistry);
+        ObjectId objectId = new ObjectId();
+
+        dispatch(invalidator, event("insert", "homework", new BsonObjectId(objectId), new Document("classId", "c1")));
+        dispatch(invalidator, event("delete", "homework", new BsonString("h2"), null));
+        dispatch(invalidator, event("update", "homework", new BsonString("h3"), new Document("classId", "c1")));
+        dispatch(invalidator, event("update", "classes", new BsonString("c1"), new Document("classCode", "ABCDEFGH")));
+        dispatch(invalidator, event("insert", "user", new BsonString("u1"), null));
+
+        // Spring stores ids that look like ObjectIds as ObjectIds; listeners get the String id back
+        assertEquals(List.of(objectId.toHexString(), "h2", "h3"), homework);
+        assertEquals("c1", homeworkFields.get(0).getString("classId"));
+        assertNull(homeworkFields.get(1));
+        assertEquals(List.of("c1"), classes);
+        assertEquals(1, meterRegistry.get("classroom.invalidation.events")
+            .tags("collection", "homework", "operation", "update").counter().count());
+        assertEquals(1, meterRegistry.get("classroom.invalidation.events")
+            .tags("collection", "homework", "operation", "insert").counter().count());
+        assertEquals(5, meterRegistry.get("classroom.invalidation.events").counters().size());
+    }
+
+    @Test
+    void onlySubscribedCollectionsAreWatched() {
+        ChangeStreamInvalidator invalidator = new ChangeStreamInvalidator();
+        ReflectionTestUtils.setField(invalidator, "invalidationBus", bus);
+        ReflectionTestUtils.setField(invalidator, "enabled", true);
+
+        // Nothing to invalidate: the stream is never opened, so Mongo is not needed here
+        invalidator.start();
+        assertNull(ReflectionTestUtils.getField(invalidator, "worker"));
+
+        bus.subscribe("classes", (id, fields) -> { });
+        bus.subscribe("change_sequences", (id, fields) -> { });
+        bus.subscribe("classes", (id, fields) -> { });
+        assertEquals(Set.of("classes", "change_sequences"), bus.collections());
+    }
+
+    private void setLive(boolean live) {
+        ReflectionTestUtils.invokeMethod(bus, "setLive", live);
+    }
+
+    private static void dispatch(ChangeStreamInvalidator invalidator, ChangeStreamDocument<Document> event) {
+        ReflectionTestUtils.invokeMethod(invalidator, "dispatch", event);
+    }
+
+    private static ChangeStreamDocument<Document> event(String operation, String collection, BsonValue id,
+            Document fields) {
+        BsonDocument namespace = new BsonDocument("db", new BsonString("classroom")).append("coll", new BsonString(collection));
+        return new ChangeStreamDocument<>(operation, new BsonDocument(), namespace, null, fields, null,
+            new BsonDocument("_id", id), new BsonTimestamp(1_700_000_000, 1), null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,193 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.service.InMemoryLeaseStore;
+import com.classroom.class_backend.service.LeaderElection;
+import com.classroom.class_backend.service.LeaderOnly;
+import com.classroom.class_backend.service.LeaderOnlyAspect;
+import com.classroom.class_backend.service.LeaseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderElectionTests {
+
+    private static final Duration LEASE = Duration.ofMillis(200);
+
+    private final LeaseStore leaseStore = new InMemoryLeaseStore();
+
+    private final LeaderElection first = leaderElection("first");
+
+    private final LeaderElection second = leaderElection("second");
+
+    @Test
+    void followerTakesOverAnExpiredLeaseWithAHigherFencingToken() throws InterruptedException {
+        assertEquals(1L, first.acquire("job"));
+        assertNull(second.acquire("job"));
+        assertTrue(first.isLeader("job"));
+        assertFalse(second.isLeader("job"));
+
+        Thread.sleep(LEASE.toMillis() + 50);
+
+        assertFalse(first.isLeader("job"));
+        assertEquals(2L, second.acquire("job"));
+        assertNull(first.acquire("job"));
+        assertTrue(second.isLeader("job"));
+    }
+
+    @Test
+    void releasedLeaseIsTakenOverWithoutWaitingForExpiry() {
+        assertEquals(1L, first.acquire("job"));
+        first.releaseAll();
+
+        assertEquals(2L, second.acquire("job"));
+    }
+
+    @Test
+    void onlyTheLeaseHolderRunsLeaderOnlyJobs() {
+        AtomicBoolean ranOnFirst = new AtomicBoolean();
+        AtomicBoolean ranOnSecond = new AtomicBoolean();
+
+        job(first).run(() -> ranOnFirst.set(true));
+        job(second).run(() -> ranOnSecond.set(true));
+
+        assertTrue(ranOnFirst.get());
+        assertFalse(ranOnSecond.get());
+    }
+
+    @Test
+    void checkLeasePassesWhileTheLeaseIsHeld() {
+        job(first).run(() -> {
+            first.checkLease();
+            first.renew();
+            first.checkLease();
+        });
+    }
+
+    @Test
+    void stalledLeaderIsFencedOnceTheLeaseChangesHands() {
+        IllegalStateException fenced = assertThrows(IllegalStateException.class, () -> job(first).run(() -> {
+            first.checkLease();
+            // A pause longer than the lease: the other instance takes the job over
+            sleep(LEASE.toMillis() + 50);
+            assertEquals(2L, second.acquire("job"));
+            first.checkLease();
+        }));
+        assertEquals("Lease job with fencing token 1 is no longer held", fenced.getMessage());
+    }
+
+    @Test
+    void checkLeaseOutsideLeaderOnlyJobsDoesNothing() {
+        assertEquals(1L, first.acquire("job"));
+        assertDoesNotThrow(second::checkLease);
+    }
+
+    @Test
+    void oneShotJobReleasesItsLeaseAndIsNotRerunByFollowers() {
+        AtomicInteger runsOnSecond = new AtomicInteger();
+
+        once(first).run(() -> once(second).run(runsOnSecond::incrementAndGet));
+        second.renew();
+
+        assertEquals(0, runsOnSecond.get());
+        assertFalse(first.isLeader("once"));
+        assertEquals(1L, leaseStore.find("once").getCompletedToken());
+        assertEquals(2L, second.acquire("once"));
+    }
+
+    @Test
+    void followerRetriesAOneShotJobWhoseLeaderDied() {
+        AtomicInteger runsOnSecond = new AtomicInteger();
+        OnceJob onSecond = once(second);
+        // The leader took the lease and died part way through the job
+        assertEquals(1L, first.acquire("once"));
+
+        onSecond.run(runsOnSecond::incrementAndGet);
+        second.renew();
+        assertEquals(0, runsOnSecond.get());
+
+        sleep(LEASE.toMillis() + 50);
+        second.renew();
+        second.renew();
+
+        assertEquals(1, runsOnSecond.get());
+        assertEquals(2L, leaseStore.find("once").getCompletedToken());
+    }
+
+    @Test
+    void failedOneShotJobReleasesItsLeaseForFollowers() {
+        AtomicInteger runsOnSecond = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> once(first).run(() -> {
+            once(second).run(runsOnSecond::incrementAndGet);
+            throw new IllegalStateException("failed");
+        }));
+        second.renew();
+
+        assertEquals(1, runsOnSecond.get());
+    }
+
+    private LeaderElection leaderElection(String instanceId) {
+        LeaderElection leaderElection = new LeaderElection();
+        ReflectionTestUtils.setField(leaderElection, "leaseStore", leaseStore);
+        ReflectionTestUtils.setField(leaderElection, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(leaderElection, "enabled", true);
+        ReflectionTestUtils.setField(leaderElection, "leaseDuration", LEASE);
+        ReflectionTestUtils.setField(leaderElection, "instanceId", instanceId);
+        leaderElection.init();
+        return leaderElection;
+    }
+
+    private static Job job(LeaderElection leaderElection) {
+        return proxy(new Job(), leaderElection);
+    }
+
+    private static OnceJob once(LeaderElection leaderElection) {
+        return proxy(new OnceJob(), leaderElection);
+    }
+
+    // The job as the instance's Spring context would see it, behind LeaderOnlyAspect
+    private static <T> T proxy(T job, LeaderElection leaderElection) {
+        LeaderOnlyAspect aspect = new LeaderOnlyAspect();
+        ReflectionTestUtils.setField(aspect, "leaderElection", leaderElection);
+        AspectJProxyFactory factory = new AspectJProxyFactory(job);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class Job {
+
+        @LeaderOnly("job")
+        public void run(Runnable body) {
+            body.run();
+        }
+    }
+
+    static class OnceJob {
+
+        @LeaderOnly(value = "once", once = true)
+        public void run(Runnable body) {
+            body.run();
+        }
+    }
+}
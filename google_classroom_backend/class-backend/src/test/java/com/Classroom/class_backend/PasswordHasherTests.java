@@ -0,0 +1,142 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.service.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        if (passwordHasher != null) {
+            passwordHasher.shutdown();
+        }
+    }
+
+    @Test
+    void hashedPasswordMatchesOnlyItself() {
+        passwordHasher = passwordHasher(2, 10);
+        String stored = passwordHasher.hash("Password@123");
+
+        assertTrue(passwordHasher.isHash(stored));
+        assertTrue(passwordHasher.matches("Password@123", stored));
+        assertFalse(passwordHasher.matches("password@123", stored));
+        assertFalse(passwordHasher.matches(null, stored));
+    }
+
+    @Test
+    void plaintextFromBeforeHashingStillMatches() {
+        passwordHasher = passwordHasher(2, 10);
+
+        assertFalse(passwordHasher.isHash("Password@123"));
+        assertTrue(passwordHasher.matches("Password@123", "Password@123"));
+        assertFalse(passwordHasher.matches("Password@12", "Password@123"));
+        assertFalse(passwordHasher.matches("Password@123", null));
+    }
+
+    @Test
+    void plaintextAndCheaperHashesNeedRehashing() {
+        passwordHasher = passwordHasher(2, 10);
+        int cost = passwordHasher.cost();
+
+        assertTrue(passwordHasher.needsRehash("Password@123"));
+        assertTrue(passwordHasher.needsRehash(BCrypt.hashpw("Password@123", BCrypt.gensalt(cost - 1))));
+        assertFalse(passwordHasher.needsRehash(passwordHasher.hash("Password@123")));
+        // Costs are never lowered
+        assertFalse(passwordHasher.needsRehash(BCrypt.hashpw("Password@123", BCrypt.gensalt(cost + 1))));
+    }
+
+    @Test
+    void fullQueueFailsFastWithBusy() throws InterruptedException {
+        passwordHasher = passwordHasher(1, 1);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHasher, "executor");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Occupy the only thread, then the only queue slot
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+
+        try {
+            assertThrows(PasswordHasher.BusyException.class, () -> passwordHasher.hash("Password@123"));
+            assertEquals(1, meterRegistry.get("classroom.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void adaptStepsTheCostOneAtATimeWhenWellOutsideTheTarget() {
+        passwordHasher = passwordHasher(2, 10);
+        ReflectionTestUtils.setField(passwordHasher, "targetTime", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(passwordHasher, "minCost", 8);
+        ((AtomicInteger) ReflectionTestUtils.getField(passwordHasher, "cost")).set(10);
+
+        // Nothing measured yet
+        passwordHasher.adapt();
+        assertEquals(10, passwordHasher.cost());
+
+        // Within a factor of two of the target
+        adaptAfter(Duration.ofMillis(150));
+        assertEquals(10, passwordHasher.cost());
+        adaptAfter(Duration.ofMillis(30));
+        assertEquals(10, passwordHasher.cost());
+
+        adaptAfter(Duration.ofMillis(500));
+        assertEquals(9, passwordHasher.cost());
+        assertEquals(0.0, ReflectionTestUtils.getField(passwordHasher, "meanNanos"), "measurements restart at the new cost");
+        adaptAfter(Duration.ofMillis(500));
+        assertEquals(8, passwordHasher.cost());
+        adaptAfter(Duration.ofMillis(500));
+        assertEquals(8, passwordHasher.cost(), "never below min-cost");
+
+        adaptAfter(Duration.ofMillis(10));
+        assertEquals(9, passwordHasher.cost());
+        ((AtomicInteger) ReflectionTestUtils.getField(passwordHasher, "cost")).set(16);
+        adaptAfter(Duration.ofMillis(10));
+        assertEquals(16, passwordHasher.cost(), "never above the maximum");
+    }
+
+    private void adaptAfter(Duration meanVerification) {
+        ReflectionTestUtils.setField(passwordHasher, "meanNanos", (double) meanVerification.toNanos());
+        passwordHasher.adapt();
+    }
+
+    private PasswordHasher passwordHasher(int threads, int queueCapacity) {
+        PasswordHasher hasher = new PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hasher, "threads", threads);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(hasher, "queueTimeout", Duration.ofSeconds(5));
+        // Calibrates to the minimum, so the tests hash quickly
+        ReflectionTestUtils.setField(hasher, "targetTime", Duration.ofNanos(1));
+        ReflectionTestUtils.setField(hasher, "minCost", 5);
+        hasher.init();
+        return hasher;
+    }
+}
@@ -0,0 +1,152 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.model.PasswordResetToken;
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.repository.UserRepository;
+import com.classroom.class_backend.repository.inmemory.InMemoryPasswordResetTokenRepository;
+import com.classroom.class_backend.service.InvalidResetTokenCache;
+import com.classroom.class_backend.service.PasswordHasher;
+import com.classroom.class_backend.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordResetTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final InMemoryPasswordResetTokenRepository tokenRepository = new InMemoryPasswordResetTokenRepository();
+
+    @Test
+    void invalidTokensAreForgottenAfterTheTtl() throws InterruptedException {
+        InvalidResetTokenCache cache = invalidResetTokenCache(Duration.ofMillis(100), 100);
+
+        assertFalse(cache.isKnownInvalid("stale"));
+        cache.markInvalid("stale");
+        assertTrue(cache.isKnownInvalid("stale"));
+
+        Thread.sleep(150);
+        assertFalse(cache.isKnownInvalid("stale"));
+        assertEquals(1, meterRegistry.get("classroom.reset_tokens.negative_cache").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("classroom.reset_tokens.negative_cache").tag("result", "miss").counter().count());
+        assertEquals(0, meterRegistry.get("classroom.reset_tokens.negative_cache.size").gauge().value());
+    }
+
+    @Test
+    void fullCacheEvictsToMakeRoom() {
+        InvalidResetTokenCache cache = invalidResetTokenCache(Duration.ofMinutes(10), 2);
+
+        cache.markInvalid("first");
+        cache.markInvalid("second");
+        cache.markInvalid("third");
+
+        assertEquals(2, meterRegistry.get("classroom.reset_tokens.negative_cache.size").gauge().value());
+        assertTrue(cache.isKnownInvalid("third"));
+    }
+
+    @Test
+    void tokenIsConsumedOnceAndOnlyBeforeItExpires() {
+        LocalDateTime now = LocalDateTime.now();
+        tokenRepository.upsertForEmail("student@example.com", "token-1", now.plusMinutes(30));
+
+        assertNull(tokenRepository.consume("token-1", now.plusMinutes(31)));
+        assertNotNull(tokenRepository.consume("token-1", now));
+        assertNull(tokenRepository.consume("token-1", now));
+    }
+
+    @Test
+    void restoredTokenNeverReplacesANewerOne() {
+        LocalDateTime now = LocalDateTime.now();
+        tokenRepository.upsertForEmail("student@example.com", "token-1", now.plusMinutes(30));
+        PasswordResetToken consumed = tokenRepository.consume("token-1", now);
+        tokenRepository.upsertForEmail("student@example.com", "token-2", now.plusMinutes(30));
+
+        tokenRepository.restore(consumed);
+
+        assertNull(tokenRepository.consume("token-1", now));
+        assertNotNull(tokenRepository.consume("token-2", now));
+    }
+
+    @Test
+    void resetLinkWorksOnce() {
+        PasswordHasher passwordHasher = mock(PasswordHasher.class);
+        when(passwordHasher.hash(anyString())).thenReturn("hashed");
+        when(passwordHasher.isHash("hashed")).thenReturn(true);
+        UserRepository userRepository = userRepository();
+        InvalidResetTokenCache cache = invalidResetTokenCache(Duration.ofMinutes(10), 100);
+        UserService userService = userService(userRepository, passwordHasher, cache);
+        tokenRepository.upsertForEmail("student@example.com", "token-1", LocalDateTime.now().plusMinutes(30));
+
+        userService.resetPassword("token-1", "NewPassword@123");
+        RuntimeException reused = assertThrows(RuntimeException.class,
+            () -> userService.resetPassword("token-1", "OtherPassword@123"));
+
+        assertEquals("Invalid or expired token.", reused.getMessage());
+        assertTrue(cache.isKnownInvalid("token-1"));
+        verify(userRepository, times(1)).save(any());
+        verify(passwordHasher, times(1)).hash(anyString());
+    }
+
+    @Test
+    void busyHasherLeavesTheLinkValidForARetry() {
+        PasswordHasher passwordHasher = mock(PasswordHasher.class);
+        when(passwordHasher.hash(anyString())).thenThrow(new PasswordHasher.BusyException()).thenReturn("hashed");
+        when(passwordHasher.isHash("hashed")).thenReturn(true);
+        UserRepository userRepository = userRepository();
+        UserService userService = userService(userRepository, passwordHasher,
+            invalidResetTokenCache(Duration.ofMinutes(10), 100));
+        tokenRepository.upsertForEmail("student@example.com", "token-1", LocalDateTime.now().plusMinutes(30));
+
+        assertThrows(PasswordHasher.BusyException.class, () -> userService.resetPassword("token-1", "NewPassword@123"));
+        userService.resetPassword("token-1", "NewPassword@123");
+
+        verify(userRepository, times(1)).save(any());
+        assertNull(tokenRepository.consume("token-1", LocalDateTime.now()));
+    }
+
+    private UserService userService(UserRepository userRepository, PasswordHasher passwordHasher,
+            InvalidResetTokenCache invalidResetTokenCache) {
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "tokenRepository", tokenRepository);
+        ReflectionTestUtils.setField(userService, "passwordHasher", passwordHasher);
+        ReflectionTestUtils.setField(userService, "invalidResetTokenCache", invalidResetTokenCache);
+        return userService;
+    }
+
+    private static UserRepository userRepository() {
+        User user = new User();
+        user.setId("s1");
+        user.setEmail("student@example.com");
+        user.setPassword("old-hash");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail("student@example.com")).thenReturn(user);
+        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        return userRepository;
+    }
+
+    private InvalidResetTokenCache invalidResetTokenCache(Duration ttl, int maxEntries) {
+        InvalidResetTokenCache cache = new InvalidResetTokenCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "ttl", ttl);
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,162 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.Controller.UserController;
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.service.RateLimiter;
+import com.classroom.class_backend.service.SessionTokenService;
+import com.classroom.class_backend.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimiterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void burstUpToCapacityThenOneTokenPerInterval() throws InterruptedException {
+        RateLimiter rateLimiter = rateLimiter(1_000_000, "3", "1500ms");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com"));
+        }
+        long wait = rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com");
+        assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(500), "waits at most one interval, was " + wait);
+        // Other keys have buckets of their own
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "student@example.com"));
+
+        TimeUnit.NANOSECONDS.sleep(wait);
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com"));
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com") > 0);
+        assertEquals(2, meterRegistry.get("classroom.rate_limit.requests")
+            .tags("policy", RateLimiter.LOGIN_EMAIL, "result", "rejected").counter().count());
+    }
+
+    @Test
+    void refundGivesBackOneToken() {
+        RateLimiter rateLimiter = rateLimiter(1_000_000, "3", "5m");
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com");
+        }
+
+        rateLimiter.refund(RateLimiter.LOGIN_EMAIL, "teacher@example.com");
+
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com"));
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com") > 0);
+    }
+
+    @Test
+    void refundNeverFillsABucketPastCapacity() {
+        RateLimiter rateLimiter = rateLimiter(1_000_000, "3", "5m");
+        rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com");
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.refund(RateLimiter.LOGIN_EMAIL, "teacher@example.com");
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com"));
+        }
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "teacher@example.com") > 0);
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, RateLimiter.retryAfterSeconds(0));
+        assertEquals(1, RateLimiter.retryAfterSeconds(1));
+        assertEquals(1, RateLimiter.retryAfterSeconds(1_000_000_000L));
+        assertEquals(2, RateLimiter.retryAfterSeconds(1_000_000_001L));
+        assertEquals(300, RateLimiter.retryAfterSeconds(TimeUnit.MINUTES.toNanos(5)));
+    }
+
+    @Test
+    void busyBucketsAreDroppedOverMaxBuckets() {
+        // One bucket per stripe
+        RateLimiter rateLimiter = rateLimiter(64, "3", "1h");
+
+        for (int i = 0; i < 10_000; i++) {
+            rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "user" + i + "@example.com");
+        }
+
+        double buckets = meterRegistry.get("classroom.rate_limit.buckets").gauge().value();
+        assertTrue(buckets <= 2 * 64, buckets + " buckets held");
+        assertTrue(meterRegistry.get("classroom.rate_limit.evictions").tag("reason", "capacity").counter().count()
+            >= 10_000 - 2 * 64);
+    }
+
+    @Test
+    void fullBucketsAreDroppedAsIdle() throws InterruptedException {
+        RateLimiter rateLimiter = rateLimiter(1_000_000, "3", "30ms");
+        for (int i = 0; i < 1_000; i++) {
+            rateLimiter.tryAcquire(RateLimiter.LOGIN_EMAIL, "user" + i + "@example.com");
+        }
+        Thread.sleep(50);
+
+        rateLimiter.sweep();
+
+        assertEquals(0, meterRegistry.get("classroom.rate_limit.buckets").gauge().value());
+        assertEquals(1_000, meterRegistry.get("classroom.rate_limit.evictions").tag("reason", "idle").counter().count());
+    }
+
+    @Test
+    void successfulLoginsDoNotUseUpTheAccountsAllowance() throws Exception {
+        RateLimiter rateLimiter = rateLimiter(1_000_000, "3", "5m");
+        UserService userService = mock(UserService.class);
+        User teacher = new User();
+        teacher.setId("t1");
+        teacher.setRole("teacher");
+        when(userService.login("teacher@example.com", "right")).thenReturn(teacher);
+        when(userService.login("teacher@example.com", "wrong")).thenThrow(new Exception("Invalid password"));
+        UserController userController = new UserController();
+        ReflectionTestUtils.setField(userController, "userService", userService);
+        ReflectionTestUtils.setField(userController, "rateLimiter", rateLimiter);
+        SessionTokenService sessionTokenService = mock(SessionTokenService.class);
+        when(sessionTokenService.issue(any())).thenReturn("token");
+        ReflectionTestUtils.setField(userController, "sessionTokenService", sessionTokenService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(login("right")).andExpect(status().isOk());
+        }
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(login("wrong")).andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(login("right")).andExpect(status().isTooManyRequests()).andExpect(header().exists("Retry-After"));
+    }
+
+    private static RequestBuilder login(String password) {
+        return post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"teacher@example.com\",\"password\":\"" + password + "\"}");
+    }
+
+    private RateLimiter rateLimiter(int maxBuckets, String loginEmailCapacity, String loginEmailPeriod) {
+        RateLimiter rateLimiter = new RateLimiter();
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("classroom.rate-limit.login-email.capacity", loginEmailCapacity)
+            .withProperty("classroom.rate-limit.login-email.period", loginEmailPeriod);
+        // As Spring Boot sets it up, so "5m" converts to a Duration
+        environment.setConversionService(new ApplicationConversionService());
+        ReflectionTestUtils.setField(rateLimiter, "environment", environment);
+        ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(rateLimiter, "maxBuckets", maxBuckets);
+        rateLimiter.init();
+        return rateLimiter;
+    }
+}
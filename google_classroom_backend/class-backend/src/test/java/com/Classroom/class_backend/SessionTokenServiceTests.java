@@ -0,0 +1,217 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.Controller.AnnouncementController;
+import com.classroom.class_backend.Controller.HomeworkSubmissionController;
+import com.classroom.class_backend.Controller.SyncController;
+import com.classroom.class_backend.filter.SessionTokenFilter;
+import com.classroom.class_backend.model.Announcement;
+import com.classroom.class_backend.model.HomeworkSubmission;
+import com.classroom.class_backend.model.User;
+import com.classroom.class_backend.service.AnnouncementService;
+import com.classroom.class_backend.service.ChangeLogService;
+import com.classroom.class_backend.service.ClassVersionService;
+import com.classroom.class_backend.service.HomeworkSubmissionService;
+import com.classroom.class_backend.service.SessionClaims;
+import com.classroom.class_backend.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SessionTokenServiceTests {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SessionTokenService sessionTokenService = sessionTokenService(SECRET, Duration.ofHours(12));
+
+    @Test
+    void issuedTokenVerifiesToTheUsersClaims() {
+        SessionClaims teacher = sessionTokenService.verify(sessionTokenService.issue(user("t1", "TEACHER")));
+        SessionClaims student = sessionTokenService.verify(sessionTokenService.issue(user("s1", "student")));
+
+        assertNotNull(teacher);
+        assertEquals("t1", teacher.userId());
+        assertTrue(teacher.isTeacher());
+        assertNotNull(student);
+        assertFalse(student.isTeacher());
+        assertTrue(student.actsFor("s1"));
+        assertTrue(student.actsFor(null));
+        assertFalse(student.actsFor("t1"));
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = sessionTokenService.issue(user("s1", "STUDENT"));
+        String expiresAt = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+            StandardCharsets.UTF_8).split(":")[2];
+        // The student's signature on a payload promoting them
+        String promoted = ENCODER.encodeToString(("s1:TEACHER:" + expiresAt).getBytes(StandardCharsets.UTF_8));
+
+        assertNull(sessionTokenService.verify(promoted + token.substring(token.indexOf('.'))));
+    }
+
+    @Test
+    void forgedSignatureIsRejected() {
+        byte[] otherSecret = new byte[32];
+        otherSecret[0] = 1;
+        SessionTokenService otherKey = sessionTokenService(Base64.getEncoder().encodeToString(otherSecret),
+            Duration.ofHours(12));
+        String token = sessionTokenService.issue(user("t1", "TEACHER"));
+        String payload = token.substring(0, token.indexOf('.'));
+
+        assertNull(sessionTokenService.verify(otherKey.issue(user("t1", "TEACHER"))));
+        assertNull(sessionTokenService.verify(payload + "." + ENCODER.encodeToString(new byte[32])));
+        assertNull(sessionTokenService.verify(payload + "." + ENCODER.encodeToString(new byte[4])));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        SessionTokenService expiring = sessionTokenService(SECRET, Duration.ofSeconds(-1));
+
+        assertNull(sessionTokenService.verify(expiring.issue(user("t1", "TEACHER"))));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        String token = sessionTokenService.issue(user("t1", "TEACHER"));
+        String payload = token.substring(0, token.indexOf('.'));
+
+        assertNull(sessionTokenService.verify(""));
+        assertNull(sessionTokenService.verify("no-dot"));
+        assertNull(sessionTokenService.verify(payload + "."));
+        assertNull(sessionTokenService.verify(token.substring(token.indexOf('.'))));
+        assertNull(sessionTokenService.verify(payload + ".%%not*base64%%"));
+        assertNull(sessionTokenService.verify("%%not*base64%%" + token.substring(token.indexOf('.'))));
+        assertNull(sessionTokenService.verify(signed("t1:TEACHER")));
+        assertNull(sessionTokenService.verify(signed("t1:TEACHER:never")));
+    }
+
+    @Test
+    void studentSessionCannotPostAnnouncements() throws Exception {
+        AnnouncementService announcementService = mock(AnnouncementService.class);
+        MockMvc mockMvc = announcementMvc(announcementService);
+
+        mockMvc.perform(createAnnouncement("s1", new SessionClaims("s1", "STUDENT", Long.MAX_VALUE)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(createAnnouncement("t2", new SessionClaims("t1", "TEACHER", Long.MAX_VALUE)))
+            .andExpect(status().isForbidden());
+
+        verify(announcementService, never()).createAnnouncement(any());
+    }
+
+    @Test
+    void teacherSessionPostsAnnouncementsAsItself() throws Exception {
+        AnnouncementService announcementService = mock(AnnouncementService.class);
+        when(announcementService.createAnnouncement(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        MockMvc mockMvc = announcementMvc(announcementService);
+
+        mockMvc.perform(createAnnouncement("t1", new SessionClaims("t1", "TEACHER", Long.MAX_VALUE)))
+            .andExpect(status().isCreated());
+
+        ArgumentCaptor<Announcement> announcement = ArgumentCaptor.forClass(Announcement.class);
+        verify(announcementService).createAnnouncement(announcement.capture());
+        assertEquals("t1", announcement.getValue().getCreatedBy());
+    }
+
+    @Test
+    void studentSessionSubmitsOnlyAsItself() throws Exception {
+        HomeworkSubmissionService submissionService = mock(HomeworkSubmissionService.class);
+        when(submissionService.submitHomework(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        HomeworkSubmissionController submissionController = new HomeworkSubmissionController();
+        ReflectionTestUtils.setField(submissionController, "submissionService", submissionService);
+        ReflectionTestUtils.setField(submissionController, "classVersionService", mock(ClassVersionService.class));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(submissionController).build();
+        SessionClaims student = new SessionClaims("s1", "STUDENT", Long.MAX_VALUE);
+
+        mockMvc.perform(put("/api/homework/submissions/h1/s2").contentType(MediaType.APPLICATION_JSON)
+                .requestAttr(SessionTokenFilter.CLAIMS, student).content("{\"driveLink\":\"https://drive.google.com/x\"}"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/homework/submissions").contentType(MediaType.APPLICATION_JSON)
+                .requestAttr(SessionTokenFilter.CLAIMS, student).content("{\"homeworkId\":\"h1\",\"userId\":\"s2\"}"))
+            .andExpect(status().isForbidden());
+        verify(submissionService, never()).updateHomeworkSubmission(any());
+
+        mockMvc.perform(post("/api/homework/submissions").contentType(MediaType.APPLICATION_JSON)
+                .requestAttr(SessionTokenFilter.CLAIMS, student).content("{\"homeworkId\":\"h1\"}"))
+            .andExpect(status().isCreated());
+        ArgumentCaptor<HomeworkSubmission> submission = ArgumentCaptor.forClass(HomeworkSubmission.class);
+        verify(submissionService).submitHomework(submission.capture());
+        assertEquals("s1", submission.getValue().getUserId());
+    }
+
+    @Test
+    void sessionSyncsOnlyItsOwnUserChanges() throws Exception {
+        ChangeLogService changeLogService = mock(ChangeLogService.class);
+        SyncController syncController = new SyncController();
+        ReflectionTestUtils.setField(syncController, "changeLogService", changeLogService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(syncController).build();
+
+        mockMvc.perform(get("/api/sync/user/s2").requestAttr(SessionTokenFilter.CLAIMS,
+                new SessionClaims("s1", "STUDENT", Long.MAX_VALUE)))
+            .andExpect(status().isForbidden());
+
+        verify(changeLogService, never()).getChanges(anyString(), anyLong(), anyInt());
+    }
+
+    // A payload signed with the right key, for checking what verify does with its contents
+    private String signed(String claims) {
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        byte[] signature = ReflectionTestUtils.invokeMethod(sessionTokenService, "sign", payload);
+        return payload + "." + ENCODER.encodeToString(signature);
+    }
+
+    private static MockMvc announcementMvc(AnnouncementService announcementService) {
+        AnnouncementController announcementController = new AnnouncementController();
+        ReflectionTestUtils.setField(announcementController, "announcementService", announcementService);
+        ReflectionTestUtils.setField(announcementController, "classVersionService", mock(ClassVersionService.class));
+        return MockMvcBuilders.standaloneSetup(announcementController).build();
+    }
+
+    private static RequestBuilder createAnnouncement(String userId, SessionClaims session) {
+        return post("/api/announcements").contentType(MediaType.APPLICATION_JSON)
+            .requestAttr(SessionTokenFilter.CLAIMS, session)
+            .content("{\"classId\":\"c1\",\"title\":\"Title\",\"description\":\"Description\",\"userId\":\"" + userId + "\"}");
+    }
+
+    private static SessionTokenService sessionTokenService(String secret, Duration ttl) {
+        SessionTokenService service = new SessionTokenService();
+        ReflectionTestUtils.setField(service, "tokenSecret", secret);
+        ReflectionTestUtils.setField(service, "tokenTtl", ttl);
+        service.init();
+        return service;
+    }
+
+    private static User user(String id, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+}
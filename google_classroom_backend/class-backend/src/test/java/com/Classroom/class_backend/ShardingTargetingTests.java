@@ -0,0 +1,94 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.ClassBackendApplication;
+import com.classroom.class_backend.config.ShardingConfig;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Needs a sharded cluster with at least two shards, see docker-compose.sharded.yml:
+ *   ./mvnw test -Dtest=ShardingTargetingTests -Dclassroom.test.sharded-uri=mongodb://localhost:27030/classroom_sharding_test
+ *
+ * Each filter mirrors a repository query on a hot path; explain shows how many shards mongos sends it to.
+ */
+@SpringBootTest(classes = ClassBackendApplication.class, properties = {
+    "spring.data.google.client-id=test",
+    "classroom.sharding.enabled=true"
+})
+@EnabledIfSystemProperty(named = "classroom.test.sharded-uri", matches = ".+")
+class ShardingTargetingTests {
+
+    private static final String CLASS_ID = "65f0a1b2c3d4e5f601234567";
+
+    private static final String USER_ID = "65f0a1b2c3d4e5f607654321";
+
+    private static final String ID = "65f0b1b2c3d4e5f600000001";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> System.getProperty("classroom.test.sharded-uri"));
+    }
+
+    @Test
+    void collectionsAreSharded() {
+        for (String collection : ShardingConfig.SHARD_KEYS.keySet()) {
+            Document config = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase("config")
+                .getCollection("collections")
+                .find(new Document("_id", mongoTemplate.getDb().getName() + "." + collection))
+                .first();
+            assertEquals(ShardingConfig.SHARD_KEYS.get(collection), config == null ? null : config.get("key", Document.class),
+                collection);
+        }
+    }
+
+    @Test
+    void hotQueriesTargetOneShard() {
+        assertSingleShard("attendance", new Document("classId", CLASS_ID).append("date", "2025-01-15"));
+        assertSingleShard("attendance", new Document("classId", CLASS_ID)
+            .append("date", new Document("$gte", "2025-01-01").append("$lte", "2025-01-31")));
+        assertSingleShard("homework", new Document("classId", CLASS_ID));
+        assertSingleShard("homework", new Document("_id", ID).append("classId", CLASS_ID));
+        assertSingleShard("homework_submissions", new Document("classId", CLASS_ID));
+        assertSingleShard("homework_submissions", new Document("classId", CLASS_ID).append("userId", USER_ID));
+        assertSingleShard("homework_submissions", new Document("classId", CLASS_ID).append("homeworkId", ID)
+            .append("userId", USER_ID));
+        assertSingleShard("announcements", new Document("classId", CLASS_ID));
+        assertSingleShard("announcements", new Document("_id", ID).append("classId", CLASS_ID));
+        assertSingleShard("class_members", new Document("classId", CLASS_ID));
+        assertSingleShard("class_members", new Document("classId", CLASS_ID).append("userId", USER_ID));
+        assertSingleShard("user", new Document("_id", USER_ID));
+    }
+
+    @Test
+    void knownBroadcastQueriesReachEveryShard() {
+        // Documented in ShardingConfig; this keeps the explain check itself honest
+        assertTrue(shards("class_members", new Document("userId", USER_ID)) > 1);
+        assertTrue(shards("user", new Document("email", "someone@example.com")) > 1);
+    }
+
+    private void assertSingleShard(String collection, Document filter) {
+        assertEquals(1, shards(collection, filter), collection + " " + filter.toJson());
+    }
+
+    private int shards(String collection, Document filter) {
+        Document explain = mongoTemplate.executeCommand(new Document("explain",
+                new Document("find", collection).append("filter", filter))
+            .append("verbosity", "queryPlanner"));
+        Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        return winningPlan.getList("shards", Document.class, List.of()).size();
+    }
+}
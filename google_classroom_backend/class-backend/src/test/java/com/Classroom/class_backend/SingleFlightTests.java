@@ -0,0 +1,166 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.config.CausalSession;
+import com.classroom.class_backend.service.SingleFlight;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTests {
+
+    private final SingleFlight singleFlight = singleFlight();
+
+    @Test
+    void concurrentCallersShareOneQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("g", "k", () -> {
+            queries.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "result";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("g", "k", () -> {
+            queries.incrementAndGet();
+            return "own";
+        }));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void errorsReachWaiters() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("g", "k", () -> {
+            started.countDown();
+            await(release);
+            throw new StackOverflowError();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("g", "k", () -> "own"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, leaderError.getCause());
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, followerError.getCause());
+    }
+
+    @Test
+    void callersAfterForgetStartTheirOwnQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> before = CompletableFuture.supplyAsync(() -> singleFlight.execute("g", "k", () -> {
+            started.countDown();
+            await(release);
+            return "before write";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        singleFlight.forget("g", "k");
+
+        assertEquals("after write", singleFlight.execute("g", "k", () -> "after write"));
+        release.countDown();
+        assertEquals("before write", before.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void boundedCallersSkipQueriesStartedBeforeTheirVersionRead() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> singleFlight.execute("g", "k", () -> {
+            started.countDown();
+            await(release);
+            return "before version";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        long versionReadAt = System.nanoTime();
+
+        assertEquals("after version", singleFlight.execute("g", "k", versionReadAt, () -> "after version"));
+        release.countDown();
+        assertEquals("before version", stale.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void secondaryReadersOnlyJoinQueriesAtOrAfterTheirOperationTime() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> inSession(new BsonTimestamp(100, 1),
+            () -> singleFlight.execute("g", "k", () -> {
+                started.countDown();
+                await(release);
+                return "as of 100";
+            })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<String> older = CompletableFuture.supplyAsync(() -> inSession(new BsonTimestamp(50, 1),
+            () -> singleFlight.execute("g", "k", () -> "as of 50")));
+        awaitCoalesced(1);
+
+        // Wrote at 200; the query in flight may not have seen that write
+        assertEquals("as of 200", inSession(new BsonTimestamp(200, 1),
+            () -> singleFlight.execute("g", "k", () -> "as of 200")));
+        release.countDown();
+
+        assertEquals("as of 100", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("as of 100", older.get(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getStats().get("g").getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, singleFlight.getStats().get("g").getCoalesced());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> T inSession(BsonTimestamp operationTime, Supplier<T> work) {
+        ClientSession session = mock(ClientSession.class);
+        when(session.getOperationTime()).thenReturn(operationTime);
+        CausalSession.bind(new CausalSession(session, ReadPreference.secondaryPreferred()));
+        try {
+            return work.get();
+        } finally {
+            CausalSession.clear();
+        }
+    }
+
+    private static SingleFlight singleFlight() {
+        SingleFlight singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", new SimpleMeterRegistry());
+        return singleFlight;
+    }
+}
@@ -0,0 +1,81 @@
+package com.Classroom.class_backend;
+
+import com.classroom.class_backend.tracing.SlowTraceSpanExporter;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowTraceSpanExporterTests {
+
+    private final RecordingExporter exported = new RecordingExporter();
+
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+        .addSpanProcessor(SimpleSpanProcessor.create(new SlowTraceSpanExporter(exported, Duration.ofMillis(500))))
+        .build();
+
+    private final Tracer tracer = tracerProvider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.shutdown();
+    }
+
+    @Test
+    void traceUnderThresholdIsDropped() {
+        trace(Duration.ofMillis(499));
+
+        assertTrue(exported.spans.isEmpty());
+    }
+
+    @Test
+    void traceOverThresholdIsExportedWithItsChildren() {
+        trace(Duration.ofMillis(800));
+
+        assertEquals(List.of("child", "root"), exported.spans.stream().map(SpanData::getName).toList());
+    }
+
+    private void trace(Duration rootDuration) {
+        long start = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        Span root = tracer.spanBuilder("root").setStartTimestamp(start, TimeUnit.NANOSECONDS).startSpan();
+        Span child = tracer.spanBuilder("child").setParent(Context.root().with(root))
+            .setStartTimestamp(start, TimeUnit.NANOSECONDS).startSpan();
+        child.end(start + TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.NANOSECONDS);
+        root.end(start + rootDuration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static final class RecordingExporter implements SpanExporter {
+        final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
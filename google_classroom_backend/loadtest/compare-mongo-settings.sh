@@ -0,0 +1,57 @@
+#!/bin/bash
+# Runs the same load test against the backend once per classroom.mongo setting below, changing one
+# knob at a time from the baseline, and keeps each JSON report. Mongo comes from MONGO_URI; use a
+# replica set for the read preference and write concern runs, otherwise they measure nothing.
+# Compare the reports' latency percentiles together with mongodb_driver_pool_checkout_seconds and
+# mongodb_driver_pool_waitqueuesize, which are scraped into $OUT/<name>.prom after each run.
+#
+#   ./compare-mongo-settings.sh [extra load test options, e.g. --students=5000 --scenarios=dashboard]
+#   ONLY="baseline zstd" ./compare-mongo-settings.sh
+set -eu
+
+cd "$(dirname "$0")"
+BACKEND_JAR=${BACKEND_JAR:-../class-backend/target/class-backend-0.0.1-SNAPSHOT-exec.jar}
+MONGO_URI=${MONGO_URI:-mongodb://localhost:27017/classroom}
+PORT=${PORT:-8080}
+OUT=target/compare-mongo
+mkdir -p "$OUT"
+
+declare -A SETTINGS=(
+    [baseline]=""
+    [pool-10]="--classroom.mongo.pool.max-size=10"
+    [pool-10-wait-200ms]="--classroom.mongo.pool.max-size=10 --classroom.mongo.pool.max-wait-time=200ms"
+    [pool-300]="--classroom.mongo.pool.max-size=300 --classroom.mongo.pool.min-size=50"
+    [max-connecting-8]="--classroom.mongo.pool.max-connecting=8"
+    [zstd]="--classroom.mongo.compressors=zstd"
+    [snappy]="--classroom.mongo.compressors=snappy"
+    [zlib]="--classroom.mongo.compressors=zlib"
+    [announcements-secondary]="--classroom.mongo.collections.announcements.read-preference=secondaryPreferred"
+    [attendance-w1]="--classroom.mongo.collections.attendance.write-concern=w1"
+    [reads-majority]="--classroom.mongo.collections.homework.read-concern=majority --classroom.mongo.collections.announcements.read-concern=majority"
+)
+ORDER="baseline pool-10 pool-10-wait-200ms pool-300 max-connecting-8 zstd snappy zlib announcements-secondary attendance-w1 reads-majority"
+
+run_setting() {
+    name=$1
+    shift
+    echo "== $name: ${SETTINGS[$name]:-defaults}"
+    java -jar "$BACKEND_JAR" --server.port="$PORT" --spring.data.mongodb.uri="$MONGO_URI" ${SETTINGS[$name]} > "$OUT/backend-$name.log" 2>&1 &
+    backend=$!
+    trap 'kill $backend 2>/dev/null' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 $backend 2>/dev/null || { echo "backend exited, see $OUT/backend-$name.log"; exit 2; }
+        sleep 1
+    done
+    # A failed SLO must not stop the comparison, so the exit code is only reported
+    java -jar target/loadtest.jar --base-url="http://localhost:$PORT" --report="$OUT/$name.json" "$@" || echo "$name run exited with $?"
+    curl -sf "http://localhost:$PORT/actuator/prometheus" | grep '^mongodb_driver_pool' > "$OUT/$name.prom" || true
+    kill $backend
+    wait $backend 2>/dev/null || true
+    trap - EXIT
+}
+
+for name in ${ONLY:-$ORDER}; do
+    [ -n "${SETTINGS[$name]+set}" ] || { echo "unknown setting $name"; exit 2; }
+    run_setting "$name" "$@"
+done
+echo "Reports in $OUT"
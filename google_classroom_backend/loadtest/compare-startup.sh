@@ -0,0 +1,93 @@
+#!/bin/bash
+# Measures cold start of each available backend build: time from launch until the first request
+# is answered, Spring's own "Started ... in" figure, and resident memory after that request.
+# Runs with the inmemory profile so no Mongo is involved; repeat with RUNS=n for a median.
+# JAVA=path/to/bin/java runs the JVM modes on another runtime, e.g. the jlink image the Dockerfile builds.
+#
+#   jvm        java -jar on the executable jar
+#   jvm-aot    the same jar with -Dspring.aot.enabled=true (needs a jar built with
+#              mvn -Pnative package -Dspring-boot.aot.jvmArguments=-Dspring.profiles.active=inmemory)
+#   extracted  the jar extracted into its layers, the layout the Dockerfile builds; prepared under
+#              target/compare/cds on first use
+#   cds        the extracted jar started with the AppCDS archive from a training run
+#   native     target/class-backend from mvn -Pnative native:compile with the same AOT arguments
+#
+#   ./compare-startup.sh [mode ...]
+set -eu
+
+cd "$(dirname "$0")"
+BACKEND_DIR=${BACKEND_DIR:-../class-backend}
+JAR=${JAR:-$BACKEND_DIR/target/class-backend-0.0.1-SNAPSHOT-exec.jar}
+JAVA=${JAVA:-java}
+PORT=${PORT:-18090}
+RUNS=${RUNS:-3}
+APP_ARGS="--spring.profiles.active=inmemory --server.port=$PORT --spring.data.google.client-id=startup-check"
+OUT=target/compare
+# The archive records the class path as given, so training and runs must name the jar identically
+CDS_DIR=$PWD/$OUT/cds
+mkdir -p "$OUT"
+
+# Same steps as the Dockerfile: extract the layers into one directory, then let a training run that
+# stops once the context has refreshed record every class it loaded
+prepare_cds() {
+    [ -f "$CDS_DIR/app.jsa" ] && [ "$CDS_DIR/app.jar" -nt "$JAR" ] && return 0
+    rm -rf "$CDS_DIR" "$OUT/layers"
+    "$JAVA" -Djarmode=tools -jar "$JAR" extract --layers --destination "$OUT/layers" > /dev/null
+    mkdir -p "$CDS_DIR"
+    for layer in dependencies spring-boot-loader snapshot-dependencies application; do
+        cp -r "$OUT/layers/$layer/." "$CDS_DIR/"
+    done
+    mv "$CDS_DIR"/class-backend-*.jar "$CDS_DIR/app.jar"
+    (cd "$CDS_DIR" && "$JAVA" -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=off -Xlog:cds+dynamic=off \
+        -Dspring.context.exit=onRefresh -jar "$CDS_DIR/app.jar" $APP_ARGS > training.log 2>&1)
+}
+
+launch() {
+    case $1 in
+        jvm) exec "$JAVA" -jar "$JAR" $APP_ARGS ;;
+        jvm-aot) exec "$JAVA" -Dspring.aot.enabled=true -jar "$JAR" $APP_ARGS ;;
+        extracted) exec "$JAVA" -jar "$CDS_DIR/app.jar" $APP_ARGS ;;
+        cds) exec "$JAVA" -XX:SharedArchiveFile="$CDS_DIR/app.jsa" -jar "$CDS_DIR/app.jar" $APP_ARGS ;;
+        native) exec "$BACKEND_DIR/target/class-backend" $APP_ARGS ;;
+        *) echo "unknown mode $1" >&2; return 2 ;;
+    esac
+}
+
+available() {
+    case $1 in
+        jvm) [ -f "$JAR" ] ;;
+        jvm-aot) [ -f "$JAR" ] && unzip -l "$JAR" | grep -q '__BeanDefinitions.class' ;;
+        extracted|cds) [ -f "$JAR" ] && prepare_cds ;;
+        native) [ -x "$BACKEND_DIR/target/class-backend" ] ;;
+    esac
+}
+
+measure() {
+    mode=$1
+    log="$OUT/startup-$mode.log"
+    start=$(date +%s%N)
+    launch "$mode" > "$log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 $pid 2>/dev/null || { echo "$mode exited, see $log" >&2; return 1; }
+        sleep 0.02
+    done
+    first_request_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss_mb=$(( $(awk '/VmRSS/ {print $2}' /proc/$pid/status) / 1024 ))
+    started=$(grep -o 'Started ClassBackendApplication in [0-9.]* seconds' "$log" | grep -o '[0-9.]*' | head -1)
+    kill $pid
+    wait $pid 2>/dev/null || true
+    printf '%-10s %10s %12s %8s\n' "$mode" "$first_request_ms" "${started:-?}" "$rss_mb"
+}
+
+modes=${*:-jvm jvm-aot extracted cds native}
+printf '%-10s %10s %12s %8s\n' mode "ttfr_ms" "started_s" "rss_mb"
+for mode in $modes; do
+    if ! available "$mode"; then
+        echo "$mode: build not found, skipped"
+        continue
+    fi
+    for run in $(seq 1 "$RUNS"); do
+        measure "$mode"
+    done
+done
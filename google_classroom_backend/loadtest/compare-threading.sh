@@ -0,0 +1,39 @@
+#!/bin/sh
+# Runs the same load test against the backend twice, once with request handling on virtual
+# threads and once on Tomcat's platform thread pool, and keeps both JSON reports.
+#
+# Needs a Java 21 runtime and a backend built with -Pjava21 (on 17 both runs use platform threads).
+# Mongo must be running locally unless BACKEND_ARGS selects --spring.profiles.active=inmemory.
+#
+#   ./compare-threading.sh [extra load test options, e.g. --students=5000 --scenarios=deadline-surge]
+set -eu
+
+cd "$(dirname "$0")"
+BACKEND_JAR=${BACKEND_JAR:-../class-backend/target/class-backend-0.0.1-SNAPSHOT-exec.jar}
+BACKEND_ARGS=${BACKEND_ARGS:-}
+PORT=${PORT:-8080}
+OUT=target/compare
+mkdir -p "$OUT"
+
+run_mode() {
+    mode=$1
+    virtual=$2
+    shift 2
+    echo "== $mode threads"
+    java -jar "$BACKEND_JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" $BACKEND_ARGS > "$OUT/backend-$mode.log" 2>&1 &
+    backend=$!
+    trap 'kill $backend 2>/dev/null' EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 $backend 2>/dev/null || { echo "backend exited, see $OUT/backend-$mode.log"; exit 2; }
+        sleep 1
+    done
+    # A failed SLO must not stop the comparison, so the exit code is only reported
+    java -jar target/loadtest.jar --base-url="http://localhost:$PORT" --report="$OUT/$mode.json" "$@" || echo "$mode run exited with $?"
+    kill $backend
+    wait $backend 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform false "$@"
+run_mode virtual true "$@"
+echo "Reports: $OUT/platform.json $OUT/virtual.json"
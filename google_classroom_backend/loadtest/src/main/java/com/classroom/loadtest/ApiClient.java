@@ -0,0 +1,171 @@
+package com.classroom.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thin JSON client over java.net.http that records every call against a named endpoint.
+ * 2xx and 304 responses count as successes; anything else, including I/O failures, as errors.
+ * The backend's X-Mongo-Operation-Time is handed back to the caller, who decides whether to send
+ * it on; no cookies are kept, so each simulated user carries its own.
+ */
+class ApiClient {
+
+    private final HttpClient http;
+
+    private final String baseUrl;
+
+    private final Duration timeout;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    ApiClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    static final String OPERATION_TIME_HEADER = "X-Mongo-Operation-Time";
+
+    // For setup only: a 503 there means the backend shed load, not that the fixture is wrong
+    private static final int BUSY_RETRIES = 10;
+
+    record Response(int status, JsonNode body, String eTag, String operationTime) {
+
+        boolean isSuccess() {
+            return (status >= 200 && status < 300) || status == 304;
+        }
+
+        JsonNode data() {
+            return body.path("data");
+        }
+    }
+
+    Response get(String endpoint, String path, String ifNoneMatch, long startNanos) {
+        return get(endpoint, path, ifNoneMatch, null, startNanos);
+    }
+
+    Response get(String endpoint, String path, String ifNoneMatch, String operationTime, long startNanos) {
+        HttpRequest.Builder request = newRequest(path).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        if (operationTime != null) {
+            request.header(OPERATION_TIME_HEADER, operationTime);
+        }
+        return send(endpoint, request.build(), startNanos);
+    }
+
+    Response post(String endpoint, String path, Object body, long startNanos) {
+        return send(endpoint, newRequest(path).POST(jsonBody(body)).build(), startNanos);
+    }
+
+    /** Like post, but honors 503 with Retry-After; recorded once, with the retries in its latency. */
+    Response postRetryingBusy(String endpoint, String path, Object body, long startNanos) {
+        HttpRequest request = newRequest(path).POST(jsonBody(body)).build();
+        Exchange exchange = execute(request);
+        for (int attempt = 0; attempt < BUSY_RETRIES && exchange.response.status() == 503 && exchange.retryAfterSeconds > 0; attempt++) {
+            try {
+                Thread.sleep(Duration.ofSeconds(exchange.retryAfterSeconds).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            exchange = execute(request);
+        }
+        return record(endpoint, exchange.response, startNanos);
+    }
+
+    Response put(String endpoint, String path, Object body, long startNanos) {
+        return send(endpoint, newRequest(path).PUT(jsonBody(body)).build(), startNanos);
+    }
+
+    // Records a check on a response (not a request) under its own name, so it gets an error rate and an SLO
+    void check(String name, long startNanos, boolean passed) {
+        stats.computeIfAbsent(name, EndpointStats::new).record(startNanos, System.nanoTime(), passed);
+    }
+
+    Map<String, EndpointStats> stats() {
+        return stats;
+    }
+
+    void reset() {
+        stats.clear();
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher jsonBody(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable request body", e);
+        }
+    }
+
+    private Response send(String endpoint, HttpRequest request, long startNanos) {
+        return record(endpoint, execute(request).response, startNanos);
+    }
+
+    private Response record(String endpoint, Response response, long startNanos) {
+        stats.computeIfAbsent(endpoint, EndpointStats::new).record(startNanos, System.nanoTime(), response.isSuccess());
+        return response;
+    }
+
+    private Exchange execute(HttpRequest request) {
+        try {
+            HttpResponse<byte[]> httpResponse = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            byte[] bytes = httpResponse.body();
+            JsonNode body = bytes.length == 0 ? MissingNode.getInstance() : readTree(bytes);
+            Response response = new Response(httpResponse.statusCode(), body, httpResponse.headers().firstValue("ETag").orElse(null),
+                httpResponse.headers().firstValue(OPERATION_TIME_HEADER).orElse(null));
+            long retryAfter = httpResponse.headers().firstValue("Retry-After").map(ApiClient::seconds).orElse(0L);
+            return new Exchange(response, retryAfter);
+        } catch (IOException e) {
+            return new Exchange(new Response(-1, MissingNode.getInstance(), null, null), 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Exchange(new Response(-1, MissingNode.getInstance(), null, null), 0);
+        }
+    }
+
+    private static long seconds(String retryAfter) {
+        try {
+            return Long.parseLong(retryAfter.trim());
+        } catch (NumberFormatException e) {
+            // HTTP dates are allowed too; the backend only sends seconds
+            return 0;
+        }
+    }
+
+    private record Exchange(Response response, long retryAfterSeconds) {}
+
+    private JsonNode readTree(byte[] bytes) {
+        try {
+            return objectMapper.readTree(bytes);
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+}
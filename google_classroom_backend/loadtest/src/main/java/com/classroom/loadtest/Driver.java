@@ -0,0 +1,67 @@
+package com.classroom.loadtest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model request scheduler. Every arrival has a planned offset from the start of the run
+ * and is handed its planned start time, so when the server (or the client pool) falls behind,
+ * the delay is charged to latency instead of silently lowering the offered rate.
+ */
+class Driver {
+
+    interface Action {
+        void run(long scheduledNanos);
+    }
+
+    record Arrival(long offsetNanos, Action action) {}
+
+    private final int concurrency;
+
+    Driver(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    void run(List<Arrival> arrivals) {
+        List<Arrival> schedule = new ArrayList<>(arrivals);
+        schedule.sort(Comparator.comparingLong(Arrival::offsetNanos));
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime() + 50_000_000L;
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, schedule.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < Math.min(concurrency, schedule.size()); i++) {
+                futures.add(workers.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < schedule.size()) {
+                        Arrival arrival = schedule.get(index);
+                        long scheduled = start + arrival.offsetNanos();
+                        long wait;
+                        while ((wait = scheduled - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        arrival.action().run(scheduled);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while driving load", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.classroom.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one endpoint. Latencies are recorded in
+ * microseconds from the request's scheduled start.
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    final String name;
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long startNanos, long endNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos);
+        histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+        firstStart.accumulateAndGet(startNanos, Math::min);
+        lastEnd.accumulateAndGet(endNanos, Math::max);
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double errorRate() {
+        long count = count();
+        return count == 0 ? 0 : (double) errors() / count;
+    }
+
+    double throughput() {
+        long elapsed = lastEnd.get() - firstStart.get();
+        return elapsed <= 0 ? 0 : count() / (elapsed / 1e9);
+    }
+
+    double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return histogram.getMaxValue() / 1000.0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.classroom.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Test data created through the public API before the scenarios run: teachers with one class
+ * each, students, memberships and some class content. Class 0 is a large lecture that every
+ * student belongs to (the deadline-surge target); the remaining students are spread over the
+ * other classes; one extra class is left empty for the join burst.
+ *
+ * <p>Names carry a random run id, so runs can repeat against the same database.
+ */
+class Fixture {
+
+    static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    final String runId;
+
+    final String[] studentIds;
+
+    final String[] studentEmails;
+
+    final String[] teacherIds;
+
+    final String[] classIds;
+
+    final String[] classCodes;
+
+    private Fixture(String runId, int students, int classes) {
+        this.runId = runId;
+        this.studentIds = new String[students];
+        this.studentEmails = new String[students];
+        this.teacherIds = new String[classes + 1];
+        this.classIds = new String[classes + 1];
+        this.classCodes = new String[classes + 1];
+    }
+
+    int lectureClass() {
+        return 0;
+    }
+
+    int burstClass() {
+        return classIds.length - 1;
+    }
+
+    static Fixture create(ApiClient client, Driver driver, LoadTestOptions options) {
+        SplittableRandom random = new SplittableRandom(options.seed ^ System.nanoTime());
+        String runId = Long.toString(36L * 36 * 36 + random.nextLong(36L * 36 * 36 * 35), 36).toUpperCase(Locale.ROOT);
+        Fixture fixture = new Fixture(runId, options.students, options.classes);
+        String email = "lt-" + runId.toLowerCase(Locale.ROOT);
+
+        List<Driver.Arrival> signups = new ArrayList<>();
+        for (int i = 0; i < fixture.teacherIds.length; i++) {
+            int index = i;
+            signups.add(now(start -> fixture.teacherIds[index] = client.postRetryingBusy("setup", "/api/auth/signup", Map.of(
+                "name", "Teacher " + (index + 1), "email", email + "-t" + index + "@example.edu",
+                "password", options.password, "role", "TEACHER"), start).body().path("userId").asText(null)));
+        }
+        for (int i = 0; i < options.students; i++) {
+            int index = i;
+            fixture.studentEmails[i] = email + "-s" + i + "@example.edu";
+            signups.add(now(start -> fixture.studentIds[index] = client.postRetryingBusy("setup", "/api/auth/signup", Map.of(
+                "name", "Student " + (index + 1), "email", fixture.studentEmails[index], "password", options.password,
+                "role", "STUDENT", "section", "A", "rollNumber", index + 1), start).body().path("userId").asText(null)));
+        }
+        driver.run(signups);
+        requireNoErrors(client, "sign up users");
+
+        List<Driver.Arrival> classes = new ArrayList<>();
+        for (int c = 0; c < fixture.classIds.length; c++) {
+            int index = c;
+            fixture.classIds[c] = "lt-" + runId + "-" + c;
+            // Run id (4) + base-36 index (4) keeps the 8-character uppercase code unique per run
+            fixture.classCodes[c] = runId + String.format("%4s", Integer.toString(c, 36)).replace(' ', '0').toUpperCase(Locale.ROOT);
+            classes.add(now(start -> client.post("setup", "/api/classes/create", Map.of(
+                "classId", fixture.classIds[index], "classCode", fixture.classCodes[index], "subjectCode", "LT" + index,
+                "section", "A", "subject", "Load test " + index, "teacherName", "Teacher " + (index + 1),
+                "userId", fixture.teacherIds[index]), start)));
+        }
+        driver.run(classes);
+        requireNoErrors(client, "create classes");
+
+        List<Driver.Arrival> content = new ArrayList<>();
+        LocalDateTime nextWeek = LocalDateTime.now(ZONE).plusDays(7).withNano(0);
+        for (int c = 0; c < options.classes; c++) {
+            int index = c;
+            for (int n = 0; n < 2; n++) {
+                int number = n + 1;
+                content.add(now(start -> client.post("setup", "/api/announcements", Map.of(
+                    "classId", fixture.classIds[index], "title", "Announcement " + number,
+                    "description", "Please read chapter " + number + " before the next lecture.",
+                    "userId", fixture.teacherIds[index]), start)));
+                content.add(now(start -> client.post("setup", "/api/homework", Map.of(
+                    "classId", fixture.classIds[index], "title", "Homework " + number,
+                    "description", "Solve the exercises at the end of chapter " + number + ".",
+                    "dueDate", nextWeek.toString(), "createdBy", fixture.teacherIds[index]), start)));
+            }
+        }
+        for (int i = 0; i < options.students; i++) {
+            int index = i;
+            content.add(now(start -> fixture.join(client, "setup", index, fixture.lectureClass(), start)));
+            if (options.classes > 1) {
+                content.add(now(start -> fixture.join(client, "setup", index, 1 + index % (options.classes - 1), start)));
+            }
+        }
+        driver.run(content);
+        requireNoErrors(client, "create memberships and class content");
+        client.reset();
+        return fixture;
+    }
+
+    ApiClient.Response join(ApiClient client, String endpoint, int student, int classIndex, long start) {
+        return client.post(endpoint, "/api/classes/join", Map.of("classCode", classCodes[classIndex], "userId", studentIds[student]), start);
+    }
+
+    private static Driver.Arrival now(Driver.Action action) {
+        return new Driver.Arrival(0, action);
+    }
+
+    private static void requireNoErrors(ApiClient client, String step) {
+        EndpointStats setup = client.stats().get("setup");
+        if (setup != null && setup.errors() > 0) {
+            throw new IllegalStateException("Setup failed to " + step + ": " + setup.errors() + " of " + setup.count() + " requests failed");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.classroom.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives the running backend through its REST API with the scenarios in {@link Scenarios},
+ * prints throughput and latency percentiles per endpoint, writes a JSON report and exits
+ * non-zero when an SLO from slo.properties is violated.
+ *
+ * <p>Everything runs on one machine: start Mongo and the backend locally, then e.g.
+ * {@code java -jar target/loadtest.jar --base-url=http://localhost:8080 --students=5000}.
+ * Test users and classes are created through the API first and are not measured.
+ *
+ * <p>Exit codes: 0 all SLOs met, 1 SLO violated, 2 invalid options or failed setup.
+ */
+public final class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {}
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(LoadTestOptions.parse(args));
+        } catch (Exception e) {
+            LOGGER.error("Load test aborted: {}", e.getMessage(), e);
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+
+    static int run(LoadTestOptions options) throws Exception {
+        SloChecker sloChecker = new SloChecker(options);
+        ApiClient client = new ApiClient(options.baseUrl, options.requestTimeout);
+        Driver driver = new Driver(options.concurrency);
+
+        LOGGER.info("Setting up {} students and {} classes against {}", options.students, options.classes, options.baseUrl);
+        Fixture fixture = Fixture.create(client, driver, options);
+        LOGGER.info("Setup done, run id {}", fixture.runId);
+
+        Scenarios scenarios = new Scenarios(client, driver, options, fixture);
+        Map<String, Map<String, EndpointStats>> byScenario = new LinkedHashMap<>();
+        Map<String, EndpointStats> all = new LinkedHashMap<>();
+        for (String scenario : options.scenarios) {
+            LOGGER.info("Running {}", scenario);
+            client.reset();
+            scenarios.run(scenario);
+            Map<String, EndpointStats> results = new LinkedHashMap<>(client.stats());
+            byScenario.put(scenario, results);
+            all.putAll(results);
+        }
+
+        List<String> violations = sloChecker.check(all);
+        printReport(byScenario, violations);
+        writeReport(options, fixture, byScenario, violations);
+        return violations.isEmpty() ? 0 : 1;
+    }
+
+    private static void printReport(Map<String, Map<String, EndpointStats>> byScenario, List<String> violations) {
+        StringBuilder report = new StringBuilder(String.format("%n%-16s %-22s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+            "scenario", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+        byScenario.forEach((scenario, results) -> results.values().forEach(stats -> report.append(String.format(
+            "%-16s %-22s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", scenario, stats.name, stats.count(), stats.errors(),
+            stats.throughput(), stats.percentileMillis(50), stats.percentileMillis(95), stats.percentileMillis(99),
+            stats.percentileMillis(99.9), stats.maxMillis()))));
+        if (violations.isEmpty()) {
+            report.append("All SLOs met.");
+        } else {
+            report.append("SLO violations:");
+            violations.forEach(violation -> report.append(System.lineSeparator()).append("  ").append(violation));
+        }
+        LOGGER.info("{}", report);
+    }
+
+    private static void writeReport(LoadTestOptions options, Fixture fixture, Map<String, Map<String, EndpointStats>> byScenario,
+                                    List<String> violations) throws Exception {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        byScenario.forEach((scenario, results) -> results.values().forEach(stats -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("scenario", scenario);
+            entry.put("endpoint", stats.name);
+            entry.put("requests", stats.count());
+            entry.put("errors", stats.errors());
+            entry.put("throughput", stats.throughput());
+            entry.put("p50", stats.percentileMillis(50));
+            entry.put("p95", stats.percentileMillis(95));
+            entry.put("p99", stats.percentileMillis(99));
+            entry.put("p999", stats.percentileMillis(99.9));
+            entry.put("max", stats.maxMillis());
+            endpoints.add(entry);
+        }));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("runId", fixture.runId);
+        report.put("baseUrl", options.baseUrl);
+        report.put("students", options.students);
+        report.put("classes", options.classes);
+        report.put("concurrency", options.concurrency);
+        report.put("endpoints", endpoints);
+        report.put("violations", violations);
+
+        Path path = Path.of(options.report);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        LOGGER.info("Report written to {}", path.toAbsolutePath());
+    }
+}
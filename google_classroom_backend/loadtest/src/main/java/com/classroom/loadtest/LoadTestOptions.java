@@ -0,0 +1,113 @@
+package com.classroom.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as {@code --name=value}. Options starting
+ * with {@code --slo.} override single lines of the SLO file.
+ */
+public class LoadTestOptions {
+
+    static final List<String> SCENARIOS = List.of("login-storm", "join-burst", "dashboard", "deadline-surge");
+
+    // Only run when named in --scenarios
+    static final List<String> OPTIONAL_SCENARIOS = List.of("read-your-writes");
+
+    String baseUrl = "http://localhost:8080";
+    List<String> scenarios = SCENARIOS;
+    long seed = 42L;
+
+    int students = 5_000;
+    int classes = 20;
+    String password = "Password@123";
+
+    // Client worker threads; arrivals beyond what they can absorb show up as latency, not as a lower rate
+    int concurrency = 200;
+    Duration requestTimeout = Duration.ofSeconds(30);
+
+    Duration loginWindow = Duration.ofSeconds(30);
+    Duration joinWindow = Duration.ofSeconds(10);
+    Duration dashboardWindow = Duration.ofSeconds(30);
+    int dashboardRounds = 3;
+    Duration surgeWindow = Duration.ofSeconds(60);
+    double resubmitRate = 0.1;
+    // Send the operation time of a write with the reads that follow it (read-your-writes scenario)
+    boolean causalReads = true;
+
+    String sloFile;
+    Map<String, String> sloOverrides = new HashMap<>();
+    String report = "target/loadtest-report.json";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("slo.")) {
+                options.sloOverrides.put(name.substring(4), value);
+            } else {
+                values.put(name, value);
+            }
+        }
+
+        options.baseUrl = values.getOrDefault("base-url", options.baseUrl).replaceAll("/+$", "");
+        if (values.containsKey("scenarios")) {
+            options.scenarios = List.of(values.get("scenarios").split(","));
+            for (String scenario : options.scenarios) {
+                if (!SCENARIOS.contains(scenario) && !OPTIONAL_SCENARIOS.contains(scenario)) {
+                    throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected one of " + SCENARIOS
+                        + " or " + OPTIONAL_SCENARIOS);
+                }
+            }
+        }
+        options.seed = Long.parseLong(values.getOrDefault("seed", String.valueOf(options.seed)));
+        options.students = intValue(values, "students", options.students);
+        options.classes = intValue(values, "classes", options.classes);
+        options.password = values.getOrDefault("password", options.password);
+        options.concurrency = intValue(values, "concurrency", options.concurrency);
+        options.requestTimeout = durationValue(values, "request-timeout", options.requestTimeout);
+        options.loginWindow = durationValue(values, "login-window", options.loginWindow);
+        options.joinWindow = durationValue(values, "join-window", options.joinWindow);
+        options.dashboardWindow = durationValue(values, "dashboard-window", options.dashboardWindow);
+        options.dashboardRounds = intValue(values, "dashboard-rounds", options.dashboardRounds);
+        options.surgeWindow = durationValue(values, "surge-window", options.surgeWindow);
+        options.resubmitRate = Double.parseDouble(values.getOrDefault("resubmit-rate", String.valueOf(options.resubmitRate)));
+        options.causalReads = Boolean.parseBoolean(values.getOrDefault("causal-reads", String.valueOf(options.causalReads)));
+        options.sloFile = values.get("slo-file");
+        options.report = values.getOrDefault("report", options.report);
+
+        if (options.students < 1 || options.classes < 1 || options.concurrency < 1) {
+            throw new IllegalArgumentException("students, classes and concurrency must be positive.");
+        }
+        return options;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    // Accepts 500ms, 30s, 2m or an ISO-8601 duration
+    static Duration durationValue(Map<String, String> values, String name, Duration defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
@@ -0,0 +1,192 @@
+package com.classroom.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The traffic shapes the backend has to survive: the morning login storm, a start-of-term join
+ * burst, students repeatedly loading their dashboards, and a whole lecture submitting homework
+ * in the last minutes before the deadline. read-your-writes is opt-in: it checks that reads routed
+ * to secondaries still show a client its own writes.
+ */
+class Scenarios {
+
+    private final ApiClient client;
+
+    private final Driver driver;
+
+    private final LoadTestOptions options;
+
+    private final Fixture fixture;
+
+    Scenarios(ApiClient client, Driver driver, LoadTestOptions options, Fixture fixture) {
+        this.client = client;
+        this.driver = driver;
+        this.options = options;
+        this.fixture = fixture;
+    }
+
+    void run(String scenario) {
+        switch (scenario) {
+            case "login-storm" -> loginStorm();
+            case "join-burst" -> joinBurst();
+            case "dashboard" -> dashboard();
+            case "deadline-surge" -> deadlineSurge();
+            case "read-your-writes" -> readYourWrites();
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    // Every student logs in once, at uniformly random moments within the window
+    private void loginStorm() {
+        SplittableRandom random = new SplittableRandom(options.seed);
+        List<Driver.Arrival> arrivals = new ArrayList<>();
+        for (int i = 0; i < options.students; i++) {
+            int index = i;
+            arrivals.add(new Driver.Arrival(uniform(random, options.loginWindow.toNanos()), start ->
+                client.post("login", "/api/auth/login", Map.of("email", fixture.studentEmails[index], "password", options.password), start)));
+        }
+        driver.run(arrivals);
+    }
+
+    // Every student joins the same fresh class, as when a code is shared at the start of term
+    private void joinBurst() {
+        SplittableRandom random = new SplittableRandom(options.seed + 1);
+        List<Driver.Arrival> arrivals = new ArrayList<>();
+        for (int i = 0; i < options.students; i++) {
+            int index = i;
+            arrivals.add(new Driver.Arrival(uniform(random, options.joinWindow.toNanos()), start ->
+                fixture.join(client, "join", index, fixture.burstClass(), start)));
+        }
+        driver.run(arrivals);
+    }
+
+    // Each round every student loads the class list and each class's announcements and homework,
+    // revalidating with the ETag from the previous round as the web client does
+    private void dashboard() {
+        SplittableRandom random = new SplittableRandom(options.seed + 2);
+        Map<String, String> eTags = new ConcurrentHashMap<>();
+        Map<String, List<String>> classesByStudent = new ConcurrentHashMap<>();
+        long window = options.dashboardWindow.toNanos();
+        List<Driver.Arrival> arrivals = new ArrayList<>();
+        for (int round = 0; round < options.dashboardRounds; round++) {
+            for (int i = 0; i < options.students; i++) {
+                String userId = fixture.studentIds[i];
+                arrivals.add(new Driver.Arrival(round * window + uniform(random, window), start -> {
+                    ApiClient.Response classes = conditionalGet("classes.joined", "/api/classes?type=joined&userId=" + userId, userId, eTags, start);
+                    if (classes.status() == 200) {
+                        List<String> classIds = new ArrayList<>();
+                        for (JsonNode classNode : classes.data()) {
+                            classIds.add(classNode.path("classId").asText());
+                        }
+                        classesByStudent.put(userId, classIds);
+                    }
+                    for (String classId : classesByStudent.getOrDefault(userId, List.of())) {
+                        conditionalGet("announcements.byClass", "/api/announcements/class/" + classId, userId, eTags, System.nanoTime());
+                        conditionalGet("homework.byClass", "/api/homework/class/" + classId, userId, eTags, System.nanoTime());
+                    }
+                }));
+            }
+        }
+        driver.run(arrivals);
+    }
+
+    // The whole lecture submits one homework, bunched towards the deadline; some students
+    // re-upload straight away, and the teacher keeps the submissions page open
+    private void deadlineSurge() {
+        int lecture = fixture.lectureClass();
+        String classId = fixture.classIds[lecture];
+        long window = options.surgeWindow.toNanos();
+        LocalDateTime dueDate = LocalDateTime.now(Fixture.ZONE).plusNanos(window).plusMinutes(2).withNano(0);
+        ApiClient.Response homework = client.post("setup", "/api/homework", Map.of("classId", classId,
+            "title", "Deadline surge", "description", "Upload your report before the deadline.",
+            "dueDate", dueDate.toString(), "createdBy", fixture.teacherIds[lecture]), System.nanoTime());
+        client.stats().remove("setup");
+        if (!homework.isSuccess()) {
+            throw new IllegalStateException("Could not create the deadline homework: HTTP " + homework.status());
+        }
+        String homeworkId = homework.data().path("id").asText();
+
+        SplittableRandom random = new SplittableRandom(options.seed + 3);
+        List<Driver.Arrival> arrivals = new ArrayList<>();
+        for (int i = 0; i < options.students; i++) {
+            String userId = fixture.studentIds[i];
+            boolean resubmit = random.nextDouble() < options.resubmitRate;
+            // Density grows quadratically towards the end of the window
+            long offset = (long) (window * Math.cbrt(random.nextDouble()));
+            arrivals.add(new Driver.Arrival(offset, start -> {
+                ApiClient.Response submitted = client.post("submit", "/api/homework/submissions", Map.of("homeworkId", homeworkId,
+                    "classId", classId, "userId", userId, "driveLink", driveLink(userId, 1)), start);
+                if (resubmit && submitted.isSuccess()) {
+                    client.put("resubmit", "/api/homework/submissions/" + homeworkId + "/" + userId,
+                        Map.of("classId", classId, "driveLink", driveLink(userId, 2)), System.nanoTime());
+                }
+            }));
+        }
+        Map<String, String> eTags = new ConcurrentHashMap<>();
+        String teacherId = fixture.teacherIds[lecture];
+        for (long offset = 0; offset < window; offset += 1_000_000_000L) {
+            arrivals.add(new Driver.Arrival(offset, start ->
+                conditionalGet("submissions.byClass", "/api/homework/submissions/class/" + classId, teacherId, eTags, start)));
+        }
+        driver.run(arrivals);
+    }
+
+    // Every teacher posts an announcement and reloads the class's announcements straight away, as the
+    // web client does, passing on the post's operation time (unless --causal-reads=false); the
+    // read-your-writes check fails whenever the new post is missing from the list
+    private void readYourWrites() {
+        SplittableRandom random = new SplittableRandom(options.seed + 4);
+        long window = options.dashboardWindow.toNanos();
+        List<Driver.Arrival> arrivals = new ArrayList<>();
+        for (int round = 0; round < options.dashboardRounds; round++) {
+            for (int c = 0; c < fixture.burstClass(); c++) {
+                String classId = fixture.classIds[c];
+                String teacherId = fixture.teacherIds[c];
+                String title = "Reminder " + (round + 1);
+                arrivals.add(new Driver.Arrival(round * window + uniform(random, window), start -> {
+                    ApiClient.Response posted = client.post("announce", "/api/announcements", Map.of("classId", classId,
+                        "title", title, "description", "Bring your lab notebook.", "userId", teacherId), start);
+                    if (!posted.isSuccess()) {
+                        return;
+                    }
+                    String announcementId = posted.data().path("id").asText();
+                    long readStart = System.nanoTime();
+                    ApiClient.Response list = client.get("announcements.readback", "/api/announcements/class/" + classId, null,
+                        options.causalReads ? posted.operationTime() : null, readStart);
+                    if (list.status() == 200) {
+                        boolean found = false;
+                        for (JsonNode announcement : list.data()) {
+                            found |= announcementId.equals(announcement.path("id").asText());
+                        }
+                        client.check("read-your-writes", readStart, found);
+                    }
+                }));
+            }
+        }
+        driver.run(arrivals);
+    }
+
+    private ApiClient.Response conditionalGet(String endpoint, String path, String userId, Map<String, String> eTags, long start) {
+        String key = userId + " " + path;
+        ApiClient.Response response = client.get(endpoint, path, eTags.get(key), start);
+        if (response.eTag() != null) {
+            eTags.put(key, response.eTag());
+        }
+        return response;
+    }
+
+    private static String driveLink(String userId, int version) {
+        return "https://drive.google.com/file/d/" + userId + "-" + version + "/view";
+    }
+
+    private static long uniform(SplittableRandom random, long window) {
+        return window <= 0 ? 0 : random.nextLong(window);
+    }
+}
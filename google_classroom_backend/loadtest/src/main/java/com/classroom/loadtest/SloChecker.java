@@ -0,0 +1,68 @@
+package com.classroom.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Compares measured endpoint statistics with the SLO limits. Limits for endpoints that did not
+ * run (because their scenario was not selected) are skipped.
+ */
+class SloChecker {
+
+    private final Properties limits = new Properties();
+
+    SloChecker(LoadTestOptions options) throws IOException {
+        if (options.sloFile != null) {
+            try (Reader reader = Files.newBufferedReader(Path.of(options.sloFile))) {
+                limits.load(reader);
+            }
+        } else {
+            try (InputStream defaults = SloChecker.class.getResourceAsStream("/slo.properties")) {
+                limits.load(defaults);
+            }
+        }
+        limits.putAll(options.sloOverrides);
+    }
+
+    List<String> check(Map<String, EndpointStats> results) {
+        List<String> violations = new ArrayList<>();
+        for (String key : new TreeSet<>(limits.stringPropertyNames())) {
+            int dot = key.lastIndexOf('.');
+            if (dot < 0) {
+                throw new IllegalArgumentException("SLO key must be <endpoint>.<metric>: " + key);
+            }
+            EndpointStats stats = results.get(key.substring(0, dot));
+            if (stats == null) {
+                continue;
+            }
+            String metric = key.substring(dot + 1);
+            double limit = Double.parseDouble(limits.getProperty(key).trim());
+            double actual = measure(stats, metric);
+            boolean violated = metric.equals("min-throughput") ? actual < limit : actual > limit;
+            if (violated) {
+                violations.add(String.format("%s = %.3f, limit %s", key, actual, limits.getProperty(key).trim()));
+            }
+        }
+        return violations;
+    }
+
+    private static double measure(EndpointStats stats, String metric) {
+        return switch (metric) {
+            case "p50" -> stats.percentileMillis(50);
+            case "p95" -> stats.percentileMillis(95);
+            case "p99" -> stats.percentileMillis(99);
+            case "max" -> stats.maxMillis();
+            case "error-rate" -> stats.errorRate();
+            case "min-throughput" -> stats.throughput();
+            default -> throw new IllegalArgumentException("Unknown SLO metric: " + metric);
+        };
+    }
+}
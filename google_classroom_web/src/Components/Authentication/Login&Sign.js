@@ -264,9 +264,9 @@ const LoginAndSign = () => {
     }
   }, []);
 
-  const redirectToDashboard = useCallback((role, userId) => {
+  const redirectToDashboard = useCallback((role, userId, token) => {
     setIsRedirectLoading(true);
-    const user = { userId, role };
+    const user = { userId, role, token };
     localStorage.setItem("user", JSON.stringify(user));
     const targetRoute = role === "STUDENT" ? "/student-dashboard" : "/teacher-dashboard";
     setTimeout(() => {
@@ -303,7 +303,7 @@ const LoginAndSign = () => {
         password: formData.password,
       });
       setSuccessMessage("Login Successful! Redirecting...");
-      redirectToDashboard(data.role, data.userId);
+      redirectToDashboard(data.role, data.userId, data.token);
     } catch (error) {
       setErrors({ api: ERROR_MESSAGES[error.message] || ERROR_MESSAGES.default });
       setIsLoading(false);
@@ -332,7 +332,7 @@ const LoginAndSign = () => {
         role: formData.role,
       });
       setSuccessMessage("Signup Successful! Redirecting...");
-      redirectToDashboard(data.role, data.userId);
+      redirectToDashboard(data.role, data.userId, data.token);
     } catch (error) {
       setErrors({ api: ERROR_MESSAGES[error.message] || ERROR_MESSAGES.default });
       setIsLoading(false);
@@ -346,7 +346,7 @@ const LoginAndSign = () => {
         token: credentialResponse.credential,
       });
       setSuccessMessage("Google Login Successful! Redirecting...");
-      redirectToDashboard(data.role, data.userId);
+      redirectToDashboard(data.role, data.userId, data.token);
     } catch (error) {
       console.error("Google API Call Error:", error);
       setErrors({ api: ERROR_MESSAGES[error.message] || ERROR_MESSAGES.default });
@@ -368,7 +368,7 @@ const LoginAndSign = () => {
         role: formData.role,
       });
       setSuccessMessage("Google Signup Successful! Redirecting...");
-      redirectToDashboard(data.role, data.userId);
+      redirectToDashboard(data.role, data.userId, data.token);
       setModalState((prev) => ({ ...prev, roleSelection: { isOpen: false, googleIdToken: null } }));
     } catch (error) {
       console.error("Google API Call Error:", error);
@@ -142,6 +142,7 @@ const TeacherAnnouncement = () => {
         headers: { 
           "userId": userId
         },
+        params: { classId: announcementToDelete.classId },
       });
 
       setAnnouncements(announcements.filter((ann) => ann.id !== announcementToDelete.id));
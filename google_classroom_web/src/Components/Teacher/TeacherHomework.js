@@ -113,6 +113,7 @@ const TeacherHomework = () => {
         headers: { "Content-Type": "application/json" ,
         "userId": userId
         },
+        params: { classId: homeworkToDelete.classId },
       });
 
       setHomeworks(homeworks.filter((hw) => hw.id !== homeworkToDelete.id));